@@ -0,0 +1,45 @@
+package com.macedo.auth.authsystem.audit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * One audit record. Serialized as a single NDJSON line whose first field is always
+ * {@code "ts"} (epoch millis), so readers can filter by time without a JSON parser.
+ */
+public record AuditEvent(long timestamp, AuditEventType type, String subject, String ip, String detail) {
+
+    static final String TIMESTAMP_PREFIX = "{\"ts\":";
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    byte[] toNdjson() {
+        StringBuilder line = new StringBuilder(160);
+        line.append(TIMESTAMP_PREFIX).append(timestamp)
+                .append(",\"time\":\"").append(Instant.ofEpochMilli(timestamp))
+                .append("\",\"type\":\"").append(type.name()).append('"');
+        appendField(line, "subject", subject);
+        appendField(line, "ip", ip);
+        appendField(line, "detail", detail);
+        line.append("}\n");
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendField(StringBuilder line, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < 0x20) {
+                line.append("\\u00").append(HEX[(c >> 4) & 0xf]).append(HEX[c & 0xf]);
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+}
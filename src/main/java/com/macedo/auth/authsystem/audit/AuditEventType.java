@@ -0,0 +1,11 @@
+package com.macedo.auth.authsystem.audit;
+
+public enum AuditEventType {
+    LOGIN_SUCCESS,
+    LOGIN_FAILURE,
+    ACCOUNT_LOCKED,
+    LOGOUT_ALL,
+    PASSWORD_CHANGED,
+    PASSWORD_RESET,
+    SESSION_REVOKED
+}
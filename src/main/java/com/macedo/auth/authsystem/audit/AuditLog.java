@@ -0,0 +1,220 @@
+package com.macedo.auth.authsystem.audit;
+
+import com.macedo.auth.authsystem.config.AuditProperties;
+import com.macedo.auth.authsystem.filter.ClientIpResolver;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dedicated audit trail for security-relevant actions, separate from the application log.
+ * <p>
+ * {@link #record} only builds the event and offers it to a lock-free ring buffer, so request
+ * threads never touch the disk; when the buffer is full the event is dropped and counted
+ * ({@code auth.audit.events{result=dropped}}). A single writer thread drains the buffer into
+ * memory-mapped NDJSON segments (see {@link AuditSegmentWriter}) and forces them to disk at most
+ * every {@code audit.force-interval}, busy or idle. Segments older than {@code audit.retention}
+ * are deleted by the same thread.
+ * <p>
+ * Events describing a change made in a transaction (password changed, sessions revoked) go through
+ * {@link #recordAfterCommit}, so a rolled-back change leaves no audit record claiming it happened.
+ */
+@Slf4j
+@Component
+public class AuditLog implements MeterBinder {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long PRUNE_INTERVAL_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final long forceIntervalNanos;
+    private final Duration retention;
+    private final AuditRingBuffer buffer;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AuditLog(AuditProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.directory = Path.of(properties.getDirectory());
+        this.segmentSize = Math.toIntExact(properties.getSegmentSize().toBytes());
+        this.forceIntervalNanos = properties.getForceInterval().toNanos();
+        this.retention = properties.getRetention();
+        this.buffer = new AuditRingBuffer(properties.getBufferSize());
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        AuditSegmentWriter writer = new AuditSegmentWriter(directory, segmentSize);
+        running = true;
+        writerThread = new Thread(() -> drain(writer), "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCounter(registry, "written", written);
+        bindCounter(registry, "dropped", dropped);
+        bindCounter(registry, "failed", failed);
+    }
+
+    private static void bindCounter(MeterRegistry registry, String result, LongAdder counter) {
+        FunctionCounter.builder("auth.audit.events", counter, LongAdder::sum)
+                .description("Audit events by write result")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Records an event for the current request; the client address comes from the request bound
+     * to this thread, if any.
+     */
+    public void record(AuditEventType type, String subject, String detail) {
+        if (!enabled) {
+            return;
+        }
+        offer(new AuditEvent(System.currentTimeMillis(), type, subject, currentClientIp(), detail));
+    }
+
+    /**
+     * Like {@link #record}, but inside a transaction the event is only queued once it commits and
+     * is discarded on rollback. Timestamp and client address are still taken now.
+     */
+    public void recordAfterCommit(AuditEventType type, String subject, String detail) {
+        if (!enabled) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(System.currentTimeMillis(), type, subject, currentClientIp(), detail);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            offer(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                offer(event);
+            }
+        });
+    }
+
+    private void offer(AuditEvent event) {
+        if (!buffer.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Writes the NDJSON records with {@code fromMillis <= ts < toMillis} to {@code out}.
+     */
+    public long copy(long fromMillis, long toMillis, OutputStream out) throws IOException {
+        return AuditSegmentReader.copy(directory, fromMillis, toMillis, out);
+    }
+
+    private static String currentClientIp() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            return ClientIpResolver.getClientIp(servletAttributes.getRequest());
+        }
+        return null;
+    }
+
+    private void drain(AuditSegmentWriter writer) {
+        long lastForce = System.nanoTime();
+        long lastPrune = lastForce;
+        long reportedDrops = 0;
+        prune();
+        try (writer) {
+            while (running) {
+                AuditEvent event = buffer.poll();
+                if (event != null) {
+                    write(writer, event);
+                }
+                // checado tambem sob carga: com o buffer sempre cheio o escritor nunca fica ocioso
+                // checked under load too: with a constantly busy buffer the writer is never idle
+                long now = System.nanoTime();
+                if (now - lastForce >= forceIntervalNanos) {
+                    writer.force();
+                    lastForce = now;
+                    long drops = dropped.sum();
+                    if (drops != reportedDrops) {
+                        log.warn("Audit buffer full: {} events dropped so far", drops);
+                        reportedDrops = drops;
+                    }
+                }
+                if (now - lastPrune >= PRUNE_INTERVAL_NANOS) {
+                    prune();
+                    lastPrune = now;
+                }
+                if (event == null) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+            AuditEvent event;
+            while ((event = buffer.poll()) != null) {
+                write(writer, event);
+            }
+        } catch (IOException | RuntimeException ex) {
+            log.error("Audit writer stopped: {}", ex.getMessage(), ex);
+        }
+    }
+
+    private void prune() {
+        if (retention == null || retention.isZero() || retention.isNegative()) {
+            return;
+        }
+        try {
+            int deleted = AuditSegmentReader.deleteBefore(directory, System.currentTimeMillis() - retention.toMillis());
+            if (deleted > 0) {
+                log.info("Deleted {} audit segment(s) older than {}", deleted, retention);
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to prune audit segments: {}", ex.getMessage());
+        }
+    }
+
+    private void write(AuditSegmentWriter writer, AuditEvent event) {
+        try {
+            writer.append(event.timestamp(), event.toNdjson());
+            written.increment();
+        } catch (IOException ex) {
+            failed.increment();
+            log.error("Failed to write audit event {}: {}", event.type(), ex.getMessage());
+        }
+    }
+}
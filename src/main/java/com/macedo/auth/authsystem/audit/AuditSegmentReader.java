@@ -0,0 +1,135 @@
+package com.macedo.auth.authsystem.audit;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Streams the records of a time range back out of the segment files. Segments are picked by the
+ * start time in their name and records are filtered by their leading {@code "ts"} field, so only
+ * complete lines are copied: an active segment may end in a half-written line or NUL padding.
+ */
+final class AuditSegmentReader {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d{13})\\.ndjson");
+    private static final byte[] TIMESTAMP_PREFIX = AuditEvent.TIMESTAMP_PREFIX.getBytes(StandardCharsets.US_ASCII);
+
+    // eventos podem chegar ao escritor um pouco fora de ordem / events may reach the writer slightly out of order
+    private static final long SEGMENT_SLACK_MILLIS = 60_000;
+
+    private AuditSegmentReader() {
+    }
+
+    static Path segmentPath(Path directory, long startMillis) {
+        return directory.resolve(String.format("audit-%013d.ndjson", startMillis));
+    }
+
+    /**
+     * Copies every record with {@code from <= ts < to} to {@code out}.
+     *
+     * @return number of records copied
+     */
+    static long copy(Path directory, long from, long to, OutputStream out) throws IOException {
+        long[] starts = segmentStarts(directory);
+        long copied = 0;
+        for (int i = 0; i < starts.length; i++) {
+            long nextStart = i + 1 < starts.length ? starts[i + 1] : Long.MAX_VALUE;
+            if (starts[i] - SEGMENT_SLACK_MILLIS >= to) {
+                break;
+            }
+            if (nextStart <= from - SEGMENT_SLACK_MILLIS) {
+                continue;
+            }
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(segmentPath(directory, starts[i])), 64 * 1024)) {
+                copied += copySegment(in, from, to, out);
+            } catch (NoSuchFileException ignored) {
+                // removido entre a listagem e a leitura / removed between listing and reading
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * Deletes the segments whose records all fall before {@code cutoff}: those followed by a
+     * segment starting (with slack) before it. The newest segment is never touched.
+     *
+     * @return number of segments deleted
+     */
+    static int deleteBefore(Path directory, long cutoff) throws IOException {
+        long[] starts = segmentStarts(directory);
+        int deleted = 0;
+        for (int i = 0; i + 1 < starts.length && starts[i + 1] + SEGMENT_SLACK_MILLIS <= cutoff; i++) {
+            if (Files.deleteIfExists(segmentPath(directory, starts[i]))) {
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    private static long[] segmentStarts(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return new long[0];
+        }
+        List<Long> starts = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "audit-*.ndjson")) {
+            for (Path file : files) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    starts.add(Long.parseLong(matcher.group(1)));
+                }
+            }
+        }
+        long[] sorted = starts.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    private static long copySegment(InputStream in, long from, long to, OutputStream out) throws IOException {
+        byte[] line = new byte[512];
+        int length = 0;
+        long copied = 0;
+        int b;
+        while ((b = in.read()) > 0) {
+            if (length == line.length) {
+                line = Arrays.copyOf(line, length * 2);
+            }
+            line[length++] = (byte) b;
+            if (b == '\n') {
+                long timestamp = timestamp(line, length);
+                if (timestamp >= from && timestamp < to) {
+                    out.write(line, 0, length);
+                    copied++;
+                }
+                length = 0;
+            }
+        }
+        return copied;
+    }
+
+    private static long timestamp(byte[] line, int length) {
+        int prefix = TIMESTAMP_PREFIX.length;
+        if (length <= prefix || !Arrays.equals(line, 0, prefix, TIMESTAMP_PREFIX, 0, prefix)) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = prefix; i < length; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return i == prefix ? -1 : value;
+            }
+            value = value * 10 + digit;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,86 @@
+package com.macedo.auth.authsystem.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends NDJSON lines to fixed-size memory-mapped segment files named
+ * {@code audit-<first event millis>.ndjson}. A segment is rotated when the next line does not fit;
+ * the finished file is forced and truncated to its used length. Unused space of the active segment
+ * (or of one left behind by a crash) reads as NUL bytes, which {@link AuditSegmentReader} treats
+ * as end of data. Not thread-safe: owned by the audit writer thread.
+ */
+final class AuditSegmentWriter implements Closeable {
+
+    private final Path directory;
+    private final int segmentSize;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private boolean dirty;
+
+    AuditSegmentWriter(Path directory, int segmentSize) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+    }
+
+    void append(long timestamp, byte[] line) throws IOException {
+        if (line.length > segmentSize) {
+            throw new IOException("Audit record larger than a segment: " + line.length + " bytes");
+        }
+        if (buffer == null || buffer.remaining() < line.length) {
+            rotate(timestamp);
+        }
+        buffer.put(line);
+        dirty = true;
+    }
+
+    void force() {
+        if (dirty) {
+            buffer.force();
+            dirty = false;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finishSegment();
+    }
+
+    private void rotate(long timestamp) throws IOException {
+        finishSegment();
+        Path segment = AuditSegmentReader.segmentPath(directory, timestamp);
+        while (Files.exists(segment)) {
+            segment = AuditSegmentReader.segmentPath(directory, ++timestamp);
+        }
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    private void finishSegment() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        try {
+            buffer.force();
+            int used = buffer.position();
+            buffer = null;
+            dirty = false;
+            // em sistemas que nao permitem truncar um arquivo mapeado, o resto fica com NULs
+            // where a mapped file cannot be truncated the tail simply stays NUL-filled
+            try {
+                channel.truncate(used);
+            } catch (IOException ignored) {
+            }
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+}
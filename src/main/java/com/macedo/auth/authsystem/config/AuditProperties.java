@@ -0,0 +1,35 @@
+package com.macedo.auth.authsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "audit")
+public class AuditProperties {
+
+    private boolean enabled = true;
+
+    // diretorio dos segmentos audit-<inicio em ms>.ndjson / directory holding audit-<start millis>.ndjson segments
+    private String directory = "audit";
+
+    // tamanho de cada segmento mapeado em memoria; ao encher, abre o proximo / size of each mapped segment before rotating
+    private DataSize segmentSize = DataSize.ofMegabytes(16);
+
+    // capacidade do ring buffer (potencia de 2); cheio, o evento e descartado e contado
+    // ring buffer capacity (power of two); when full the event is dropped and counted
+    private int bufferSize = 16_384;
+
+    // intervalo maximo entre escritas e o force() para o disco / maximum delay between a write and force() to disk
+    private Duration forceInterval = Duration.ofSeconds(1);
+
+    // segmentos mais antigos que isso sao apagados (verificado a cada hora); 0 mantem tudo
+    // segments older than this are deleted (checked hourly); 0 keeps everything
+    private Duration retention = Duration.ofDays(365);
+}
@@ -0,0 +1,38 @@
+package com.macedo.auth.authsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    // endpoints caros (BCrypt) protegidos pelo limite global / expensive (BCrypt) endpoints under the global limit
+    private List<String> paths = new ArrayList<>(List.of("/api/auth/login/**", "/api/auth/register/**"));
+
+    private int initialLimit = 20;
+
+    private int minLimit = 2;
+
+    private int maxLimit = 200;
+
+    // acima deste tempo de resposta o limite cai multiplicativamente / above this latency the limit backs off multiplicatively
+    private Duration latencyBudget = Duration.ofMillis(500);
+
+    private double backoffRatio = 0.9;
+
+    // fila estimada (Vegas) abaixo de alpha aumenta o limite, acima de beta diminui / estimated queue thresholds
+    private int alpha = 3;
+
+    private int beta = 6;
+}
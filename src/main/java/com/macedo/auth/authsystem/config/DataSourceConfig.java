@@ -0,0 +1,164 @@
+package com.macedo.auth.authsystem.config;
+
+import com.macedo.auth.authsystem.datasource.ReadOnlyTransactionRoutingDataSource;
+import com.macedo.auth.authsystem.datasource.ReplicaRoutingDataSource;
+import com.macedo.auth.authsystem.datasource.Workload;
+import com.macedo.auth.authsystem.datasource.WorkloadInterceptor;
+import com.macedo.auth.authsystem.datasource.WorkloadRoutingDataSource;
+import com.macedo.auth.authsystem.datasource.WorkloadType;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replaces Boot's single pool when replica routing and/or workload pools are enabled.
+ * <p>
+ * The {@code DataSource} bean is a {@link LazyConnectionDataSourceProxy}: the physical connection
+ * is only taken when the first statement runs, by which point the transaction's read-only flag is
+ * bound to the thread (so {@code @Transactional(readOnly = true)} work goes to {@link ReplicaRoutingDataSource}
+ * through {@link ReadOnlyTransactionRoutingDataSource})
+ * and the {@link Workload} of the call is bound to the thread (so writes go to that workload's pool
+ * in {@link WorkloadRoutingDataSource}, and only the workloads in {@code replica-routing.workloads}
+ * read from a replica).
+ * <p>
+ * Both decisions are taken once per physical connection, so a connection must not outlive its
+ * transaction: Hibernate is switched to release it after each transaction, and
+ * {@code spring.jpa.open-in-view} is off, otherwise the first transaction of a request would pin
+ * its replica (or pool) for every later one in the same request.
+ */
+@Slf4j
+@Configuration
+@Conditional(DataSourceConfig.RoutingEnabled.class)
+public class DataSourceConfig {
+
+    static class RoutingEnabled extends AnyNestedCondition {
+
+        RoutingEnabled() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty(prefix = "replica-routing", name = "enabled", havingValue = "true")
+        static class Replicas {
+        }
+
+        @ConditionalOnProperty(prefix = "workload-pools", name = "enabled", havingValue = "true")
+        static class Workloads {
+        }
+    }
+
+    @Bean(name = "primaryDataSource")
+    @ConditionalOnProperty(prefix = "workload-pools", name = "enabled", havingValue = "false", matchIfMissing = true)
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource singlePoolDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean(name = "primaryDataSource")
+    @ConditionalOnProperty(prefix = "workload-pools", name = "enabled", havingValue = "true")
+    public WorkloadRoutingDataSource workloadPoolsDataSource(DataSourceProperties properties,
+                                                             WorkloadPoolProperties workloads) {
+        Map<WorkloadType, DataSource> pools = new EnumMap<>(WorkloadType.class);
+        for (WorkloadType workload : WorkloadType.values()) {
+            WorkloadPoolProperties.Pool config = workloads.pool(workload);
+            HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            pool.setPoolName(workload.poolName());
+            pool.setMaximumPoolSize(config.getMaximumPoolSize());
+            pool.setConnectionTimeout(config.getConnectionTimeout().toMillis());
+            pools.put(workload, pool);
+            log.info("Workload pool {}: max {} connections, timeout {}", workload.poolName(),
+                    config.getMaximumPoolSize(), config.getConnectionTimeout());
+        }
+        return new WorkloadRoutingDataSource(pools);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "replica-routing", name = "enabled", havingValue = "true")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             ReplicaRoutingProperties routing) {
+        List<ReplicaRoutingDataSource.Replica> replicas = new ArrayList<>();
+        for (int i = 0; i < routing.getReplicas().size(); i++) {
+            ReplicaRoutingProperties.Replica config = routing.getReplicas().get(i);
+            String name = config.getName() != null ? config.getName() : "replica-" + (i + 1);
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(config.getUrl())
+                    .username(config.getUsername() != null ? config.getUsername() : properties.determineUsername())
+                    .password(config.getPassword() != null ? config.getPassword() : properties.determinePassword())
+                    .build();
+            pool.setPoolName(name);
+            pool.setReadOnly(true);
+            pool.setMaximumPoolSize(config.getMaximumPoolSize());
+            replicas.add(new ReplicaRoutingDataSource.Replica(name, pool));
+        }
+        log.info("Read-only {} transactions routed to {} replica(s), max lag {}", routing.getWorkloads(),
+                replicas.size(), routing.getMaxLag());
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, routing.getMaxLag(), routing.getLagQuery(),
+                routing.getWorkloads());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        replicaRoutingDataSource.ifAvailable(replicas -> {
+            // o flag da transacao, nao setReadOnly na conexao / the transaction's flag, not setReadOnly on the connection
+            proxy.setTargetDataSource(new ReadOnlyTransactionRoutingDataSource(primaryDataSource, replicas));
+            proxy.setReadOnlyDataSource(replicas);
+        });
+        return proxy;
+    }
+
+    // o Spring usa DELAYED_ACQUISITION_AND_HOLD: a sessao manteria a conexao (replica ou pool) entre transacoes
+    // Spring defaults to DELAYED_ACQUISITION_AND_HOLD: the session would keep its connection across transactions
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    // antes do interceptor de transacao: o workload precisa estar definido quando a conexao e obtida.
+    // Tambem usado sem pools dedicados: decide quais leituras podem ir para a replica
+    // ahead of the transaction interceptor: the workload must be bound when the connection is taken.
+    // Also needed without dedicated pools: it decides which reads may go to a replica
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor workloadAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(Workload.class, true))
+                .union(new AnnotationMatchingPointcut(null, Workload.class, true));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new WorkloadInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
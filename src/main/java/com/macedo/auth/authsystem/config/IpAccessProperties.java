@@ -0,0 +1,28 @@
+package com.macedo.auth.authsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "ip-access")
+public class IpAccessProperties {
+
+    // so estes enderecos/redes podem informar o cliente via X-Forwarded-For / only these may set X-Forwarded-For
+    private List<String> trustedProxies = new ArrayList<>(List.of("127.0.0.1/32", "::1/128"));
+
+    // arquivo com um CIDR por linha (# para comentarios); vazio desativa / one CIDR per line, empty disables
+    private String denyListFile;
+
+    private Duration reloadInterval = Duration.ofSeconds(10);
+
+    // redes que podem coletar /actuator/prometheus sem token / networks allowed to scrape /actuator/prometheus without a token
+    private List<String> metricsScrapers = new ArrayList<>(List.of("127.0.0.1/32", "::1/128"));
+}
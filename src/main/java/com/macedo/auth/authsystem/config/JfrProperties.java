@@ -0,0 +1,19 @@
+package com.macedo.auth.authsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "jfr")
+public class JfrProperties {
+
+    // onde o perfil auth-system.jfc e extraido do jar na subida; vazio nao extrai
+    // where auth-system.jfc is extracted from the jar at startup; empty skips it
+    private Path settingsFile;
+}
@@ -0,0 +1,79 @@
+package com.macedo.auth.authsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "load-shedding")
+public class LoadSheddingProperties {
+
+    private boolean enabled = true;
+
+    // requisicoes simultaneas consideradas 100% de utilizacao / concurrent requests treated as full utilization
+    private int maxInFlight = 200;
+
+    // latencia media (EWMA) acima da qual a classe LOW e descartada; o dobro descarta NORMAL
+    private Duration latencyThreshold = Duration.ofMillis(250);
+
+    // rotas lentas por design (BCrypt) ficam fora da media: um pico de logins nao e sobrecarga
+    // slow-by-design (BCrypt) routes stay out of the average: a burst of logins is not overload
+    private List<String> latencyExcludedPaths = new ArrayList<>(List.of(
+            "/api/auth/login/**", "/api/auth/register/**",
+            "/api/auth/change-password/**", "/api/auth/reset-password/**"));
+
+    // fracao de maxInFlight a partir da qual cada classe e descartada / utilization at which each class is shed
+    private Map<Priority, Double> shedAt = new EnumMap<>(Priority.class);
+
+    // rotas sem correspondencia usam defaultPriority / unmatched routes fall back to defaultPriority
+    private Priority defaultPriority = Priority.NORMAL;
+
+    private Map<String, Route> routes = new LinkedHashMap<>();
+
+    public LoadSheddingProperties() {
+        shedAt.put(Priority.LOW, 0.5);
+        shedAt.put(Priority.NORMAL, 0.75);
+        shedAt.put(Priority.HIGH, 0.95);
+
+        routes.put("refresh", route("/api/auth/refresh/**", Priority.CRITICAL));
+        routes.put("logout", route("/api/auth/logout/**", Priority.CRITICAL));
+        routes.put("login", route("/api/auth/login/**", Priority.HIGH));
+        routes.put("user", route("/api/user/**", Priority.HIGH));
+        routes.put("register", route("/api/auth/register/**", Priority.LOW));
+        routes.put("forgot-password", route("/api/auth/forgot-password/**", Priority.LOW));
+    }
+
+    private static Route route(String path, Priority priority) {
+        Route route = new Route();
+        route.setPath(path);
+        route.setPriority(priority);
+        return route;
+    }
+
+    public enum Priority {
+        // nunca descartada / never shed
+        CRITICAL,
+        HIGH,
+        NORMAL,
+        LOW
+    }
+
+    @Getter
+    @Setter
+    public static class Route {
+
+        private String path;
+
+        private Priority priority = Priority.NORMAL;
+    }
+}
@@ -0,0 +1,31 @@
+package com.macedo.auth.authsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "login-history")
+public class LoginHistoryProperties {
+
+    private boolean enabled = true;
+
+    // eventos aguardando gravacao; cheio, o evento e descartado e contado / pending events; when full they are dropped and counted
+    private int bufferSize = 10_000;
+
+    // linhas por INSERT multi-row / rows per multi-row INSERT
+    private int batchSize = 500;
+
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    // meses mantidos; particoes mais antigas sao removidas com DROP / months kept; older partitions are dropped
+    private int retentionMonths = 12;
+
+    // particoes criadas antecipadamente alem do mes atual / partitions created ahead of the current month
+    private int premakeMonths = 2;
+}
@@ -0,0 +1,107 @@
+package com.macedo.auth.authsystem.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    // local: buckets em memoria por instancia / postgres: buckets compartilhados entre instancias
+    private Store store = Store.LOCAL;
+
+    private Distributed distributed = new Distributed();
+
+    // numero maximo de buckets mantidos em memoria / maximum number of buckets kept in memory
+    private int maxBuckets = 100_000;
+
+    // politicas por rota, compiladas na inicializacao; os padroes ficam no application.properties
+    // per-route policies, compiled at startup; the defaults live in application.properties
+    @Valid
+    private Map<String, Policy> policies = new LinkedHashMap<>();
+
+    // politicas por usuario autenticado (subject do token), aplicadas depois da autenticacao
+    // per authenticated user (token subject) policies, applied after authentication
+    @Valid
+    private Map<String, Policy> userPolicies = new LinkedHashMap<>();
+
+    // um bucket ocioso por mais que isto estaria cheio em qualquer politica / idle longer than this, any bucket would be full
+    public Duration longestPeriod() {
+        Duration longest = Duration.ZERO;
+        for (Map<String, Policy> group : List.of(policies, userPolicies)) {
+            for (Policy policy : group.values()) {
+                if (policy.getPeriod().compareTo(longest) > 0) {
+                    longest = policy.getPeriod();
+                }
+            }
+        }
+        return longest;
+    }
+
+    public enum Store {
+        LOCAL,
+        POSTGRES
+    }
+
+    public enum Optimization {
+        NONE,
+        BATCHING,
+        DELAYING,
+        PREDICTING
+    }
+
+    @Getter
+    @Setter
+    public static class Distributed {
+
+        private String tableName = "rate_limit_buckets";
+
+        private Optimization optimization = Optimization.DELAYING;
+
+        // tokens consumidos localmente antes de sincronizar com o banco / tokens consumed locally before syncing
+        private long maxUnsynchronizedTokens = 2;
+
+        private Duration maxUnsynchronizedTimeout = Duration.ofMillis(500);
+
+        // pool proprio do rate limiting, separado das conexoes da aplicacao / dedicated pool, apart from the application's
+        private int maximumPoolSize = 10;
+
+        // statement_timeout das conexoes do pool; tambem limita a espera pelo advisory lock do bucket
+        // statement_timeout of the pool's connections; also bounds the wait for the bucket's advisory lock
+        private Duration statementTimeout = Duration.ofMillis(250);
+
+        // banco lento ou fora: true deixa a requisicao passar, false responde 429 / store failure: allow (true) or reject (false)
+        private boolean failOpen = true;
+
+        // intervalo da limpeza de buckets ociosos na tabela / interval of the idle bucket cleanup
+        private Duration cleanupInterval = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Policy {
+
+        // obrigatorio mesmo se so a capacidade for sobrescrita / required even when only capacity is overridden
+        @NotBlank
+        private String path;
+
+        @Positive
+        private int capacity;
+
+        private Duration period = Duration.ofMinutes(1);
+    }
+}
@@ -0,0 +1,46 @@
+package com.macedo.auth.authsystem.config;
+
+import com.macedo.auth.authsystem.filter.LocalBucketProvider;
+import com.macedo.auth.authsystem.filter.PostgresBucketProvider;
+import com.macedo.auth.authsystem.filter.RateLimitBucketProvider;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+public class RateLimitStoreConfig {
+
+    // menor connectionTimeout aceito pelo Hikari / smallest connectionTimeout Hikari accepts
+    private static final long MIN_CONNECTION_TIMEOUT_MS = 250;
+
+    @Bean
+    @ConditionalOnProperty(prefix = "rate-limit", name = "store", havingValue = "local", matchIfMissing = true)
+    public RateLimitBucketProvider localBucketProvider() {
+        return new LocalBucketProvider();
+    }
+
+    /**
+     * The buckets get their own small pool: every connection starts with the configured
+     * {@code statement_timeout}, and a slow or saturated rate-limit table cannot take connections
+     * from the application's pools. Waiting for a connection is bounded by the same timeout.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "rate-limit", name = "store", havingValue = "postgres")
+    public RateLimitBucketProvider postgresBucketProvider(DataSourceProperties dataSourceProperties,
+                                                          RateLimitProperties properties) {
+        RateLimitProperties.Distributed distributed = properties.getDistributed();
+        long timeoutMs = distributed.getStatementTimeout().toMillis();
+        HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        pool.setPoolName("rate-limit");
+        pool.setMaximumPoolSize(distributed.getMaximumPoolSize());
+        pool.setConnectionTimeout(Math.max(MIN_CONNECTION_TIMEOUT_MS, timeoutMs));
+        pool.setConnectionInitSql("SET statement_timeout = " + timeoutMs);
+        log.info("Distributed rate limiting enabled (table: {}, optimization: {}, statement timeout: {}ms, fail-open: {})",
+                distributed.getTableName(), distributed.getOptimization(), timeoutMs, distributed.isFailOpen());
+        return new PostgresBucketProvider(pool, distributed, properties.longestPeriod());
+    }
+}
@@ -0,0 +1,56 @@
+package com.macedo.auth.authsystem.config;
+
+import com.macedo.auth.authsystem.datasource.WorkloadType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "replica-routing")
+public class ReplicaRoutingProperties {
+
+    // desligado: tudo vai para spring.datasource.url / disabled: everything goes to spring.datasource.url
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    // replica atrasada alem disso sai do rodizio ate alcancar o primario / replicas lagging beyond this leave the rotation
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    private Duration checkInterval = Duration.ofSeconds(5);
+
+    // cargas cujas transacoes readOnly leem da replica; as demais (auth, sessoes) ficam no primario
+    // workloads whose read-only transactions use a replica; the rest (auth, sessions) stay on the primary
+    private Set<WorkloadType> workloads = EnumSet.of(WorkloadType.ADMIN);
+
+    // atraso em segundos; 0 quando nao ha WAL pendente (primario ocioso) / lag in seconds, 0 when nothing is pending.
+    // Vazio: so verifica a conexao (ex.: H2 em testes) / blank: connectivity check only (e.g. H2 in tests)
+    private String lagQuery = """
+            SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END""";
+
+    @Getter
+    @Setter
+    public static class Replica {
+
+        private String name;
+
+        private String url;
+
+        // vazios: usam as credenciais de spring.datasource / blank: fall back to the spring.datasource credentials
+        private String username;
+
+        private String password;
+
+        private int maximumPoolSize = 10;
+    }
+}
@@ -1,11 +1,22 @@
 package com.macedo.auth.authsystem.config;
 
+import com.macedo.auth.authsystem.filter.ClientIpResolver;
+import com.macedo.auth.authsystem.filter.ConcurrencyLimitFilter;
+import com.macedo.auth.authsystem.filter.IpPrefixTrie;
+import com.macedo.auth.authsystem.filter.LoadSheddingFilter;
 import com.macedo.auth.authsystem.filter.RateLimitFilter;
+import com.macedo.auth.authsystem.filter.UserRateLimitFilter;
 import com.macedo.auth.authsystem.security.JwtAuthenticationEntryPoint;
 import com.macedo.auth.authsystem.security.JwtAuthenticationFilter;
+import com.macedo.auth.authsystem.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
@@ -13,6 +24,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -27,20 +39,40 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtFilter;
     private final CorsConfigurationSource corsConfigurationSource;
     private final RateLimitFilter rateLimitFilter;
+    private final ConcurrencyLimitFilter concurrencyLimitFilter;
+    private final LoadSheddingFilter loadSheddingFilter;
+    private final UserRateLimitFilter userRateLimitFilter;
+    private final IpPrefixTrie metricsScrapers;
 
     public SecurityConfig(JwtAuthenticationEntryPoint unauthorizedHandler,
                           JwtAuthenticationFilter jwtFilter,
                           CorsConfigurationSource corsConfigurationSource,
-                          RateLimitFilter rateLimitFilter) {
+                          RateLimitFilter rateLimitFilter,
+                          ConcurrencyLimitFilter concurrencyLimitFilter,
+                          LoadSheddingFilter loadSheddingFilter,
+                          UserRateLimitFilter userRateLimitFilter,
+                          IpAccessProperties ipAccessProperties) {
         this.unauthorizedHandler = unauthorizedHandler;
         this.jwtFilter = jwtFilter;
         this.corsConfigurationSource = corsConfigurationSource;
         this.rateLimitFilter = rateLimitFilter;
+        this.concurrencyLimitFilter = concurrencyLimitFilter;
+        this.loadSheddingFilter = loadSheddingFilter;
+        this.userRateLimitFilter = userRateLimitFilter;
+        this.metricsScrapers = IpPrefixTrie.compile(ipAccessProperties.getMetricsScrapers());
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
+    }
+
+    // o Prometheus coleta sem token, entao o endpoint fica restrito as redes configuradas ou a admins
+    // Prometheus scrapes without a token, so the endpoint is limited to configured networks or admins
+    private AuthorizationManager<RequestAuthorizationContext> metricsScraperAccess() {
+        AuthorizationManager<RequestAuthorizationContext> fromScraper = (authentication, context) ->
+                new AuthorizationDecision(metricsScrapers.contains(ClientIpResolver.getClientIp(context.getRequest())));
+        return AuthorizationManagers.anyOf(AuthorityAuthorizationManager.hasAuthority("ROLE_ADMIN"), fromScraper);
     }
 
     @Bean
@@ -58,6 +90,9 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/swagger-ui.html", "/v3/api-docs/**", "/swagger-ui/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/prometheus").access(metricsScraperAccess())
+                        .requestMatchers("/actuator/**").hasAuthority("ROLE_ADMIN")
                         .requestMatchers("/api/admin/**").hasAuthority("ROLE_ADMIN")
                         .requestMatchers("/api/user/**").hasAnyAuthority("ROLE_USER", "ROLE_ADMIN")
                         .anyRequest().authenticated()
@@ -73,8 +108,16 @@ public class SecurityConfig {
                         .permissionsPolicy(permissions -> permissions
                                 .policy("geolocation=(), microphone=(), camera=()"))
                 )
+                // mesma posicao, na ordem de registro: o limite por IP ja ve o usuario autenticado
+                // same slot, kept in registration order: the IP limit already sees the authenticated user
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
-                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(rateLimitFilter, UsernamePasswordAuthenticationFilter.class)
+                // descarte por prioridade antes de consumir tokens / shed by priority before consuming tokens
+                .addFilterBefore(loadSheddingFilter, RateLimitFilter.class)
+                // limite global depois do limite por cliente / global limit after the per-client limit
+                .addFilterAfter(concurrencyLimitFilter, RateLimitFilter.class)
+                // limite por usuario precisa do SecurityContext preenchido / per-user limit needs the populated SecurityContext
+                .addFilterAfter(userRateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
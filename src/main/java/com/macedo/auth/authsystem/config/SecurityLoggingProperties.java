@@ -0,0 +1,25 @@
+package com.macedo.auth.authsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "security-logging")
+public class SecurityLoggingProperties {
+
+    // intervalo do resumo agregado por categoria / interval of the aggregated per-category summary
+    private Duration summaryInterval = Duration.ofSeconds(60);
+
+    // eventos individuais registrados por categoria em cada intervalo antes da amostragem
+    // individual events logged per category in each interval before sampling kicks in
+    private int sampleBurst = 10;
+
+    // depois do burst, registra 1 a cada N eventos (0 desativa) / after the burst, log 1 in N events (0 disables)
+    private int sampleRate = 1000;
+}
@@ -0,0 +1,21 @@
+package com.macedo.auth.authsystem.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "server-timing")
+public class ServerTimingProperties {
+
+    private boolean enabled = false;
+
+    // header que o cliente envia com o token para receber Server-Timing / request header carrying the token
+    private String header = "X-Server-Timing-Token";
+
+    // segredo compartilhado com quem pode ver os tempos internos / secret shared with whoever may see internal timings
+    private String token;
+}
@@ -0,0 +1,51 @@
+package com.macedo.auth.authsystem.config;
+
+import com.macedo.auth.authsystem.datasource.WorkloadType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "workload-pools")
+public class WorkloadPoolProperties {
+
+    // desligado: um unico pool (spring.datasource.hikari.*) / disabled: a single pool (spring.datasource.hikari.*)
+    private boolean enabled = false;
+
+    private Pool general = new Pool(10, Duration.ofSeconds(30));
+
+    // login nao deve ficar 30s na fila: melhor falhar rapido / login should fail fast rather than queue for 30s
+    private Pool auth = new Pool(10, Duration.ofSeconds(5));
+
+    private Pool admin = new Pool(4, Duration.ofSeconds(30));
+
+    private Pool background = new Pool(2, Duration.ofSeconds(30));
+
+    public Pool pool(WorkloadType workload) {
+        return switch (workload) {
+            case GENERAL -> general;
+            case AUTH -> auth;
+            case ADMIN -> admin;
+            case BACKGROUND -> background;
+        };
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Pool {
+
+        private int maximumPoolSize = 10;
+
+        // espera maxima por uma conexao livre deste pool / longest wait for a free connection of this pool
+        private Duration connectionTimeout = Duration.ofSeconds(30);
+    }
+}
@@ -1,8 +1,12 @@
 package com.macedo.auth.authsystem.controller;
 
+import com.macedo.auth.authsystem.audit.AuditLog;
 import com.macedo.auth.authsystem.dto.ErrorResponse;
+import com.macedo.auth.authsystem.dto.LoginHistoryResponse;
 import com.macedo.auth.authsystem.dto.PagedResponse;
 import com.macedo.auth.authsystem.dto.UserResponse;
+import com.macedo.auth.authsystem.service.LoginHistoryService;
+import com.macedo.auth.authsystem.service.UserExportService;
 import com.macedo.auth.authsystem.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -13,9 +17,15 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -29,6 +39,9 @@ import org.springframework.web.bind.annotation.*;
 public class AdminController {
 
     private final UserService userService;
+    private final LoginHistoryService loginHistoryService;
+    private final UserExportService userExportService;
+    private final AuditLog auditLog;
 
     @GetMapping("/users")
     @Operation(
@@ -39,14 +52,24 @@ public class AdminController {
                     **Parâmetros:**
                     * `page`: Número da página (0-indexed, default=0)
                     * `size`: Itens por página (default=20, max=100)
-                    * `sort`: Ordenação (ex: createdAt,desc ou name,asc)
-                    * `q`: Busca por nome ou email
+                    * `sort`: Ordenação por createdAt, name, email ou id (ex: createdAt,desc); repita o parâmetro
+                      para desempatar (ex: sort=name,asc&sort=createdAt,desc). Outros campos retornam 400
+                    * `q`: Busca por nome ou email, sem diferenciar maiúsculas:
+                      termos com 3+ caracteres casam em qualquer posição (`silva` encontra `Ana Silva`);
+                      termos com 1-2 caracteres casam só no início do nome ou do email (`li` não encontra `Oliveira`);
+                      termos com `@` após o primeiro caractere casam só no início do email (`joao@exa`)
+                    * `cursor`: Ativa a paginação por cursor (envie vazio na primeira página e depois o `nextCursor` recebido)
+                    * `total`: Apenas com cursor: `estimate` (default, estatísticas do PostgreSQL), `exact` ou `none`
 
                     **Resposta:**
                     * `items`: Lista de usuários da página atual
                     * `page`: Metadados de paginação (number, size, totalItems, totalPages)
+                    * `nextCursor`: Cursor da próxima página (apenas na paginação por cursor)
+
+                    **Paginação por cursor:** cada página custa o mesmo independente da profundidade;
+                    ordenação por createdAt, name, email ou id. `page` é ignorado.
 
-                    **Ordenação padrão:** createdAt,desc (mais recentes primeiro)
+                    **Ordenação padrão:** createdAt,desc (mais recentes primeiro); id é sempre o último desempate
 
                     **Permissão:** Requer ROLE_ADMIN
                     """
@@ -57,6 +80,11 @@ public class AdminController {
                     description = "Lista de usuários retornada com sucesso",
                     content = @Content(schema = @Schema(implementation = PagedResponse.class))
             ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Cursor, ordenação ou modo de total inválido",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
             @ApiResponse(
                     responseCode = "401",
                     description = "Não autenticado",
@@ -73,14 +101,69 @@ public class AdminController {
             @RequestParam(required = false) Integer page,
             @Parameter(description = "Itens por página (max=100)", example = "20")
             @RequestParam(required = false) Integer size,
-            @Parameter(description = "Ordenação (ex: createdAt,desc ou name,asc)", example = "createdAt,desc")
+            @Parameter(description = "Ordenação: createdAt, name, email ou id (ex: createdAt,desc ou name,asc)", example = "createdAt,desc")
             @RequestParam(required = false) String[] sort,
-            @Parameter(description = "Busca por nome ou email", example = "joao")
-            @RequestParam(required = false, name = "q") String query
+            @Parameter(description = "Busca por nome ou email: 3+ caracteres em qualquer posição, 1-2 caracteres "
+                    + "ou termo com '@' só no início", example = "joao")
+            @RequestParam(required = false, name = "q") String query,
+            @Parameter(description = "Cursor da paginação por cursor (vazio = primeira página)")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Total na paginação por cursor: estimate, exact ou none", example = "estimate")
+            @RequestParam(required = false) String total
     ) {
+        if (cursor != null) {
+            return ResponseEntity.ok(userService.searchUsersByCursor(query, cursor, size, sort, total));
+        }
         return ResponseEntity.ok(userService.searchUsers(query, page, size, sort));
     }
 
+    @GetMapping("/users/export")
+    @Operation(
+            summary = "Exportar todos os usuários",
+            description = """
+                    Transmite todos os usuários (id, nome, email, papéis, status, data de criação) ordenados por id,
+                    sem carregar a lista em memória.
+
+                    **Parâmetros:**
+                    * `format`: `ndjson` (default, um JSON por linha) ou `csv` (RFC 4180, com cabeçalho)
+
+                    **Permissão:** Requer ROLE_ADMIN
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Usuários transmitidos"),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Formato não suportado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Não autenticado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Sem permissão",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @Parameter(description = "Formato: ndjson ou csv", example = "ndjson")
+            @RequestParam(required = false) String format) {
+        UserExportService.Format exportFormat = UserExportService.Format.parse(format);
+        // roda fora da thread da requisicao, limitado por spring.mvc.async.request-timeout
+        // runs off the request thread, bounded by spring.mvc.async.request-timeout
+        StreamingResponseBody body = out -> userExportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + exportFormat.extension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @GetMapping("/users/{id}")
     @Operation(
             summary = "Buscar usuário por ID",
@@ -118,4 +201,95 @@ public class AdminController {
             @PathVariable Long id) {
         return ResponseEntity.ok(userService.getUserById(id));
     }
+
+    @GetMapping("/users/{id}/logins")
+    @Operation(
+            summary = "Histórico de logins do usuário",
+            description = """
+                    Retorna o último login bem-sucedido e as tentativas de login (sucesso e senha incorreta)
+                    do usuário no intervalo informado, mais recentes primeiro.
+
+                    **Parâmetros:**
+                    * `from`: Início do intervalo, inclusivo (default: 30 dias antes de `to`)
+                    * `to`: Fim do intervalo, exclusivo (default: agora)
+                    * `limit`: Máximo de tentativas (default=50, max=500)
+
+                    Os eventos são gravados em lote, com até ~1s de atraso.
+
+                    **Permissão:** Requer ROLE_ADMIN
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Histórico retornado com sucesso",
+                    content = @Content(schema = @Schema(implementation = LoginHistoryResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Não autenticado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Sem permissão",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Usuário não encontrado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<LoginHistoryResponse> getUserLogins(
+            @Parameter(description = "ID do usuário", example = "1", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Início (inclusivo)", example = "2025-01-01T00:00:00Z")
+            @RequestParam(required = false) Instant from,
+            @Parameter(description = "Fim (exclusivo, default: agora)", example = "2025-02-01T00:00:00Z")
+            @RequestParam(required = false) Instant to,
+            @Parameter(description = "Máximo de tentativas (max=500)", example = "50")
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(loginHistoryService.getHistory(id, from, to, limit));
+    }
+
+    @GetMapping(value = "/audit", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Exportar trilha de auditoria",
+            description = """
+                    Transmite os eventos de auditoria (login, bloqueio, logout-all, troca/reset de senha,
+                    revogação de sessão) do intervalo informado, um JSON por linha (NDJSON).
+
+                    **Parâmetros:**
+                    * `from`: Início do intervalo, inclusivo (ISO-8601, ex: 2025-01-01T00:00:00Z)
+                    * `to`: Fim do intervalo, exclusivo (default: agora)
+
+                    **Permissão:** Requer ROLE_ADMIN
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Eventos transmitidos"),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Não autenticado",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "403",
+                    description = "Sem permissão",
+                    content = @Content(schema = @Schema(implementation = ErrorResponse.class))
+            )
+    })
+    public ResponseEntity<StreamingResponseBody> getAuditEvents(
+            @Parameter(description = "Início (inclusivo)", example = "2025-01-01T00:00:00Z", required = true)
+            @RequestParam Instant from,
+            @Parameter(description = "Fim (exclusivo, default: agora)", example = "2025-01-02T00:00:00Z")
+            @RequestParam(required = false) Instant to) {
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to != null ? to.toEpochMilli() : System.currentTimeMillis();
+        StreamingResponseBody body = out -> auditLog.copy(fromMillis, toMillis, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
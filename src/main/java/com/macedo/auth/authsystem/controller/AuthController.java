@@ -1,6 +1,7 @@
 package com.macedo.auth.authsystem.controller;
 
 import com.macedo.auth.authsystem.dto.*;
+import com.macedo.auth.authsystem.filter.ClientIpResolver;
 import com.macedo.auth.authsystem.service.AuthService;
 import com.macedo.auth.authsystem.service.PasswordResetService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -412,10 +413,6 @@ public class AuthController {
     }
 
     private String getClientIp(HttpServletRequest request) {
-        String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader == null || xfHeader.isEmpty()) {
-            return request.getRemoteAddr();
-        }
-        return xfHeader.split(",")[0].trim();
+        return ClientIpResolver.getClientIp(request);
     }
 }
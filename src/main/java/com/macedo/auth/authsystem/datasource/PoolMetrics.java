@@ -0,0 +1,26 @@
+package com.macedo.auth.authsystem.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import javax.sql.DataSource;
+
+/**
+ * Hikari metrics for pools that are not beans themselves (workload and replica pools), tagged
+ * with the pool name: {@code hikaricp.connections.pending}, {@code hikaricp.connections.acquire}
+ * (time waiting for a connection) and {@code hikaricp.connections.timeout} per bulkhead.
+ */
+final class PoolMetrics {
+
+    private PoolMetrics() {
+    }
+
+    static void bind(DataSource dataSource, MeterRegistry registry) {
+        // o Boot faz o mesmo para os pools que encontra; so um registro por pool / Boot does the same for pools it finds
+        if (dataSource instanceof HikariDataSource hikari
+                && hikari.getMetricRegistry() == null && hikari.getMetricsTrackerFactory() == null) {
+            hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+        }
+    }
+}
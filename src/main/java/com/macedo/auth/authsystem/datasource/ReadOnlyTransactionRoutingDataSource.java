@@ -0,0 +1,34 @@
+package com.macedo.auth.authsystem.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sends connections taken inside a read-only transaction to {@link ReplicaRoutingDataSource} and
+ * everything else to the primary.
+ * <p>
+ * With connections released after each transaction, {@code HibernateJpaDialect} never prepares the
+ * connection, so {@code setReadOnly(true)} is never called on the {@code LazyConnectionDataSourceProxy}
+ * and its read-only data source alone would never be used. The transaction's read-only flag is
+ * already bound to the thread when the first statement makes the proxy take a connection from here.
+ */
+public class ReadOnlyTransactionRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ReadOnlyTransactionRoutingDataSource(DataSource primary, DataSource readOnly) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Boolean.FALSE, primary);
+        targets.put(Boolean.TRUE, readOnly);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -0,0 +1,191 @@
+package com.macedo.auth.authsystem.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-only side of the datasource: hands out connections from the replica pools in turn,
+ * skipping replicas that are unreachable or lag behind the primary by more than
+ * {@code replica-routing.max-lag}, and falls back to the primary when none is usable.
+ * <p>
+ * It is plugged in as the {@code readOnlyDataSource} of a {@code LazyConnectionDataSourceProxy}
+ * (see {@code DataSourceConfig}), so only {@code @Transactional(readOnly = true)} work reaches
+ * it; everything else keeps going to the primary. Of that, only the workloads listed in
+ * {@code replica-routing.workloads} (admin search, listing and export by default) read from a
+ * replica: credential and session lookups stay on the primary, where a lock, role change or new
+ * account is visible immediately.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    /**
+     * A replica pool and its state as of the last {@link #checkReplicas()}.
+     */
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean available = true;
+        private volatile double lagSeconds;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+
+        public boolean available() {
+            return available;
+        }
+
+        public double lagSeconds() {
+            return lagSeconds;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final String lagQuery;
+    private final Set<WorkloadType> workloads;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, Duration maxLag, String lagQuery,
+                                    Set<WorkloadType> workloads) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.lagQuery = lagQuery != null && !lagQuery.isBlank() ? lagQuery : null;
+        this.workloads = workloads.isEmpty() ? EnumSet.noneOf(WorkloadType.class) : EnumSet.copyOf(workloads);
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (!workloads.contains(WorkloadContext.current())) {
+            // leitura que precisa do estado mais recente / read that must see the latest state
+            return source.open(primary);
+        }
+        int size = replicas.size();
+        if (size > 0) {
+            int start = Math.floorMod(next.getAndIncrement(), size);
+            for (int i = 0; i < size; i++) {
+                Replica replica = replicas.get((start + i) % size);
+                if (!replica.available) {
+                    continue;
+                }
+                try {
+                    return source.open(replica.dataSource);
+                } catch (SQLException ex) {
+                    // fica fora ate a proxima verificacao / stays out until the next check
+                    replica.available = false;
+                    log.warn("Replica {} unavailable, taking it out of rotation: {}", replica.name, ex.getMessage());
+                }
+            }
+        }
+        fallbacks.increment();
+        return source.open(primary);
+    }
+
+    /**
+     * Measures each replica's lag and puts it in or out of the rotation. A replica that cannot
+     * be reached, or whose lag query fails, counts as unavailable.
+     */
+    @Scheduled(fixedDelayString = "${replica-routing.check-interval:5s}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasAvailable = replica.available;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                replica.lagSeconds = lagQuery != null ? queryLag(connection) : 0;
+                replica.available = replica.lagSeconds <= maxLagSeconds;
+            } catch (SQLException ex) {
+                replica.available = false;
+                log.debug("Replica {} check failed: {}", replica.name, ex.getMessage());
+            }
+            if (wasAvailable != replica.available) {
+                log.info("Replica {} is now {} (lag {}s)", replica.name,
+                        replica.available ? "in rotation" : "out of rotation", replica.lagSeconds);
+            }
+        }
+    }
+
+    private double queryLag(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(lagQuery)) {
+            return rs.next() ? rs.getDouble(1) : 0;
+        }
+    }
+
+    /**
+     * Closes the replica pools; the primary belongs to its own bean.
+     */
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            PoolMetrics.bind(replica.dataSource, registry);
+            Gauge.builder("auth.datasource.replica.lag", replica, Replica::lagSeconds)
+                    .description("Replication lag measured by the last replica check")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("auth.datasource.replica.available", replica, r -> r.available ? 1 : 0)
+                    .description("Whether the replica is taking read-only traffic")
+                    .tag("replica", replica.name)
+                    .register(registry);
+        }
+        FunctionCounter.builder("auth.datasource.replica.fallbacks", fallbacks, LongAdder::sum)
+                .description("Read-only connections served by the primary because no replica was usable")
+                .register(registry);
+    }
+}
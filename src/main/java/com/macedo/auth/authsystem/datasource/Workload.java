@@ -0,0 +1,25 @@
+package com.macedo.auth.authsystem.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects the connection pool used while the annotated method (or any method of the annotated
+ * class or repository interface) runs. A method annotation wins over the class one. Nested
+ * annotations do not switch pools: inside an annotated call, every connection it or its callees
+ * take comes from the outermost call's pool.
+ * <p>
+ * The pool is chosen when a transaction takes its connection, and the connection is released when
+ * the transaction ends ({@code DataSourceConfig} sets Hibernate's release-after-transaction mode,
+ * and open-in-view is off), so the next transaction of the same request picks again.
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Workload {
+
+    WorkloadType value();
+}
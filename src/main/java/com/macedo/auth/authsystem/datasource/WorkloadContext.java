@@ -0,0 +1,41 @@
+package com.macedo.auth.authsystem.datasource;
+
+/**
+ * Workload of the current thread, set by {@link WorkloadInterceptor} and read by
+ * {@link WorkloadRoutingDataSource} (and {@link ReplicaRoutingDataSource}) each time a transaction
+ * takes a connection.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<WorkloadType> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static WorkloadType current() {
+        WorkloadType workload = CURRENT.get();
+        return workload != null ? workload : WorkloadType.GENERAL;
+    }
+
+    /**
+     * Enters {@code workload} unless the thread already runs inside another one: the outermost
+     * annotated call keeps its workload for everything it calls.
+     *
+     * @return the previous value, to hand back to {@link #restore}
+     */
+    static WorkloadType enter(WorkloadType workload) {
+        WorkloadType previous = CURRENT.get();
+        if (previous == null) {
+            CURRENT.set(workload);
+        }
+        return previous;
+    }
+
+    static void restore(WorkloadType previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
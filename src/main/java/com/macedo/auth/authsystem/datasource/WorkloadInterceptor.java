@@ -0,0 +1,42 @@
+package com.macedo.auth.authsystem.datasource;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Binds the {@link Workload} of the invoked method to the thread for the duration of the call.
+ * Ordered ahead of the transaction interceptor, so the workload is set before a transaction
+ * takes its connection.
+ */
+public class WorkloadInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Workload workload = resolve(invocation);
+        if (workload == null) {
+            return invocation.proceed();
+        }
+        WorkloadType previous = WorkloadContext.enter(workload.value());
+        try {
+            return invocation.proceed();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    // metodo, depois a classe (ou a interface do repositorio) / method first, then the class (or repository interface)
+    static Workload resolve(MethodInvocation invocation) {
+        Method method = invocation.getMethod();
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(method, Workload.class);
+        if (workload == null) {
+            Class<?> targetClass = invocation.getThis() != null
+                    ? AopUtils.getTargetClass(invocation.getThis()) : method.getDeclaringClass();
+            workload = AnnotatedElementUtils.findMergedAnnotation(targetClass, Workload.class);
+        }
+        return workload;
+    }
+}
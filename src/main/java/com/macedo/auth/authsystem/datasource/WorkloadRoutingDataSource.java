@@ -0,0 +1,50 @@
+package com.macedo.auth.authsystem.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Primary-side datasource with one pool per {@link WorkloadType}: each connection comes from the
+ * pool of the workload the thread is running in ({@link WorkloadContext}), or the
+ * {@link WorkloadType#GENERAL} pool outside any annotated call.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder, AutoCloseable {
+
+    private final Map<WorkloadType, DataSource> pools;
+
+    public WorkloadRoutingDataSource(Map<WorkloadType, DataSource> pools) {
+        this.pools = Map.copyOf(pools);
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(pools.get(WorkloadType.GENERAL));
+        setLenientFallback(true);
+        afterPropertiesSet();
+    }
+
+    public DataSource pool(WorkloadType workload) {
+        return pools.get(workload);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        pools.values().forEach(pool -> PoolMetrics.bind(pool, registry));
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource pool : pools.values()) {
+            if (pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
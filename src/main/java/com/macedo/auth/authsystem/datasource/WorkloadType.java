@@ -0,0 +1,26 @@
+package com.macedo.auth.authsystem.datasource;
+
+import java.util.Locale;
+
+/**
+ * Connection-pool bulkheads. Each workload gets its own pool when {@code workload-pools.enabled},
+ * so a slow admin search or a purge job can exhaust its own connections but not those of login.
+ */
+public enum WorkloadType {
+
+    // tudo que nao foi anotado / everything not annotated
+    GENERAL,
+
+    // login, refresh, autenticacao por token / login, refresh, per-request token authentication
+    AUTH,
+
+    // busca e listagem admin, relatorios, exportacao / admin search and listing, reports, export
+    ADMIN,
+
+    // jobs agendados e limpezas / scheduled jobs and purges
+    BACKGROUND;
+
+    public String poolName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
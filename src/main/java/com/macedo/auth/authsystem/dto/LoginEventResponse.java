@@ -0,0 +1,35 @@
+package com.macedo.auth.authsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(
+        name = "LoginEventResponse",
+        description = "Tentativa de login registrada no histórico"
+)
+public class LoginEventResponse {
+
+    @Schema(description = "Data e hora da tentativa", example = "2024-01-15T10:30:00Z")
+    private Instant occurredAt;
+
+    @Schema(description = "Indica se a senha estava correta", example = "true")
+    private boolean success;
+
+    @Schema(description = "Endereço IP do cliente", example = "192.168.1.100")
+    private String ip;
+
+    @Schema(
+            description = "User Agent do navegador/aplicativo",
+            example = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36"
+    )
+    private String userAgent;
+}
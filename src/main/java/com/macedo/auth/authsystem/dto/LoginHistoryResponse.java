@@ -0,0 +1,33 @@
+package com.macedo.auth.authsystem.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(
+        name = "LoginHistoryResponse",
+        description = "Último login e histórico de tentativas de um usuário"
+)
+public class LoginHistoryResponse {
+
+    @Schema(description = "ID do usuário", example = "1")
+    private Long userId;
+
+    @Schema(
+            description = "Último login bem-sucedido dentro do período de retenção (null se não houver)",
+            example = "2024-01-15T10:30:00Z"
+    )
+    private Instant lastLoginAt;
+
+    @Schema(description = "Tentativas no intervalo solicitado, mais recentes primeiro")
+    private List<LoginEventResponse> items;
+}
@@ -1,5 +1,6 @@
 package com.macedo.auth.authsystem.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -24,24 +25,35 @@ public class PagedResponse<T> {
     @Schema(description = "Informações de paginação")
     private PageInfo page;
 
+    @Schema(
+            description = "Cursor da próxima página (paginação por cursor); ausente na última página",
+            example = "Y3JlYXRlZEF0fGRlc2N8NDJ8MjAyNC0wMS0xNVQxMDozMDowMFo"
+    )
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
+
     @Data
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
     @Schema(description = "Metadados de paginação")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class PageInfo {
 
-        @Schema(description = "Número da página atual (0-indexed)", example = "0")
-        private int number;
+        @Schema(description = "Número da página atual (0-indexed); ausente na paginação por cursor", example = "0")
+        private Integer number;
 
         @Schema(description = "Tamanho da página", example = "10")
         private int size;
 
-        @Schema(description = "Total de itens", example = "100")
-        private long totalItems;
+        @Schema(description = "Total de itens; ausente quando não solicitado", example = "100")
+        private Long totalItems;
+
+        @Schema(description = "Total de páginas; ausente na paginação por cursor", example = "10")
+        private Integer totalPages;
 
-        @Schema(description = "Total de páginas", example = "10")
-        private int totalPages;
+        @Schema(description = "Indica que totalItems é uma estimativa (estatísticas do PostgreSQL)", example = "true")
+        private Boolean totalEstimated;
     }
 
     public static <T> PagedResponse<T> of(List<T> items, int pageNumber, int pageSize, long totalItems) {
@@ -56,4 +68,17 @@ public class PagedResponse<T> {
                         .build())
                 .build();
     }
+
+    public static <T> PagedResponse<T> ofCursor(List<T> items, int pageSize, String nextCursor,
+                                                Long totalItems, boolean totalEstimated) {
+        return PagedResponse.<T>builder()
+                .items(items)
+                .page(PageInfo.builder()
+                        .size(pageSize)
+                        .totalItems(totalItems)
+                        .totalEstimated(totalItems != null ? totalEstimated : null)
+                        .build())
+                .nextCursor(nextCursor)
+                .build();
+    }
 }
@@ -0,0 +1,10 @@
+package com.macedo.auth.authsystem.entity;
+
+import java.time.Instant;
+
+/**
+ * One row of the partitioned {@code login_events} table. Not a JPA entity: rows are only appended
+ * in batches and read by time range through {@link com.macedo.auth.authsystem.repository.LoginEventRepository}.
+ */
+public record LoginEvent(long userId, Instant occurredAt, boolean success, String ip, String userAgent) {
+}
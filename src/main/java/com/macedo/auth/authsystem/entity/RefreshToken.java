@@ -13,10 +13,12 @@ import java.time.Instant;
 
 public class RefreshToken {
 
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_seq")
+    @SequenceGenerator(name = "refresh_tokens_seq", sequenceName = "refresh_tokens_seq", allocationSize = 50)
     private Long id;
 
-    @OneToOne(optional = false) @JoinColumn(name = "user_id")
+    // varias sessoes por usuario / several sessions per user
+    @ManyToOne(optional = false) @JoinColumn(name = "user_id")
     private User user;
 
     @Column(nullable = false, length = 200, unique = true)
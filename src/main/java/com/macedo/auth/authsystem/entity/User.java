@@ -2,6 +2,7 @@ package com.macedo.auth.authsystem.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.Instant;
 import java.util.Set;
@@ -21,8 +22,12 @@ import java.util.Set;
 
 public class User {
 
+    // sequencia com alocacao em blocos de 50 (V9): ao contrario de IDENTITY, o Hibernate conhece o id antes do
+    // INSERT e pode agrupar inserts em lote (hibernate.jdbc.batch_size)
+    // pooled sequence (V9): unlike IDENTITY, Hibernate knows the id before the INSERT, so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     @EqualsAndHashCode.Include
     private Long id;
 
@@ -39,7 +44,10 @@ public class User {
     @Builder.Default
     private boolean enabled = true;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    // LAZY: login, refresh e sessoes nao usam papeis; quem precisa carrega com o entity graph
+    // "roles" (UserRepository.findWithRoles*) ou em lote (listagens, uma consulta por pagina)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
@@ -63,6 +71,13 @@ public class User {
     @Builder.Default
     private Integer failedAttempts = 0;
 
+    // colunas de V2; bloqueio persistido pelo administrador, alem do bloqueio temporario em memoria (LoginAttemptService)
+    @Column(nullable = false)
+    @Builder.Default
+    private boolean accountLocked = false;
+
+    private Instant lockTime;
+
     @PreUpdate
     void onUpdate() {
         this.updatedAt = Instant.now();
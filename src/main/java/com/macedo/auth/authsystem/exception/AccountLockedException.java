@@ -1,6 +1,6 @@
 package com.macedo.auth.authsystem.exception;
 
-public class AccountLockedException extends RuntimeException {
+public class AccountLockedException extends StacklessException {
 
     private final long lockoutTimeRemainingMinutes;
 
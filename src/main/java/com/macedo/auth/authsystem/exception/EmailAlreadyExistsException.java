@@ -1,6 +1,6 @@
 package com.macedo.auth.authsystem.exception;
 
-public class EmailAlreadyExistsException extends RuntimeException {
+public class EmailAlreadyExistsException extends StacklessException {
     public EmailAlreadyExistsException(String message) {
         super(message);
     }
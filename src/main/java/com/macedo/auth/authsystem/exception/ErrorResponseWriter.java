@@ -0,0 +1,240 @@
+package com.macedo.auth.authsystem.exception;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Writes {@link com.macedo.auth.authsystem.dto.ErrorResponse} JSON without going through Jackson.
+ * <p>
+ * Everything but the timestamp and the path is known up front, so each error is compiled once into
+ * a {@link Template} holding the UTF-8 bytes of {@code {"code":...,"message":...}}; a message may
+ * carry one number (e.g. seconds to wait). Rendering appends the number, the timestamp and the
+ * escaped path into a per-thread buffer, which is then copied to the response in one write. Field
+ * order and timestamp format are the same as Jackson's output for {@code ErrorResponse}.
+ */
+public final class ErrorResponseWriter {
+
+    public static final String CONTENT_TYPE = "application/json";
+
+    private static final byte[] TIMESTAMP_FIELD = ascii("\",\"timestamp\":\"");
+    private static final byte[] PATH_FIELD = ascii("\",\"path\":\"");
+    private static final byte[] END = ascii("\"}");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+    private ErrorResponseWriter() {
+    }
+
+    public record Template(HttpStatus status, byte[] head, byte[] tail) {
+    }
+
+    public static Template template(HttpStatus status, String code, String message) {
+        return template(status, code, message, "");
+    }
+
+    /**
+     * Template whose message is {@code messagePrefix + number + messageSuffix}.
+     */
+    public static Template template(HttpStatus status, String code, String messagePrefix, String messageSuffix) {
+        Buffer head = new Buffer();
+        head.append(ascii("{\"code\":\""));
+        head.appendEscaped(code);
+        head.append(ascii("\",\"message\":\""));
+        head.appendEscaped(messagePrefix);
+
+        Buffer tail = new Buffer();
+        tail.appendEscaped(messageSuffix);
+        return new Template(status, head.toByteArray(), tail.toByteArray());
+    }
+
+    public static void write(HttpServletResponse response, Template template, String path) throws IOException {
+        Buffer buffer = render(template, false, 0, System.currentTimeMillis(), path);
+        send(response, template.status(), buffer);
+    }
+
+    public static void write(HttpServletResponse response, Template template, long number, String path) throws IOException {
+        Buffer buffer = render(template, true, number, System.currentTimeMillis(), path);
+        send(response, template.status(), buffer);
+    }
+
+    public static byte[] render(Template template, String path) {
+        return render(template, false, 0, System.currentTimeMillis(), path).toByteArray();
+    }
+
+    public static byte[] render(Template template, long number, String path) {
+        return render(template, true, number, System.currentTimeMillis(), path).toByteArray();
+    }
+
+    /**
+     * Renders an error whose message is only known at runtime (e.g. validation errors).
+     */
+    public static byte[] render(String code, String message, String path) {
+        Buffer buffer = BUFFER.get();
+        buffer.reset();
+        buffer.append(ascii("{\"code\":\""));
+        buffer.appendEscaped(code);
+        buffer.append(ascii("\",\"message\":\""));
+        buffer.appendEscaped(message);
+        finish(buffer, System.currentTimeMillis(), path);
+        return buffer.toByteArray();
+    }
+
+    static Buffer render(Template template, boolean withNumber, long number, long epochMillis, String path) {
+        Buffer buffer = BUFFER.get();
+        buffer.reset();
+        buffer.append(template.head());
+        if (withNumber) {
+            buffer.appendLong(number);
+        }
+        buffer.append(template.tail());
+        finish(buffer, epochMillis, path);
+        return buffer;
+    }
+
+    private static void finish(Buffer buffer, long epochMillis, String path) {
+        buffer.append(TIMESTAMP_FIELD);
+        buffer.appendTimestamp(epochMillis);
+        buffer.append(PATH_FIELD);
+        buffer.appendEscaped(path == null ? "" : path);
+        buffer.append(END);
+    }
+
+    private static void send(HttpServletResponse response, HttpStatus status, Buffer buffer) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(CONTENT_TYPE);
+        response.setContentLength(buffer.length);
+        response.getOutputStream().write(buffer.bytes, 0, buffer.length);
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    static final class Buffer {
+
+        private byte[] bytes = new byte[512];
+        private int length;
+
+        private void reset() {
+            length = 0;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, length);
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+            }
+        }
+
+        private void append(byte[] value) {
+            ensure(value.length);
+            System.arraycopy(value, 0, bytes, length, value.length);
+            length += value.length;
+        }
+
+        private void put(int b) {
+            bytes[length++] = (byte) b;
+        }
+
+        private void appendLong(long value) {
+            ensure(20);
+            if (value < 0) {
+                put('-');
+                value = -value;
+            }
+            int start = length;
+            do {
+                put('0' + (int) (value % 10));
+                value /= 10;
+            } while (value > 0);
+            for (int i = start, j = length - 1; i < j; i++, j--) {
+                byte swap = bytes[i];
+                bytes[i] = bytes[j];
+                bytes[j] = swap;
+            }
+        }
+
+        private void appendDigits(int value, int width) {
+            for (int divisor = width == 4 ? 1000 : width == 3 ? 100 : 10; divisor > 0; divisor /= 10) {
+                put('0' + (value / divisor) % 10);
+            }
+        }
+
+        // yyyy-MM-dd'T'HH:mm:ss.SSS'Z' em UTC, mesmo formato do @JsonFormat de ErrorResponse
+        private void appendTimestamp(long epochMillis) {
+            ensure(24);
+            long epochDay = Math.floorDiv(epochMillis, 86_400_000L);
+            int millisOfDay = (int) Math.floorMod(epochMillis, 86_400_000L);
+
+            // dias desde 1970-01-01 para data civil (algoritmo de Howard Hinnant) / days to civil date
+            long z = epochDay + 719_468;
+            long era = Math.floorDiv(z, 146_097);
+            long dayOfEra = z - era * 146_097;
+            long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+            long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+            long mp = (5 * dayOfYear + 2) / 153;
+            int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+            int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+            int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+            appendDigits(year, 4);
+            put('-');
+            appendDigits(month, 2);
+            put('-');
+            appendDigits(day, 2);
+            put('T');
+            appendDigits(millisOfDay / 3_600_000, 2);
+            put(':');
+            appendDigits(millisOfDay / 60_000 % 60, 2);
+            put(':');
+            appendDigits(millisOfDay / 1000 % 60, 2);
+            put('.');
+            appendDigits(millisOfDay % 1000, 3);
+            put('Z');
+        }
+
+        private void appendEscaped(String value) {
+            ensure(value.length() * 6);
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    put('\\');
+                    put(c);
+                } else if (c < 0x20) {
+                    put('\\');
+                    put('u');
+                    put('0');
+                    put('0');
+                    put(HEX[c >> 4]);
+                    put(HEX[c & 0xf]);
+                } else if (c < 0x80) {
+                    put(c);
+                } else if (c < 0x800) {
+                    put(0xc0 | (c >> 6));
+                    put(0x80 | (c & 0x3f));
+                } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    put(0xf0 | (codePoint >> 18));
+                    put(0x80 | ((codePoint >> 12) & 0x3f));
+                    put(0x80 | ((codePoint >> 6) & 0x3f));
+                    put(0x80 | (codePoint & 0x3f));
+                } else if (Character.isSurrogate(c)) {
+                    put('?');
+                } else {
+                    put(0xe0 | (c >> 12));
+                    put(0x80 | ((c >> 6) & 0x3f));
+                    put(0x80 | (c & 0x3f));
+                }
+            }
+        }
+    }
+}
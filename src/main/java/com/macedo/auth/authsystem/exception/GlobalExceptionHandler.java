@@ -1,136 +1,115 @@
 package com.macedo.auth.authsystem.exception;
 
-import com.macedo.auth.authsystem.dto.ErrorResponse;
+import com.macedo.auth.authsystem.exception.ErrorResponseWriter.Template;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-import java.time.Instant;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    // corpos fixos pre-serializados; so timestamp e path mudam por requisicao
+    // pre-serialized fixed bodies; only timestamp and path change per request
+    private static final Template EMAIL_ALREADY_EXISTS = ErrorResponseWriter.template(
+            HttpStatus.CONFLICT, "EMAIL_ALREADY_EXISTS", "Email already registered");
+    private static final Template INVALID_CREDENTIALS = ErrorResponseWriter.template(
+            HttpStatus.UNAUTHORIZED, "INVALID_CREDENTIALS", "Invalid email or password");
+    private static final Template RESOURCE_NOT_FOUND = ErrorResponseWriter.template(
+            HttpStatus.NOT_FOUND, "RESOURCE_NOT_FOUND", "Resource not found");
+    private static final Template TOKEN_REFRESH_FAILED = ErrorResponseWriter.template(
+            HttpStatus.UNAUTHORIZED, "TOKEN_REFRESH_FAILED", "Failed to refresh token");
+    private static final Template INVALID_RESET_TOKEN = ErrorResponseWriter.template(
+            HttpStatus.BAD_REQUEST, "INVALID_RESET_TOKEN", "Invalid or expired reset token");
+    private static final Template ACCOUNT_LOCKED = ErrorResponseWriter.template(
+            HttpStatus.LOCKED, "ACCOUNT_LOCKED", "Account temporarily locked. Try again in ", " minutes");
+    private static final Template ACCESS_DENIED = ErrorResponseWriter.template(
+            HttpStatus.FORBIDDEN, "ACCESS_DENIED", "Access denied");
+    private static final Template RATE_LIMIT_EXCEEDED = ErrorResponseWriter.template(
+            HttpStatus.TOO_MANY_REQUESTS, "RATE_LIMIT_EXCEEDED", "Too many requests, try again later");
+    private static final Template INTERNAL_SERVER_ERROR = ErrorResponseWriter.template(
+            HttpStatus.INTERNAL_SERVER_ERROR, "INTERNAL_SERVER_ERROR", "An unexpected error occurred");
+
     @ExceptionHandler(EmailAlreadyExistsException.class)
-    public ResponseEntity<ErrorResponse> handleEmailAlreadyExists(EmailAlreadyExistsException ex, HttpServletRequest request) {
-        ErrorResponse error = ErrorResponse.builder()
-                .code("EMAIL_ALREADY_EXISTS")
-                .message("Email already registered")
-                .timestamp(Instant.now())
-                .path(request.getRequestURI())
-                .build();
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(error);
+    public ResponseEntity<byte[]> handleEmailAlreadyExists(EmailAlreadyExistsException ex, HttpServletRequest request) {
+        return respond(EMAIL_ALREADY_EXISTS, request);
     }
 
     @ExceptionHandler(InvalidCredentialsException.class)
-    public ResponseEntity<ErrorResponse> handleInvalidCredentials(InvalidCredentialsException ex, HttpServletRequest request) {
-        ErrorResponse error = ErrorResponse.builder()
-                .code("INVALID_CREDENTIALS")
-                .message("Invalid email or password")
-                .timestamp(Instant.now())
-                .path(request.getRequestURI())
-                .build();
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    public ResponseEntity<byte[]> handleInvalidCredentials(InvalidCredentialsException ex, HttpServletRequest request) {
+        return respond(INVALID_CREDENTIALS, request);
     }
 
     @ExceptionHandler(ResourceNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleResourceNotFound(ResourceNotFoundException ex, HttpServletRequest request) {
-        ErrorResponse error = ErrorResponse.builder()
-                .code("RESOURCE_NOT_FOUND")
-                .message("Resource not found")
-                .timestamp(Instant.now())
-                .path(request.getRequestURI())
-                .build();
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    public ResponseEntity<byte[]> handleResourceNotFound(ResourceNotFoundException ex, HttpServletRequest request) {
+        return respond(RESOURCE_NOT_FOUND, request);
     }
 
     @ExceptionHandler(TokenRefreshException.class)
-    public ResponseEntity<ErrorResponse> handleTokenRefresh(TokenRefreshException ex, HttpServletRequest request) {
-        ErrorResponse error = ErrorResponse.builder()
-                .code("TOKEN_REFRESH_FAILED")
-                .message("Failed to refresh token")
-                .timestamp(Instant.now())
-                .path(request.getRequestURI())
-                .build();
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(error);
+    public ResponseEntity<byte[]> handleTokenRefresh(TokenRefreshException ex, HttpServletRequest request) {
+        return respond(TOKEN_REFRESH_FAILED, request);
     }
 
     @ExceptionHandler(InvalidResetTokenException.class)
-    public ResponseEntity<ErrorResponse> handleInvalidResetToken(InvalidResetTokenException ex, HttpServletRequest request) {
-        ErrorResponse error = ErrorResponse.builder()
-                .code("INVALID_RESET_TOKEN")
-                .message("Invalid or expired reset token")
-                .timestamp(Instant.now())
-                .path(request.getRequestURI())
-                .build();
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    public ResponseEntity<byte[]> handleInvalidResetToken(InvalidResetTokenException ex, HttpServletRequest request) {
+        return respond(INVALID_RESET_TOKEN, request);
     }
 
     @ExceptionHandler(AccountLockedException.class)
-    public ResponseEntity<ErrorResponse> handleAccountLocked(AccountLockedException ex, HttpServletRequest request) {
-        ErrorResponse error = ErrorResponse.builder()
-                .code("ACCOUNT_LOCKED")
-                .message("Account temporarily locked. Try again in " + ex.getLockoutTimeRemainingMinutes() + " minutes")
-                .timestamp(Instant.now())
-                .path(request.getRequestURI())
-                .build();
-        return ResponseEntity.status(HttpStatus.LOCKED).body(error);
+    public ResponseEntity<byte[]> handleAccountLocked(AccountLockedException ex, HttpServletRequest request) {
+        byte[] body = ErrorResponseWriter.render(ACCOUNT_LOCKED, ex.getLockoutTimeRemainingMinutes(), request.getRequestURI());
+        return json(ACCOUNT_LOCKED.status(), body);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<ErrorResponse> handleValidationException(MethodArgumentNotValidException ex, HttpServletRequest request) {
+    public ResponseEntity<byte[]> handleValidationException(MethodArgumentNotValidException ex, HttpServletRequest request) {
         String errors = ex.getBindingResult()
                 .getFieldErrors()
                 .stream()
                 .map(fe -> fe.getField() + ": " + fe.getDefaultMessage())
                 .collect(Collectors.joining(", "));
 
-        ErrorResponse error = ErrorResponse.builder()
-                .code("VALIDATION_ERROR")
-                .message(errors)
-                .timestamp(Instant.now())
-                .path(request.getRequestURI())
-                .build();
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        byte[] body = ErrorResponseWriter.render("VALIDATION_ERROR", errors, request.getRequestURI());
+        return json(HttpStatus.BAD_REQUEST, body);
+    }
+
+    @ExceptionHandler(InvalidRequestParameterException.class)
+    public ResponseEntity<byte[]> handleInvalidRequestParameter(InvalidRequestParameterException ex, HttpServletRequest request) {
+        byte[] body = ErrorResponseWriter.render("INVALID_PARAMETER", ex.getMessage(), request.getRequestURI());
+        return json(HttpStatus.BAD_REQUEST, body);
     }
 
     @ExceptionHandler(AccessDeniedException.class)
-    public ResponseEntity<ErrorResponse> handleAccessDenied(AccessDeniedException ex, HttpServletRequest request) {
-        ErrorResponse error = ErrorResponse.builder()
-                .code("ACCESS_DENIED")
-                .message("Access denied")
-                .timestamp(Instant.now())
-                .path(request.getRequestURI())
-                .build();
-        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+    public ResponseEntity<byte[]> handleAccessDenied(AccessDeniedException ex, HttpServletRequest request) {
+        return respond(ACCESS_DENIED, request);
     }
 
     @ExceptionHandler(RateLimitExceededException.class)
-    public ResponseEntity<ErrorResponse> handleRateLimitExceeded(RateLimitExceededException ex, HttpServletRequest request) {
-        ErrorResponse error = ErrorResponse.builder()
-                .code("RATE_LIMIT_EXCEEDED")
-                .message("Too many requests, try again later")
-                .timestamp(Instant.now())
-                .path(request.getRequestURI())
-                .build();
-        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(error);
+    public ResponseEntity<byte[]> handleRateLimitExceeded(RateLimitExceededException ex, HttpServletRequest request) {
+        return respond(RATE_LIMIT_EXCEEDED, request);
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponse> handleGenericException(Exception ex, HttpServletRequest request) {
+    public ResponseEntity<byte[]> handleGenericException(Exception ex, HttpServletRequest request) {
         log.error("Unexpected error on {}: {}", request.getRequestURI(), ex.getMessage(), ex);
-        ErrorResponse error = ErrorResponse.builder()
-                .code("INTERNAL_SERVER_ERROR")
-                .message("An unexpected error occurred")
-                .timestamp(Instant.now())
-                .path(request.getRequestURI())
-                .build();
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        return respond(INTERNAL_SERVER_ERROR, request);
+    }
+
+    private static ResponseEntity<byte[]> respond(Template template, HttpServletRequest request) {
+        return json(template.status(), ErrorResponseWriter.render(template, request.getRequestURI()));
+    }
+
+    private static ResponseEntity<byte[]> json(HttpStatus status, byte[] body) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
     }
 }
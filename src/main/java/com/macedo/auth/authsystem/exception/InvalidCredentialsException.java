@@ -1,6 +1,6 @@
 package com.macedo.auth.authsystem.exception;
 
-public class InvalidCredentialsException extends RuntimeException {
+public class InvalidCredentialsException extends StacklessException {
     public InvalidCredentialsException(String message) {
         super(message);
     }
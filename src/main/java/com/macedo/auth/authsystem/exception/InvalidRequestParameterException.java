@@ -0,0 +1,7 @@
+package com.macedo.auth.authsystem.exception;
+
+public class InvalidRequestParameterException extends StacklessException {
+    public InvalidRequestParameterException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,6 @@
 package com.macedo.auth.authsystem.exception;
 
-public class InvalidResetTokenException extends RuntimeException {
+public class InvalidResetTokenException extends StacklessException {
     public InvalidResetTokenException(String message) {
         super(message);
     }
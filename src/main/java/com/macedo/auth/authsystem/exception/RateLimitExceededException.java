@@ -1,6 +1,6 @@
 package com.macedo.auth.authsystem.exception;
 
-public class RateLimitExceededException extends RuntimeException {
+public class RateLimitExceededException extends StacklessException {
     public RateLimitExceededException(String message) {
         super(message);
     }
@@ -0,0 +1,13 @@
+package com.macedo.auth.authsystem.exception;
+
+/**
+ * Base for expected, high-volume failures (bad credentials, expired tokens, rate limits) that
+ * {@link GlobalExceptionHandler} turns into a fixed error body. Filling in the stack trace is the
+ * dominant cost of throwing and nobody reads it for these, so it is skipped.
+ */
+public abstract class StacklessException extends RuntimeException {
+
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,5 +1,5 @@
 package com.macedo.auth.authsystem.exception;
 
-public class TokenRefreshException extends RuntimeException {
+public class TokenRefreshException extends StacklessException {
     public TokenRefreshException(String message) { super(message); }
 }
@@ -0,0 +1,96 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Global concurrency limit that adapts to observed latency.
+ * <p>
+ * Vegas-style: the lowest latency seen approximates the no-load cost of a request, and
+ * {@code limit * (1 - minLatency / latency)} estimates how many requests are queued behind it.
+ * The limit grows by one while that queue is below {@code alpha} and shrinks by one above
+ * {@code beta}. Any sample over the latency budget cuts the limit multiplicatively (AIMD), so a
+ * burst of BCrypt work pushes the limit down before latency runs away.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    // redescobre a latencia minima periodicamente, caso o custo base mude / re-probe the no-load latency periodically
+    private static final int MIN_LATENCY_RESET_SAMPLES = 1_000;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyBudgetNanos;
+    private final double backoffRatio;
+    private final int alpha;
+    private final int beta;
+
+    private volatile int limit;
+    private long minLatencyNanos = Long.MAX_VALUE;
+    private int samples;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.latencyBudgetNanos = properties.getLatencyBudget().toNanos();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.alpha = properties.getAlpha();
+        this.beta = properties.getBeta();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public void release(long latencyNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        onSample(latencyNanos, inFlightAtCompletion);
+    }
+
+    private synchronized void onSample(long latencyNanos, int inFlightAtCompletion) {
+        if (++samples >= MIN_LATENCY_RESET_SAMPLES) {
+            samples = 0;
+            minLatencyNanos = Long.MAX_VALUE;
+        }
+        minLatencyNanos = Math.min(minLatencyNanos, latencyNanos);
+
+        int current = limit;
+        int next;
+        if (latencyNanos > latencyBudgetNanos) {
+            next = (int) (current * backoffRatio);
+        } else {
+            double queued = current * (1.0 - (double) minLatencyNanos / Math.max(1, latencyNanos));
+            if (queued < alpha) {
+                // so cresce se o limite atual esta de fato sendo usado / only grow when the limit is actually in use
+                next = inFlightAtCompletion * 2 >= current ? current + 1 : current;
+            } else if (queued > beta) {
+                next = current - 1;
+            } else {
+                next = current;
+            }
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
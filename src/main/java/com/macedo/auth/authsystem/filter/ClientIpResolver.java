@@ -0,0 +1,66 @@
+package com.macedo.auth.authsystem.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Resolves the real client address from {@code X-Forwarded-For}, trusting the header only as far
+ * as it was written by configured proxies.
+ * <p>
+ * When the direct peer is a trusted proxy, the header is walked from right to left skipping
+ * trusted hops; the first untrusted address is the client. Anything to its left was supplied by
+ * the client itself and is ignored. Requests that do not come from a trusted proxy resolve to the
+ * peer address, whatever the header says.
+ */
+public class ClientIpResolver {
+
+    public static final String CLIENT_IP_ATTRIBUTE = ClientIpResolver.class.getName() + ".CLIENT_IP";
+
+    private final IpPrefixTrie trustedProxies;
+
+    public ClientIpResolver(IpPrefixTrie trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    /**
+     * @return the address resolved by {@link IpAccessFilter} for this request, or the peer address
+     */
+    public static String getClientIp(HttpServletRequest request) {
+        Object clientIp = request.getAttribute(CLIENT_IP_ATTRIBUTE);
+        return clientIp instanceof String ip ? ip : request.getRemoteAddr();
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String remoteAddr = request.getRemoteAddr();
+        if (remoteAddr == null || !trustedProxies.contains(remoteAddr)) {
+            return remoteAddr;
+        }
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor == null || forwardedFor.isEmpty()) {
+            return remoteAddr;
+        }
+
+        int end = forwardedFor.length();
+        int lastTrusted = -1;
+        while (true) {
+            int comma = forwardedFor.lastIndexOf(',', end - 1);
+            int start = comma + 1;
+            if (!trustedProxies.contains(forwardedFor, start, end)) {
+                if (IpAddresses.isAddress(forwardedFor, start, end)) {
+                    return forwardedFor.substring(start, end).trim();
+                }
+                // entrada invalida apos um proxy confiavel: fica com o ultimo salto conhecido / keep the last known hop
+                break;
+            }
+            lastTrusted = start;
+            if (comma < 0) {
+                break;
+            }
+            end = comma;
+        }
+        if (lastTrusted < 0) {
+            return remoteAddr;
+        }
+        int lastEnd = forwardedFor.indexOf(',', lastTrusted);
+        return forwardedFor.substring(lastTrusted, lastEnd < 0 ? forwardedFor.length() : lastEnd).trim();
+    }
+}
@@ -0,0 +1,90 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.ConcurrencyLimitProperties;
+import com.macedo.auth.authsystem.exception.ErrorResponseWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final ErrorResponseWriter.Template SERVICE_OVERLOADED = ErrorResponseWriter.template(
+            HttpStatus.SERVICE_UNAVAILABLE, "SERVICE_OVERLOADED", "Service is busy. Please try again shortly.");
+
+    private final boolean enabled;
+    private final RouteTable<Boolean> limitedPaths;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Counter rejected;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        Map<String, Boolean> routes = new LinkedHashMap<>();
+        properties.getPaths().forEach(path -> routes.put(path, Boolean.TRUE));
+        this.limitedPaths = RouteTable.compile(routes);
+
+        Gauge.builder("auth.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for expensive auth endpoints")
+                .register(meterRegistry);
+        Gauge.builder("auth.concurrency.in_flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests currently holding a concurrency permit")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.concurrency.rejected")
+                .description("Requests rejected with 503 because the concurrency limit was reached")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled
+                || "OPTIONS".equalsIgnoreCase(request.getMethod())
+                || limitedPaths.match(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!limiter.tryAcquire()) {
+            rejected.increment();
+            writeOverloadedResponse(response, request.getRequestURI());
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, response);
+            completed = response.getStatus() < HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            // so respostas bem-sucedidas alimentam o algoritmo / only successful responses feed the algorithm
+            if (completed) {
+                limiter.release(System.nanoTime() - start);
+            } else {
+                limiter.release();
+            }
+        }
+    }
+
+    private void writeOverloadedResponse(HttpServletResponse response, String path) throws IOException {
+        response.setHeader("Retry-After", "1");
+        ErrorResponseWriter.write(response, SERVICE_OVERLOADED, path);
+
+        log.debug("Concurrency limit {} reached for path: {}", limiter.getLimit(), path);
+    }
+}
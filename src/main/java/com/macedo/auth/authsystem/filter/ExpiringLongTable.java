@@ -0,0 +1,181 @@
+package com.macedo.auth.authsystem.filter;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded map from non-zero {@code long} keys to values, each entry expiring after its own
+ * time-to-live since the last access.
+ * <p>
+ * Storage is split into lock-striped segments of parallel primitive arrays with linear probing
+ * over a short window. Lookups of existing keys do not allocate. When a window holds no empty
+ * or expired slot, the entry closest to expiry is evicted. {@link #size()} frees expired slots
+ * as it counts, so it reports live entries.
+ */
+public final class ExpiringLongTable<C, V> {
+
+    @FunctionalInterface
+    public interface Factory<C, V> {
+        V create(long key, C context);
+    }
+
+    private static final int SEGMENTS = 64;
+    private static final int PROBE_LIMIT = 16;
+    private static final long EMPTY = 0L;
+
+    private final Segment<C, V>[] segments;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public ExpiringLongTable(int maxEntries) {
+        int perSegment = Math.max(PROBE_LIMIT, (maxEntries + SEGMENTS - 1) / SEGMENTS);
+        int slots = Integer.highestOneBit(perSegment - 1) << 1;
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(slots);
+        }
+    }
+
+    public V get(long key, C context, long ttlNanos, Factory<C, V> factory) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        long hash = spread(key);
+        Segment<C, V> segment = segments[(int) (hash >>> 58) & (SEGMENTS - 1)];
+        lookups.increment();
+        return segment.get(key, (int) hash, context, System.nanoTime(), ttlNanos, factory, misses, evictions);
+    }
+
+    private static long spread(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return hash ^ hash >>> 32;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment<C, V> segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    public long hitCount() {
+        // misses antes de lookups: cada miss ja teve o lookup contado / read misses first so the result stays >= 0
+        long missed = misses.sum();
+        return lookups.sum() - missed;
+    }
+
+    // inclui entradas expiradas que foram recriadas / includes expired entries that were recreated
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private static final class Segment<C, V> {
+
+        private final long[] keys;
+        private final long[] expiresAt;
+        private final Object[] values;
+        private final int mask;
+        private int occupied;
+
+        private Segment(int slots) {
+            this.keys = new long[slots];
+            this.expiresAt = new long[slots];
+            this.values = new Object[slots];
+            this.mask = slots - 1;
+        }
+
+        @SuppressWarnings("unchecked")
+        private synchronized V get(long key, int hash, C context, long now, long ttlNanos,
+                                   Factory<C, V> factory, LongAdder misses, LongAdder evictions) {
+            int reusable = -1;
+            int victim = -1;
+            long victimExpiry = 0;
+
+            for (int probe = 0; probe < PROBE_LIMIT; probe++) {
+                int slot = (hash + probe) & mask;
+                long slotKey = keys[slot];
+
+                if (slotKey == key) {
+                    if (expiresAt[slot] - now < 0) {
+                        values[slot] = factory.create(key, context);
+                        misses.increment();
+                    }
+                    expiresAt[slot] = now + ttlNanos;
+                    return (V) values[slot];
+                }
+                if (slotKey == EMPTY) {
+                    if (reusable < 0) {
+                        reusable = slot;
+                        occupied++;
+                    }
+                    break;
+                }
+                if (reusable < 0 && expiresAt[slot] - now < 0) {
+                    reusable = slot;
+                }
+                if (victim < 0 || expiresAt[slot] - victimExpiry < 0) {
+                    victim = slot;
+                    victimExpiry = expiresAt[slot];
+                }
+            }
+
+            int slot = reusable;
+            if (slot < 0) {
+                slot = victim;
+                evictions.increment();
+            }
+            V value = factory.create(key, context);
+            misses.increment();
+            keys[slot] = key;
+            values[slot] = value;
+            expiresAt[slot] = now + ttlNanos;
+            return value;
+        }
+
+        private synchronized int size() {
+            long now = System.nanoTime();
+            for (int slot = 0; slot < keys.length; slot++) {
+                // o deslocamento pode trazer outra entrada expirada para o mesmo slot / a shift may bring another expired entry here
+                while (keys[slot] != EMPTY && expiresAt[slot] - now < 0) {
+                    free(slot);
+                }
+            }
+            return occupied;
+        }
+
+        /**
+         * Empties the slot and shifts later entries of the same probe run back into the hole
+         * (backward-shift deletion), so no lookup stops early at the new empty slot. Entries only
+         * move closer to their home slot and stay within the probe window.
+         */
+        private void free(int slot) {
+            int hole = slot;
+            keys[hole] = EMPTY;
+            values[hole] = null;
+            occupied--;
+            int next = hole;
+            while (true) {
+                next = (next + 1) & mask;
+                long key = keys[next];
+                if (key == EMPTY) {
+                    return;
+                }
+                int home = (int) spread(key) & mask;
+                if (((next - home) & mask) >= ((next - hole) & mask)) {
+                    keys[hole] = key;
+                    expiresAt[hole] = expiresAt[next];
+                    values[hole] = values[next];
+                    keys[next] = EMPTY;
+                    values[next] = null;
+                    hole = next;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.IpAccessProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * First servlet filter: resolves the client address once (see {@link ClientIpResolver}) and
+ * exposes it as a request attribute for every later stage, then drops denied networks before
+ * any body parsing, database lookup or password hashing happens.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class IpAccessFilter extends OncePerRequestFilter {
+
+    private final ClientIpResolver clientIpResolver;
+    private final IpDenyList denyList;
+    private final Counter denied;
+
+    public IpAccessFilter(IpAccessProperties properties, IpDenyList denyList, MeterRegistry meterRegistry) {
+        this.clientIpResolver = new ClientIpResolver(IpPrefixTrie.compile(properties.getTrustedProxies()));
+        this.denyList = denyList;
+        this.denied = Counter.builder("auth.ip_access.denied")
+                .description("Requests rejected because the client address is on the deny list")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String clientIp = clientIpResolver.resolve(request);
+        request.setAttribute(ClientIpResolver.CLIENT_IP_ATTRIBUTE, clientIp);
+
+        if (denyList.isDenied(clientIp)) {
+            denied.increment();
+            // sem corpo: redes bloqueadas nao recebem nada alem do status / denied networks only get the status
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            log.debug("Denied request from {} to {}", clientIp, request.getRequestURI());
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,232 @@
+package com.macedo.auth.authsystem.filter;
+
+/**
+ * Allocation-free parsing of textual IPv4/IPv6 addresses that live inside a larger string,
+ * such as one entry of an {@code X-Forwarded-For} header.
+ */
+public final class IpAddresses {
+
+    public static final long INVALID = -1L;
+
+    private static final long NON_IPV4_FLAG = 1L << 39;
+    private static final long FINGERPRINT_MASK = NON_IPV4_FLAG - 1;
+
+    private static final ThreadLocal<long[]> SCRATCH = ThreadLocal.withInitial(() -> new long[2]);
+
+    private IpAddresses() {
+    }
+
+    /**
+     * @return the address as an unsigned 32-bit value, or {@link #INVALID}
+     */
+    public static long parseIpv4(String s, int start, int end) {
+        int length = end - start;
+        if (length < 7 || length > 15) {
+            return INVALID;
+        }
+        long result = 0;
+        int octets = 0;
+        int value = 0;
+        int digits = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (++digits > 3 || value > 255) {
+                    return INVALID;
+                }
+            } else if (c == '.') {
+                if (digits == 0 || octets == 3) {
+                    return INVALID;
+                }
+                result = (result << 8) | value;
+                octets++;
+                value = 0;
+                digits = 0;
+            } else {
+                return INVALID;
+            }
+        }
+        if (digits == 0 || octets != 3) {
+            return INVALID;
+        }
+        return (result << 8) | value;
+    }
+
+    /**
+     * Parses an IPv6 address (optionally bracketed, with a zone id or an embedded IPv4 tail)
+     * into {@code out[0]} (high 64 bits) and {@code out[1]} (low 64 bits).
+     */
+    public static boolean parseIpv6(String s, int start, int end, long[] out) {
+        int zone = s.indexOf('%', start);
+        if (zone >= 0 && zone < end) {
+            end = zone;
+        }
+        if (end - start >= 2 && s.charAt(start) == '[' && s.charAt(end - 1) == ']') {
+            start++;
+            end--;
+        }
+        if (end - start < 2 || end - start > 45) {
+            return false;
+        }
+
+        long headHi = 0, headLo = 0, tailHi = 0, tailLo = 0;
+        int headCount = 0, tailCount = 0;
+        boolean compressed = false;
+        int i = start;
+
+        if (s.charAt(i) == ':') {
+            if (s.charAt(i + 1) != ':') {
+                return false;
+            }
+            compressed = true;
+            i += 2;
+        }
+
+        while (i < end) {
+            int groupStart = i;
+            int value = 0;
+            int digits = 0;
+            while (i < end) {
+                int hex = Character.digit(s.charAt(i), 16);
+                if (hex < 0) {
+                    break;
+                }
+                value = (value << 4) | hex;
+                i++;
+                if (++digits > 4) {
+                    return false;
+                }
+            }
+
+            if (i < end && s.charAt(i) == '.') {
+                long ipv4 = parseIpv4(s, groupStart, end);
+                if (ipv4 == INVALID) {
+                    return false;
+                }
+                for (int shift = 16; shift >= 0; shift -= 16) {
+                    int group = (int) ((ipv4 >>> shift) & 0xffff);
+                    if (compressed) {
+                        tailHi = (tailHi << 16) | (tailLo >>> 48);
+                        tailLo = (tailLo << 16) | group;
+                        tailCount++;
+                    } else {
+                        headHi = (headHi << 16) | (headLo >>> 48);
+                        headLo = (headLo << 16) | group;
+                        headCount++;
+                    }
+                }
+                i = end;
+                break;
+            }
+
+            if (digits == 0) {
+                return false;
+            }
+            if (compressed) {
+                tailHi = (tailHi << 16) | (tailLo >>> 48);
+                tailLo = (tailLo << 16) | value;
+                tailCount++;
+            } else {
+                headHi = (headHi << 16) | (headLo >>> 48);
+                headLo = (headLo << 16) | value;
+                headCount++;
+            }
+            if (headCount + tailCount > 8) {
+                return false;
+            }
+
+            if (i == end) {
+                break;
+            }
+            if (s.charAt(i) != ':') {
+                return false;
+            }
+            i++;
+            if (i < end && s.charAt(i) == ':') {
+                if (compressed) {
+                    return false;
+                }
+                compressed = true;
+                i++;
+            } else if (i == end) {
+                return false;
+            }
+        }
+
+        if (compressed) {
+            if (headCount + tailCount > 7) {
+                return false;
+            }
+            int shift = 16 * (8 - headCount);
+            long hi;
+            long lo;
+            if (shift >= 128) {
+                hi = 0;
+                lo = 0;
+            } else if (shift >= 64) {
+                hi = headLo << (shift - 64);
+                lo = 0;
+            } else {
+                hi = (headHi << shift) | (headLo >>> (64 - shift));
+                lo = headLo << shift;
+            }
+            out[0] = hi | tailHi;
+            out[1] = lo | tailLo;
+            return true;
+        }
+        if (headCount != 8) {
+            return false;
+        }
+        out[0] = headHi;
+        out[1] = headLo;
+        return true;
+    }
+
+    public static boolean isAddress(String s, int start, int end) {
+        while (start < end && s.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && s.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return parseIpv4(s, start, end) != INVALID || parseIpv6(s, start, end, SCRATCH.get());
+    }
+
+    /**
+     * Compact 40-bit identity of a client address: the IPv4 address itself, a mix of the /64 prefix
+     * for IPv6 (a single subscriber usually controls the whole /64), or a hash of the raw text for
+     * anything unparseable. Bit 39 is set for everything that is not IPv4.
+     */
+    public static long fingerprint(String s, int start, int end) {
+        while (start < end && s.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && s.charAt(end - 1) == ' ') {
+            end--;
+        }
+
+        long ipv4 = parseIpv4(s, start, end);
+        if (ipv4 != INVALID) {
+            return ipv4;
+        }
+
+        long[] scratch = SCRATCH.get();
+        long hash;
+        if (parseIpv6(s, start, end, scratch)) {
+            hash = scratch[0];
+        } else {
+            hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + s.charAt(i);
+            }
+        }
+        hash *= 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 29;
+        return NON_IPV4_FLAG | (hash & FINGERPRINT_MASK);
+    }
+
+    public static long fingerprint(String s) {
+        return s == null ? 0 : fingerprint(s, 0, s.length());
+    }
+}
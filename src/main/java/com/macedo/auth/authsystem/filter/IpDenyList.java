@@ -0,0 +1,78 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.IpAccessProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Denied networks loaded from {@code ip-access.deny-list-file}, one address or CIDR block per line.
+ * The file is polled for changes and recompiled into a new {@link IpPrefixTrie}, which replaces the
+ * previous one atomically; a file that cannot be read keeps the last good list.
+ */
+@Slf4j
+@Component
+public class IpDenyList {
+
+    private final Path file;
+    private volatile IpPrefixTrie denied = IpPrefixTrie.empty();
+    private FileTime lastModified;
+
+    public IpDenyList(IpAccessProperties properties) {
+        String location = properties.getDenyListFile();
+        this.file = location == null || location.isBlank() ? null : Path.of(location);
+        reloadIfChanged();
+    }
+
+    public boolean isDenied(String address) {
+        return denied.contains(address);
+    }
+
+    public int size() {
+        return denied.size();
+    }
+
+    @Scheduled(fixedDelayString = "${ip-access.reload-interval:10s}")
+    public synchronized void reloadIfChanged() {
+        if (file == null) {
+            return;
+        }
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (modified.equals(lastModified)) {
+                return;
+            }
+            denied = parse(Files.readAllLines(file));
+            lastModified = modified;
+            log.info("Loaded {} denied IP prefixes from {}", denied.size(), file);
+        } catch (IOException e) {
+            log.warn("Could not read IP deny list {}: {}", file, e.getMessage());
+        }
+    }
+
+    private IpPrefixTrie parse(List<String> lines) {
+        List<String> prefixes = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            int comment = line.indexOf('#');
+            String entry = (comment < 0 ? line : line.substring(0, comment)).trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            try {
+                // valida cada linha isoladamente para uma entrada ruim nao derrubar a lista inteira
+                IpPrefixTrie.compile(List.of(entry));
+                prefixes.add(entry);
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring invalid deny list entry in {}: {}", file, entry);
+            }
+        }
+        return IpPrefixTrie.compile(prefixes);
+    }
+}
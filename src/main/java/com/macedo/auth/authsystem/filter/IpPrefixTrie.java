@@ -0,0 +1,196 @@
+package com.macedo.auth.authsystem.filter;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable binary trie of IPv4 and IPv6 prefixes (CIDR blocks) compiled once from text.
+ * <p>
+ * Nodes live in a flat {@code int[]} of child indexes, so a lookup walks at most one node per
+ * prefix bit (32 for IPv4, 128 for IPv6) and stops at the first covering prefix. Addresses are
+ * parsed in place with {@link IpAddresses}; lookups do not allocate. IPv4-mapped IPv6 addresses
+ * ({@code ::ffff:a.b.c.d}) are matched against the IPv4 prefixes.
+ */
+public final class IpPrefixTrie {
+
+    private static final int IPV4_ROOT = 0;
+    private static final int IPV6_ROOT = 1;
+
+    private static final ThreadLocal<long[]> SCRATCH = ThreadLocal.withInitial(() -> new long[2]);
+
+    private static final IpPrefixTrie EMPTY = compile(List.of());
+
+    // filhos do no n em children[2n] (bit 0) e children[2n + 1] (bit 1); 0 = sem filho
+    private final int[] children;
+    private final boolean[] terminal;
+    private final int prefixes;
+
+    private IpPrefixTrie(int[] children, boolean[] terminal, int prefixes) {
+        this.children = children;
+        this.terminal = terminal;
+        this.prefixes = prefixes;
+    }
+
+    public static IpPrefixTrie empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @throws IllegalArgumentException if an entry is not an address or {@code address/length}
+     */
+    public static IpPrefixTrie compile(Collection<String> cidrs) {
+        Builder builder = new Builder();
+        for (String cidr : cidrs) {
+            builder.add(cidr);
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return prefixes;
+    }
+
+    public boolean isEmpty() {
+        return prefixes == 0;
+    }
+
+    public boolean contains(String address) {
+        return address != null && contains(address, 0, address.length());
+    }
+
+    public boolean contains(String s, int start, int end) {
+        while (start < end && s.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && s.charAt(end - 1) == ' ') {
+            end--;
+        }
+        long ipv4 = IpAddresses.parseIpv4(s, start, end);
+        if (ipv4 != IpAddresses.INVALID) {
+            return containsIpv4(ipv4);
+        }
+        long[] scratch = SCRATCH.get();
+        if (!IpAddresses.parseIpv6(s, start, end, scratch)) {
+            return false;
+        }
+        if (isIpv4Mapped(scratch[0], scratch[1])) {
+            return containsIpv4(scratch[1] & 0xffffffffL);
+        }
+        return containsIpv6(scratch[0], scratch[1]);
+    }
+
+    public boolean containsIpv4(long address) {
+        int node = IPV4_ROOT;
+        for (int bit = 31; bit >= 0; bit--) {
+            if (terminal[node]) {
+                return true;
+            }
+            node = children[2 * node + (int) ((address >>> bit) & 1)];
+            if (node == 0) {
+                return false;
+            }
+        }
+        return terminal[node];
+    }
+
+    public boolean containsIpv6(long high, long low) {
+        int node = IPV6_ROOT;
+        for (int bit = 127; bit >= 0; bit--) {
+            if (terminal[node]) {
+                return true;
+            }
+            long word = bit >= 64 ? high : low;
+            node = children[2 * node + (int) ((word >>> (bit & 63)) & 1)];
+            if (node == 0) {
+                return false;
+            }
+        }
+        return terminal[node];
+    }
+
+    private static boolean isIpv4Mapped(long high, long low) {
+        return high == 0 && (low >>> 32) == 0xffffL;
+    }
+
+    private static final class Builder {
+
+        private int[] children = new int[64];
+        private boolean[] terminal = new boolean[32];
+        private int nodes = 2;
+        private int prefixes;
+
+        private void add(String cidr) {
+            String text = cidr.trim();
+            int slash = text.indexOf('/');
+            int addressEnd = slash < 0 ? text.length() : slash;
+
+            long ipv4 = IpAddresses.parseIpv4(text, 0, addressEnd);
+            if (ipv4 != IpAddresses.INVALID) {
+                int length = prefixLength(text, slash, 32);
+                insert(IPV4_ROOT, ipv4 << 32, 0, length);
+                return;
+            }
+
+            long[] address = new long[2];
+            if (!IpAddresses.parseIpv6(text, 0, addressEnd, address)) {
+                throw new IllegalArgumentException("Invalid IP prefix: " + cidr);
+            }
+            int length = prefixLength(text, slash, 128);
+            if (isIpv4Mapped(address[0], address[1]) && length >= 96) {
+                insert(IPV4_ROOT, address[1] << 32, 0, length - 96);
+            } else {
+                insert(IPV6_ROOT, address[0], address[1], length);
+            }
+        }
+
+        private static int prefixLength(String text, int slash, int max) {
+            if (slash < 0) {
+                return max;
+            }
+            try {
+                int length = Integer.parseInt(text.substring(slash + 1));
+                if (length < 0 || length > max) {
+                    throw new IllegalArgumentException("Invalid prefix length: " + text);
+                }
+                return length;
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid prefix length: " + text, e);
+            }
+        }
+
+        // percorre os bits mais significativos de high:low / walks the most significant bits of high:low
+        private void insert(int root, long high, long low, int length) {
+            int node = root;
+            for (int i = 0; i < length; i++) {
+                if (terminal[node]) {
+                    return;
+                }
+                long word = i < 64 ? high : low;
+                int bit = (int) ((word >>> (63 - (i & 63))) & 1);
+                int child = children[2 * node + bit];
+                if (child == 0) {
+                    child = newNode();
+                    children[2 * node + bit] = child;
+                }
+                node = child;
+            }
+            if (!terminal[node]) {
+                terminal[node] = true;
+                prefixes++;
+            }
+        }
+
+        private int newNode() {
+            if (nodes == terminal.length) {
+                terminal = Arrays.copyOf(terminal, nodes * 2);
+                children = Arrays.copyOf(children, nodes * 4);
+            }
+            return nodes++;
+        }
+
+        private IpPrefixTrie build() {
+            return new IpPrefixTrie(Arrays.copyOf(children, nodes * 2), Arrays.copyOf(terminal, nodes), prefixes);
+        }
+    }
+}
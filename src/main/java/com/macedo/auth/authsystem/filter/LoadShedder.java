@@ -0,0 +1,97 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.LoadSheddingProperties;
+import com.macedo.auth.authsystem.config.LoadSheddingProperties.Priority;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admission control by priority class.
+ * <p>
+ * Each admitted request counts toward a shared in-flight total. A class is shed once utilization
+ * ({@code inFlight / maxInFlight}) reaches its threshold, so the lowest class goes first. Queueing
+ * delay is tracked as an EWMA of completed request latencies: above the latency threshold LOW is
+ * shed, above twice the threshold NORMAL too. CRITICAL is never shed. Requests that are slow by
+ * design (password hashing) are released without a sample, so they do not read as queueing.
+ */
+public class LoadShedder {
+
+    private static final double EWMA_WEIGHT = 0.2;
+
+    // sem amostras recentes a latencia media deixa de valer / without recent samples the latency average is stale
+    private static final long LATENCY_STALE_NANOS = 1_000_000_000L;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final int maxInFlight;
+    private final double latencyThresholdNanos;
+    private final double[] shedAt;
+
+    private volatile double latencyEwmaNanos;
+    private volatile long lastSampleNanos;
+
+    public LoadShedder(LoadSheddingProperties properties) {
+        this.maxInFlight = Math.max(1, properties.getMaxInFlight());
+        this.latencyThresholdNanos = properties.getLatencyThreshold().toNanos();
+        this.shedAt = new double[Priority.values().length];
+        for (Priority priority : Priority.values()) {
+            shedAt[priority.ordinal()] = priority == Priority.CRITICAL
+                    ? Double.POSITIVE_INFINITY
+                    : properties.getShedAt().getOrDefault(priority, 1.0);
+        }
+    }
+
+    public boolean tryAdmit(Priority priority) {
+        // decisao aproximada, sem CAS: descarte nao precisa ser exato / approximate on purpose, shedding is a soft limit
+        if (shouldShed(priority, inFlight.get())) {
+            return false;
+        }
+        inFlight.incrementAndGet();
+        return true;
+    }
+
+    public void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        recordLatency(latencyNanos);
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    private boolean shouldShed(Priority priority, int current) {
+        if (priority == Priority.CRITICAL) {
+            return false;
+        }
+        if ((double) current / maxInFlight >= shedAt[priority.ordinal()]) {
+            return true;
+        }
+        double latencyRatio = latencyRatio();
+        return switch (priority) {
+            case LOW -> latencyRatio >= 1.0;
+            case NORMAL -> latencyRatio >= 2.0;
+            default -> false;
+        };
+    }
+
+    private synchronized void recordLatency(long latencyNanos) {
+        long now = System.nanoTime();
+        double previous = now - lastSampleNanos > LATENCY_STALE_NANOS ? latencyNanos : latencyEwmaNanos;
+        latencyEwmaNanos = previous + EWMA_WEIGHT * (latencyNanos - previous);
+        lastSampleNanos = now;
+    }
+
+    private double latencyRatio() {
+        if (System.nanoTime() - lastSampleNanos > LATENCY_STALE_NANOS) {
+            return 0;
+        }
+        return latencyEwmaNanos / latencyThresholdNanos;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public double getLatencyEwmaMillis() {
+        return latencyEwmaNanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,102 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.LoadSheddingProperties;
+import com.macedo.auth.authsystem.config.LoadSheddingProperties.Priority;
+import com.macedo.auth.authsystem.exception.ErrorResponseWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Slf4j
+@Component
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final RouteTable<Priority> priorities;
+    private final RouteTable<Boolean> latencyExcluded;
+    private final Priority defaultPriority;
+    private final LoadShedder shedder;
+    private final Counter[] shedCounters;
+
+    public LoadSheddingFilter(LoadSheddingProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.defaultPriority = properties.getDefaultPriority();
+        this.shedder = new LoadShedder(properties);
+
+        Map<String, Priority> routes = new LinkedHashMap<>();
+        properties.getRoutes().values().forEach(route -> routes.put(route.getPath(), route.getPriority()));
+        this.priorities = RouteTable.compile(routes);
+
+        Map<String, Boolean> excluded = new LinkedHashMap<>();
+        properties.getLatencyExcludedPaths().forEach(path -> excluded.put(path, Boolean.TRUE));
+        this.latencyExcluded = RouteTable.compile(excluded);
+
+        Gauge.builder("auth.load_shedding.in_flight", shedder, LoadShedder::getInFlight)
+                .description("Requests currently admitted by the load shedder")
+                .register(meterRegistry);
+        Gauge.builder("auth.load_shedding.latency_ewma", shedder, LoadShedder::getLatencyEwmaMillis)
+                .description("Moving average of admitted request latency")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        // um contador por classe, resolvido pelo ordinal / one counter per class, looked up by ordinal
+        this.shedCounters = new Counter[Priority.values().length];
+        for (Priority priority : Priority.values()) {
+            shedCounters[priority.ordinal()] = Counter.builder("auth.load_shedding.shed")
+                    .description("Requests rejected with 503 by priority load shedding")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "OPTIONS".equalsIgnoreCase(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Priority priority = priorities.match(request.getRequestURI());
+        if (priority == null) {
+            priority = defaultPriority;
+        }
+
+        if (!shedder.tryAdmit(priority)) {
+            shedCounters[priority.ordinal()].increment();
+            writeSheddingResponse(response, request.getRequestURI(), priority);
+            return;
+        }
+
+        boolean sampled = latencyExcluded.match(request.getRequestURI()) == null;
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (sampled) {
+                shedder.release(System.nanoTime() - start);
+            } else {
+                shedder.release();
+            }
+        }
+    }
+
+    private void writeSheddingResponse(HttpServletResponse response, String path, Priority priority) throws IOException {
+        response.setHeader("Retry-After", "1");
+        ErrorResponseWriter.write(response, ConcurrencyLimitFilter.SERVICE_OVERLOADED, path);
+
+        log.debug("Shedding {} priority request for path: {}", priority, path);
+    }
+}
@@ -0,0 +1,16 @@
+package com.macedo.auth.authsystem.filter;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.local.SynchronizationStrategy;
+
+public class LocalBucketProvider implements RateLimitBucketProvider {
+
+    @Override
+    public Bucket create(long key, RateLimitPolicy policy) {
+        // SYNCHRONIZED altera o estado no lugar, sem copiar a cada consumo / mutates state in place instead of copying per consume
+        return Bucket.builder()
+                .addLimit(policy.bandwidth())
+                .withSynchronizationStrategy(SynchronizationStrategy.SYNCHRONIZED)
+                .build();
+    }
+}
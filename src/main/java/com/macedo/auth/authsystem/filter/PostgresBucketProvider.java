@@ -0,0 +1,172 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.RateLimitProperties;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.BucketConfiguration;
+import io.github.bucket4j.ConsumptionProbe;
+import io.github.bucket4j.distributed.jdbc.BucketTableSettings;
+import io.github.bucket4j.distributed.jdbc.SQLProxyConfiguration;
+import io.github.bucket4j.distributed.jdbc.SQLProxyConfigurationBuilder;
+import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.github.bucket4j.distributed.proxy.RemoteBucketBuilder;
+import io.github.bucket4j.distributed.proxy.optimization.DelayParameters;
+import io.github.bucket4j.distributed.proxy.optimization.Optimization;
+import io.github.bucket4j.distributed.proxy.optimization.Optimizations;
+import io.github.bucket4j.postgresql.PostgreSQLadvisoryLockBasedProxyManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buckets shared by every instance through the {@code rate_limit_buckets} table.
+ * <p>
+ * The returned proxies are cached by {@link RateLimitFilter}, so the configured optimization keeps
+ * its local state between requests: with {@code DELAYING} a node only goes to the database after
+ * {@code maxUnsynchronizedTokens} local consumptions or {@code maxUnsynchronizedTimeout}, whichever
+ * comes first. The price is that each node may overspend by up to that many tokens per window.
+ * <p>
+ * The data source is expected to be the dedicated pool built in {@code RateLimitStoreConfig}, whose
+ * connections carry {@code rate-limit.distributed.statement-timeout}. A consume that times out or
+ * cannot reach the database is let through or rejected according to
+ * {@code rate-limit.distributed.fail-open}, and counted in {@code auth.rate_limit.store_failures}.
+ * Rows not touched for longer than the longest policy period are deleted by {@link #deleteIdleBuckets()}.
+ */
+@Slf4j
+public class PostgresBucketProvider implements RateLimitBucketProvider, MeterBinder, AutoCloseable {
+
+    private static final long FAIL_CLOSED_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final Duration CLEANUP_STATEMENT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final DataSource dataSource;
+    private final ProxyManager<Long> proxyManager;
+    private final Optimization optimization;
+    private final boolean failOpen;
+    private final Duration idleAfter;
+    private final String deleteIdleSql;
+    private final LongAdder failures = new LongAdder();
+    private volatile boolean failing;
+
+    public PostgresBucketProvider(DataSource dataSource, RateLimitProperties.Distributed settings, Duration idleAfter) {
+        SQLProxyConfiguration configuration = SQLProxyConfigurationBuilder.builder()
+                .withTableSettings(BucketTableSettings.customSettings(settings.getTableName(), "id", "state"))
+                .build(dataSource);
+        this.dataSource = dataSource;
+        this.proxyManager = new PostgreSQLadvisoryLockBasedProxyManager(configuration);
+        this.optimization = createOptimization(settings);
+        this.failOpen = settings.isFailOpen();
+        this.idleAfter = idleAfter;
+        // o advisory lock e o mesmo que o bucket4j toma por chave: um bucket em uso em outra instancia fica para a proxima
+        // same advisory lock bucket4j takes per key: a bucket in use elsewhere is left for the next run
+        this.deleteIdleSql = "WITH idle AS MATERIALIZED (SELECT id FROM " + settings.getTableName()
+                + " WHERE updated_at < ?) DELETE FROM " + settings.getTableName() + " b USING idle"
+                + " WHERE b.id = idle.id AND b.updated_at < ? AND pg_try_advisory_xact_lock(b.id)";
+    }
+
+    private static Optimization createOptimization(RateLimitProperties.Distributed settings) {
+        DelayParameters delay = new DelayParameters(
+                settings.getMaxUnsynchronizedTokens(), settings.getMaxUnsynchronizedTimeout());
+        return switch (settings.getOptimization()) {
+            case NONE -> null;
+            case BATCHING -> Optimizations.batching();
+            case DELAYING -> Optimizations.delaying(delay);
+            case PREDICTING -> Optimizations.predicting(delay);
+        };
+    }
+
+    @Override
+    public Bucket create(long key, RateLimitPolicy policy) {
+        BucketConfiguration configuration = policy.bucketConfiguration();
+        RemoteBucketBuilder<Long> builder = proxyManager.builder();
+        if (optimization != null) {
+            builder = builder.withOptimization(optimization);
+        }
+        // a chave compacta (RateLimitKey) vira direto o id BIGINT da tabela / the packed key is the table's BIGINT id
+        return builder.build(key, () -> configuration);
+    }
+
+    @Override
+    public ConsumptionProbe tryConsume(Bucket bucket, RateLimitPolicy policy) {
+        ConsumptionProbe probe;
+        try {
+            probe = bucket.tryConsumeAndReturnRemaining(1);
+        } catch (RuntimeException ex) {
+            failures.increment();
+            if (!failing) {
+                failing = true;
+                log.warn("Rate-limit store unavailable, {} requests until it recovers: {}",
+                        failOpen ? "allowing" : "rejecting", ex.getMessage());
+            }
+            return failOpen
+                    ? ConsumptionProbe.consumed(policy.capacity(), 0)
+                    : ConsumptionProbe.rejected(0, FAIL_CLOSED_RETRY_NANOS, FAIL_CLOSED_RETRY_NANOS);
+        }
+        if (failing) {
+            failing = false;
+            log.info("Rate-limit store recovered");
+        }
+        return probe;
+    }
+
+    /**
+     * Deletes buckets idle for longer than the longest policy period: they would be full again,
+     * so a later request recreates them with the same state. Runs on the same pool, lifting the
+     * request-path statement timeout for its own transaction only.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.distributed.cleanup-interval:5m}",
+            initialDelayString = "${rate-limit.distributed.cleanup-interval:5m}")
+    public void deleteIdleBuckets() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(idleAfter));
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement();
+                 PreparedStatement delete = connection.prepareStatement(deleteIdleSql)) {
+                statement.execute("SET LOCAL statement_timeout = " + CLEANUP_STATEMENT_TIMEOUT.toMillis());
+                delete.setTimestamp(1, cutoff);
+                delete.setTimestamp(2, cutoff);
+                int deleted = delete.executeUpdate();
+                connection.commit();
+                if (deleted > 0) {
+                    log.debug("Deleted {} idle rate-limit buckets", deleted);
+                }
+            } catch (SQLException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException ex) {
+            log.warn("Idle rate-limit bucket cleanup failed: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Closes the dedicated pool.
+     */
+    @Override
+    public void close() throws Exception {
+        if (dataSource instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("auth.rate_limit.store_failures", failures, LongAdder::sum)
+                .description("Distributed bucket operations that failed or timed out, resolved by rate-limit.distributed.fail-open")
+                .tag("on_failure", failOpen ? "allow" : "reject")
+                .register(registry);
+    }
+}
@@ -0,0 +1,14 @@
+package com.macedo.auth.authsystem.filter;
+
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+
+public interface RateLimitBucketProvider {
+
+    Bucket create(long key, RateLimitPolicy policy);
+
+    // stores remotos decidem o que fazer quando o consumo falha / remote stores decide what a failed consume means
+    default ConsumptionProbe tryConsume(Bucket bucket, RateLimitPolicy policy) {
+        return bucket.tryConsumeAndReturnRemaining(1);
+    }
+}
@@ -1,107 +1,101 @@
 package com.macedo.auth.authsystem.filter;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.macedo.auth.authsystem.dto.ErrorResponse;
-import io.github.bucket4j.Bandwidth;
+import com.macedo.auth.authsystem.config.RateLimitProperties;
+import com.macedo.auth.authsystem.exception.ErrorResponseWriter;
+import com.macedo.auth.authsystem.monitoring.RateLimitDecisionEvent;
+import com.macedo.auth.authsystem.monitoring.ServerTiming;
+import com.macedo.auth.authsystem.security.SecurityEventLogger;
 import io.github.bucket4j.Bucket;
-import io.github.bucket4j.BucketConfiguration;
 import io.github.bucket4j.ConsumptionProbe;
-import io.github.bucket4j.Refill;
-import io.github.bucket4j.distributed.proxy.ProxyManager;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.io.Serializable;
-import java.time.Duration;
-import java.time.Instant;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
-
-@Slf4j
+/**
+ * First rate-limit stage, keyed on client IP + User-Agent. Authenticated requests to routes that
+ * also have a user policy are left to {@link UserRateLimitFilter}, so an admin behind one address
+ * gets the (looser) per-user quota instead of the IP one; anonymous traffic to those routes is still
+ * limited here.
+ */
 @Component
 public class RateLimitFilter extends OncePerRequestFilter {
 
-    private final Cache<String, Bucket> buckets = Caffeine.newBuilder()
-            .expireAfterWrite(5, TimeUnit.MINUTES)
-            .maximumSize(10_000)
-            .build();
-
-    private final ObjectMapper objectMapper;
-
-    public RateLimitFilter() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.registerModule(new JavaTimeModule());
-    }
+    private static final String[] SMALL_NUMBERS = new String[4096];
 
-    private record RateLimitConfig(String endpoint, int capacity, int durationMinutes) implements Serializable {
+    static {
+        for (int i = 0; i < SMALL_NUMBERS.length; i++) {
+            SMALL_NUMBERS[i] = String.valueOf(i);
+        }
     }
 
-    private static final RateLimitConfig LOGIN_LIMIT = new RateLimitConfig("/api/auth/login", 5, 1);
-    private static final RateLimitConfig REGISTER_LIMIT = new RateLimitConfig("/api/auth/register", 3, 1);
-    private static final RateLimitConfig REFRESH_LIMIT = new RateLimitConfig("/api/auth/refresh", 10, 1);
-    private static final RateLimitConfig CHANGE_PASSWORD_LIMIT = new RateLimitConfig("/api/auth/change-password", 3, 1);
-    private static final RateLimitConfig FORGOT_PASSWORD_LIMIT = new RateLimitConfig("/api/auth/forgot-password", 2, 60);
-    private static final RateLimitConfig RESET_PASSWORD_LIMIT = new RateLimitConfig("/api/auth/reset-password", 5, 60);
-    private static final RateLimitConfig ADMIN_LIST_LIMIT = new RateLimitConfig("/api/admin/users", 30, 1);
-    private static final RateLimitConfig ADMIN_DETAIL_LIMIT = new RateLimitConfig("/api/admin/users/", 50, 1);
-    private static final RateLimitConfig ADMIN_DEFAULT_LIMIT = new RateLimitConfig("/api/admin/", 20, 1);
-
-    private Bucket createNewBucket(RateLimitConfig config) {
-        Refill refill = Refill.intervally(config.capacity, Duration.ofMinutes(config.durationMinutes));
-        Bandwidth limit = Bandwidth.classic(config.capacity, refill);
-        return Bucket.builder()
-                .addLimit(limit)
-                .build();
+    static final ErrorResponseWriter.Template RATE_LIMIT_EXCEEDED = ErrorResponseWriter.template(
+            HttpStatus.TOO_MANY_REQUESTS, "RATE_LIMIT_EXCEEDED", "Too many requests. Please try again in ", " seconds.");
+
+    private final RouteTable<RateLimitPolicy> policies;
+    private final RouteTable<RateLimitPolicy> userPolicies;
+    private final ExpiringLongTable<RateLimitPolicy, Bucket> buckets;
+    private final RateLimitBucketProvider bucketProvider;
+    private final ExpiringLongTable.Factory<RateLimitPolicy, Bucket> bucketFactory;
+    private final SecurityEventLogger securityEvents;
+    private final RateLimitMetrics metrics;
+
+    public RateLimitFilter(RateLimitProperties properties, RateLimitBucketProvider bucketProvider,
+                           SecurityEventLogger securityEvents, MeterRegistry meterRegistry) {
+        this.policies = RateLimitPolicy.compile(properties.getPolicies());
+        this.userPolicies = RateLimitPolicy.compile(properties.getUserPolicies());
+        this.buckets = new ExpiringLongTable<>(properties.getMaxBuckets());
+        this.bucketProvider = bucketProvider;
+        this.bucketFactory = bucketProvider::create;
+        this.securityEvents = securityEvents;
+        this.metrics = new RateLimitMetrics(meterRegistry, "client", properties.getPolicies(), buckets);
     }
 
-    private Bucket getBucket(String key, RateLimitConfig config) {
-        return buckets.get(key, k -> createNewBucket(config));
+    // um bucket ocioso por um periodo inteiro ja estaria cheio de novo, entao pode expirar sem perder estado
+    // a bucket idle for a whole period would be full again, so it can expire without losing state
+    private Bucket getBucket(long key, RateLimitPolicy policy) {
+        return buckets.get(key, policy, policy.period().toNanos(), bucketFactory);
     }
 
-    private String getClientIdentifier(HttpServletRequest request) {
-        String ip = getClientIp(request);
+    private long getClientKey(HttpServletRequest request, RateLimitPolicy policy) {
         String userAgent = request.getHeader("User-Agent");
-
-        if (userAgent == null || userAgent.isEmpty() || userAgent.length() > 255) {
-            userAgent = "unknown";
+        int userAgentHash = 0;
+        if (userAgent != null && !userAgent.isEmpty() && userAgent.length() <= 255) {
+            userAgentHash = userAgent.hashCode();
         }
-
-        return ip + ":" + userAgent.hashCode();
+        return RateLimitKey.pack(policy.id(), getClientAddress(request), userAgentHash);
     }
 
-    private String getClientIp(HttpServletRequest request) {
-        String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader == null || xfHeader.isEmpty()) {
-            return request.getRemoteAddr();
-        }
-        return xfHeader.split(",")[0].trim();
+    // endereco ja resolvido pelo IpAccessFilter, respeitando os proxies confiaveis / resolved by IpAccessFilter
+    private long getClientAddress(HttpServletRequest request) {
+        return IpAddresses.fingerprint(ClientIpResolver.getClientIp(request));
     }
 
-    private void writeRateLimitResponse(HttpServletResponse response, String path, long retryAfterSeconds) throws IOException {
-        ErrorResponse error = ErrorResponse.builder()
-                .code("RATE_LIMIT_EXCEEDED")
-                .message("Too many requests. Please try again in " + retryAfterSeconds + " seconds.")
-                .timestamp(Instant.now())
-                .path(path)
-                .build();
-
-        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
-        response.setContentType("application/json");
-        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
-        response.getWriter().write(objectMapper.writeValueAsString(error));
+    private static String number(long value) {
+        return value >= 0 && value < SMALL_NUMBERS.length ? SMALL_NUMBERS[(int) value] : String.valueOf(value);
+    }
 
-        log.warn("Rate limit exceeded for path: {}, retry after: {}s", path, retryAfterSeconds);
+    /**
+     * Sets the {@code X-RateLimit-*} headers for {@code probe}, plus {@code Retry-After} when it was
+     * rejected. Shared with {@link UserRateLimitFilter} so both stages answer with the same headers.
+     *
+     * @return seconds until the bucket refills, for the error body of a rejection
+     */
+    static long writeHeaders(HttpServletResponse response, RateLimitPolicy policy, ConsumptionProbe probe) {
+        long resetSeconds = probe.getNanosToWaitForRefill() / 1_000_000_000;
+        response.setHeader("X-RateLimit-Limit", number(policy.capacity()));
+        response.setHeader("X-RateLimit-Remaining", probe.isConsumed() ? number(probe.getRemainingTokens()) : "0");
+        response.setHeader("X-RateLimit-Reset", number(resetSeconds));
+        if (!probe.isConsumed()) {
+            response.setHeader("Retry-After", number(resetSeconds));
+        }
+        return resetSeconds;
     }
 
     @Override
@@ -116,80 +110,45 @@ public class RateLimitFilter extends OncePerRequestFilter {
             return;
         }
 
-        boolean rateLimited = false;
-
-        // verifica rate limit para login / check rate limit for login
-        if (path.startsWith(LOGIN_LIMIT.endpoint())) {
-            rateLimited = checkRateLimit(request, response, path, LOGIN_LIMIT);
-        }
-
-        // verifica rate limit para register / check rate limit for register
-        if (!rateLimited && path.startsWith(REGISTER_LIMIT.endpoint())) {
-            rateLimited = checkRateLimit(request, response, path, REGISTER_LIMIT);
-        }
-
-        // verifica rate limit para refresh / check rate limit for refresh
-        if (!rateLimited && path.startsWith(REFRESH_LIMIT.endpoint())) {
-            rateLimited = checkRateLimit(request, response, path, REFRESH_LIMIT);
+        RateLimitPolicy policy = policies.match(path);
+        if (policy != null && !limitedPerUser(path)) {
+            long timing = ServerTiming.start();
+            boolean limited = checkRateLimit(request, response, path, policy);
+            ServerTiming.stop("rate-limit", timing);
+            if (limited) {
+                return;
+            }
         }
 
-        // verifica rate limit para change-password / check rate limit for change-password
-        if (!rateLimited && path.startsWith(CHANGE_PASSWORD_LIMIT.endpoint())) {
-            rateLimited = checkRateLimit(request, response, path, CHANGE_PASSWORD_LIMIT);
-        }
-
-        // verifica rate limit para forgot-password / check rate limit for forgot-password
-        if (!rateLimited && path.startsWith(FORGOT_PASSWORD_LIMIT.endpoint())) {
-            rateLimited = checkRateLimit(request, response, path, FORGOT_PASSWORD_LIMIT);
-        }
-
-        // verifica rate limit para reset-password / check rate limit for reset-password
-        if (!rateLimited && path.startsWith(RESET_PASSWORD_LIMIT.endpoint())) {
-            rateLimited = checkRateLimit(request, response, path, RESET_PASSWORD_LIMIT);
-        }
-
-        // verifica rate limit para admin users list / check rate limit for admin users list
-        if (!rateLimited && path.startsWith(ADMIN_LIST_LIMIT.endpoint())) {
-            rateLimited = checkRateLimit(request, response, path, ADMIN_LIST_LIMIT);
-        }
-
-        // verifica rate limit para admin user detail / check rate limit for admin user detail
-        if (!rateLimited && path.contains(ADMIN_DETAIL_LIMIT.endpoint()) && path.matches("/api/admin/users/\\d+")) {
-            rateLimited = checkRateLimit(request, response, path, ADMIN_DETAIL_LIMIT);
-        }
-
-        // verifica rate limit para outros endpoints admin / check rate limit for other admin endpoints
-        if (!rateLimited && path.startsWith(ADMIN_DEFAULT_LIMIT.endpoint())) {
-            rateLimited = checkRateLimit(request, response, path, ADMIN_DEFAULT_LIMIT);
-        }
+        filterChain.doFilter(request, response);
+    }
 
-        if (!rateLimited) {
-            filterChain.doFilter(request, response);
-        }
+    // o SecurityContext ja foi preenchido: JwtAuthenticationFilter e registrado antes deste filtro
+    // the SecurityContext is already populated: JwtAuthenticationFilter is registered ahead of this filter
+    private boolean limitedPerUser(String path) {
+        return userPolicies.match(path) != null && UserRateLimitFilter.getSubject() != null;
     }
 
     private boolean checkRateLimit(HttpServletRequest request, HttpServletResponse response,
-                                   String path, RateLimitConfig config) throws IOException {
-        String clientIdentifier = getClientIdentifier(request);
-        String bucketKey = config.endpoint().substring(config.endpoint().lastIndexOf('/')) + ":" + clientIdentifier;
-        Bucket bucket = getBucket(bucketKey, config);
+                                   String path, RateLimitPolicy policy) throws IOException {
+        RateLimitDecisionEvent event = new RateLimitDecisionEvent();
+        event.begin();
+        long bucketKey = getClientKey(request, policy);
+        Bucket bucket = getBucket(bucketKey, policy);
 
-        ConsumptionProbe probe = bucket.tryConsumeAndReturnRemaining(1);
+        ConsumptionProbe probe = bucketProvider.tryConsume(bucket, policy);
+        event.finish("client", policy.name(), probe.isConsumed(), probe.getRemainingTokens());
 
+        long retryAfterSeconds = writeHeaders(response, policy, probe);
         if (probe.isConsumed()) {
-            response.setHeader("X-RateLimit-Limit", String.valueOf(config.capacity()));
-            response.setHeader("X-RateLimit-Remaining", String.valueOf(probe.getRemainingTokens()));
-            response.setHeader("X-RateLimit-Reset", String.valueOf(probe.getNanosToWaitForRefill() / 1_000_000_000));
+            metrics.accepted(policy);
             return false;
 
         } else {
-            long retryAfterSeconds = probe.getNanosToWaitForRefill() / 1_000_000_000;
-            response.setHeader("X-RateLimit-Limit", String.valueOf(config.capacity()));
-            response.setHeader("X-RateLimit-Remaining", "0");
-            response.setHeader("X-RateLimit-Reset", String.valueOf(retryAfterSeconds));
-
-            writeRateLimitResponse(response, path, retryAfterSeconds);
-            log.warn("Rate limit exceeded for path: {} by client: {}", path, clientIdentifier);
+            metrics.rejected(policy);
+            ErrorResponseWriter.write(response, RATE_LIMIT_EXCEEDED, retryAfterSeconds, path);
+            securityEvents.record(SecurityEventLogger.Event.RATE_LIMITED,
+                    "Rate limit exceeded for path: {} (policy: {})", path, policy.name());
             return true;
         }
     }
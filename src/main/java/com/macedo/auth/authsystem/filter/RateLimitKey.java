@@ -0,0 +1,52 @@
+package com.macedo.auth.authsystem.filter;
+
+/**
+ * Rate-limit bucket key packed into a single {@code long}. Client keys (per IP + User-Agent):
+ * <pre>
+ *  63      56 55 54           40 39                            0
+ * +----------+--+---------------+-------------------------------+
+ * | policy+1 |0 | user-agent(15)| client address fingerprint (40) |
+ * +----------+--+---------------+-------------------------------+
+ * </pre>
+ * Subject keys (per authenticated user) set bit 55 and use the low 55 bits for a hash of the
+ * token subject, so both kinds can share one bucket store without colliding.
+ * The policy byte is offset by one so a packed key is never {@code 0}.
+ */
+public final class RateLimitKey {
+
+    public static final int MAX_POLICIES = 255;
+
+    private static final long ADDRESS_MASK = (1L << 40) - 1;
+    private static final long SUBJECT_FLAG = 1L << 55;
+    private static final long SUBJECT_MASK = SUBJECT_FLAG - 1;
+
+    private RateLimitKey() {
+    }
+
+    public static long pack(int policyId, long addressFingerprint, int userAgentHash) {
+        long userAgent = (userAgentHash ^ (userAgentHash >>> 16)) & 0x7fffL;
+        return ((long) (policyId + 1) << 56) | (userAgent << 40) | (addressFingerprint & ADDRESS_MASK);
+    }
+
+    public static long packSubject(int policyId, String subject) {
+        long hash = 0;
+        for (int i = 0; i < subject.length(); i++) {
+            hash = 31 * hash + subject.charAt(i);
+        }
+        hash *= 0x9E3779B97F4A7C15L;
+        hash ^= hash >>> 31;
+        return ((long) (policyId + 1) << 56) | SUBJECT_FLAG | (hash & SUBJECT_MASK);
+    }
+
+    public static int policyId(long key) {
+        return (int) (key >>> 56) - 1;
+    }
+
+    public static long address(long key) {
+        return key & ADDRESS_MASK;
+    }
+
+    public static boolean isSubject(long key) {
+        return (key & SUBJECT_FLAG) != 0;
+    }
+}
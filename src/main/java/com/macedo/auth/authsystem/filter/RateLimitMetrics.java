@@ -0,0 +1,68 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+
+/**
+ * Meters of one rate-limit stage ({@code client} or {@code user}): accepted/rejected counters per
+ * policy, resolved by policy id so the request path does no tag lookup, plus size, eviction and
+ * hit/miss meters of the stage's bucket table.
+ */
+final class RateLimitMetrics {
+
+    private final Counter[] accepted;
+    private final Counter[] rejected;
+
+    RateLimitMetrics(MeterRegistry registry, String stage, Map<String, RateLimitProperties.Policy> policies,
+                     ExpiringLongTable<?, ?> buckets) {
+        this.accepted = new Counter[policies.size()];
+        this.rejected = new Counter[policies.size()];
+
+        // ids seguem a ordem do mapa, como em RateLimitPolicy.compile / ids follow map order, as in compile
+        int id = 0;
+        for (String name : policies.keySet()) {
+            accepted[id] = counter(registry, stage, name, "accepted");
+            rejected[id] = counter(registry, stage, name, "rejected");
+            id++;
+        }
+
+        Gauge.builder("auth.rate_limit.buckets", buckets, ExpiringLongTable::size)
+                .description("Rate-limit buckets held in memory")
+                .tag("stage", stage)
+                .register(registry);
+        FunctionCounter.builder("auth.rate_limit.bucket_evictions", buckets, ExpiringLongTable::evictionCount)
+                .description("Live buckets evicted because the table was full")
+                .tag("stage", stage)
+                .register(registry);
+        FunctionCounter.builder("auth.rate_limit.bucket_lookups", buckets, ExpiringLongTable::hitCount)
+                .tag("stage", stage)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("auth.rate_limit.bucket_lookups", buckets, ExpiringLongTable::missCount)
+                .tag("stage", stage)
+                .tag("result", "miss")
+                .register(registry);
+    }
+
+    private static Counter counter(MeterRegistry registry, String stage, String policy, String outcome) {
+        return Counter.builder("auth.rate_limit.requests")
+                .description("Requests checked against a rate-limit policy")
+                .tag("stage", stage)
+                .tag("policy", policy)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    void accepted(RateLimitPolicy policy) {
+        accepted[policy.id()].increment();
+    }
+
+    void rejected(RateLimitPolicy policy) {
+        rejected[policy.id()].increment();
+    }
+}
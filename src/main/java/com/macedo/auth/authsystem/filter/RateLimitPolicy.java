@@ -0,0 +1,41 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.RateLimitProperties;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.BucketConfiguration;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public record RateLimitPolicy(int id, String name, int capacity, Duration period) {
+
+    public static RouteTable<RateLimitPolicy> compile(Map<String, RateLimitProperties.Policy> policies) {
+        Map<String, RateLimitPolicy> routes = new LinkedHashMap<>();
+        int id = 0;
+        for (Map.Entry<String, RateLimitProperties.Policy> entry : policies.entrySet()) {
+            RateLimitProperties.Policy policy = entry.getValue();
+            if (policy.getCapacity() <= 0 || policy.getPeriod() == null || policy.getPeriod().isZero()) {
+                throw new IllegalStateException("Invalid rate limit policy: " + entry.getKey());
+            }
+            if (id >= RateLimitKey.MAX_POLICIES) {
+                throw new IllegalStateException("At most " + RateLimitKey.MAX_POLICIES + " rate limit policies are supported");
+            }
+            routes.put(policy.getPath(), new RateLimitPolicy(id++, entry.getKey(), policy.getCapacity(), policy.getPeriod()));
+        }
+        return RouteTable.compile(routes);
+    }
+
+    public Bandwidth bandwidth() {
+        return Bandwidth.builder()
+                .capacity(capacity)
+                .refillIntervally(capacity, period)
+                .build();
+    }
+
+    public BucketConfiguration bucketConfiguration() {
+        return BucketConfiguration.builder()
+                .addLimit(bandwidth())
+                .build();
+    }
+}
@@ -0,0 +1,233 @@
+package com.macedo.auth.authsystem.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable path trie compiled once from a set of route patterns.
+ * <p>
+ * Pattern syntax, one segment at a time:
+ * <ul>
+ *     <li>{@code users} - literal segment</li>
+ *     <li>{@code {id}} - any purely numeric segment</li>
+ *     <li>{@code *} - any single segment</li>
+ *     <li>trailing {@code /**} - the path itself and everything below it</li>
+ * </ul>
+ * Literal segments win over {@code {id}}, which wins over {@code *}; when the preferred branch does
+ * not lead to a match, the lookup backtracks and tries the next one, so a literal route never hides a
+ * {@code {id}} or {@code *} route that matches further down. An exact match wins over a {@code /**} match, and
+ * the deepest {@code /**} on any branch wins among those. Lookups walk the request URI in place,
+ * without regex and without allocating; every trie node sits at a fixed depth, so a lookup visits
+ * each node at most once.
+ */
+public final class RouteTable<T> {
+
+    private final Node<T> root;
+
+    private RouteTable(Node<T> root) {
+        this.root = root;
+    }
+
+    public static <T> RouteTable<T> compile(Map<String, T> routes) {
+        Builder<T> root = new Builder<>(null);
+        routes.forEach((pattern, value) -> root.insert(pattern, value));
+        return new RouteTable<>(root.build(0));
+    }
+
+    public T match(String path) {
+        if (path == null) {
+            return null;
+        }
+        Node<T> exact = exact(root, path, 0);
+        if (exact != null) {
+            return exact.exactValue;
+        }
+        Node<T> prefix = prefix(root, path, 0, null);
+        return prefix != null ? prefix.prefixValue : null;
+    }
+
+    // primeiro match exato na ordem literal, {id}, *; volta atras quando o ramo preferido nao fecha
+    // first exact match in literal, {id}, * order; backtracks when the preferred branch dead-ends
+    private static <T> Node<T> exact(Node<T> node, String path, int start) {
+        start = skipSlashes(path, start);
+        if (start == path.length()) {
+            return node.exactValue != null ? node : null;
+        }
+        int end = segmentEnd(path, start);
+        Node<T> literal = node.literal(path, start, end);
+        if (literal != null) {
+            Node<T> match = exact(literal, path, end);
+            if (match != null) {
+                return match;
+            }
+        }
+        if (node.numericChild != null && isNumeric(path, start, end)) {
+            Node<T> match = exact(node.numericChild, path, end);
+            if (match != null) {
+                return match;
+            }
+        }
+        return node.wildcardChild != null ? exact(node.wildcardChild, path, end) : null;
+    }
+
+    // o /** mais profundo em qualquer ramo; no empate vale a mesma ordem / deepest /** on any branch, ties in the same order
+    private static <T> Node<T> prefix(Node<T> node, String path, int start, Node<T> best) {
+        if (node.prefixValue != null && (best == null || node.depth > best.depth)) {
+            best = node;
+        }
+        start = skipSlashes(path, start);
+        if (start == path.length()) {
+            return best;
+        }
+        int end = segmentEnd(path, start);
+        Node<T> literal = node.literal(path, start, end);
+        if (literal != null) {
+            best = prefix(literal, path, end, best);
+        }
+        if (node.numericChild != null && isNumeric(path, start, end)) {
+            best = prefix(node.numericChild, path, end, best);
+        }
+        if (node.wildcardChild != null) {
+            best = prefix(node.wildcardChild, path, end, best);
+        }
+        return best;
+    }
+
+    private static int skipSlashes(String path, int start) {
+        while (start < path.length() && path.charAt(start) == '/') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int segmentEnd(String path, int start) {
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.length() : end;
+    }
+
+    private static boolean isNumeric(String path, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final class Node<T> {
+
+        private final String[] literals;
+        private final Node<T>[] literalChildren;
+        private final Node<T> numericChild;
+        private final Node<T> wildcardChild;
+        private final T exactValue;
+        private final T prefixValue;
+        private final int depth;
+
+        private Node(String[] literals, Node<T>[] literalChildren, Node<T> numericChild,
+                     Node<T> wildcardChild, T exactValue, T prefixValue, int depth) {
+            this.literals = literals;
+            this.literalChildren = literalChildren;
+            this.numericChild = numericChild;
+            this.wildcardChild = wildcardChild;
+            this.exactValue = exactValue;
+            this.prefixValue = prefixValue;
+            this.depth = depth;
+        }
+
+        private Node<T> literal(String path, int start, int end) {
+            int length = end - start;
+            for (int i = 0; i < literals.length; i++) {
+                String literal = literals[i];
+                if (literal.length() == length && path.regionMatches(start, literal, 0, length)) {
+                    return literalChildren[i];
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Builder<T> {
+
+        private final String segment;
+        private final List<Builder<T>> literals = new ArrayList<>();
+        private Builder<T> numeric;
+        private Builder<T> wildcard;
+        private T exactValue;
+        private T prefixValue;
+
+        private Builder(String segment) {
+            this.segment = segment;
+        }
+
+        private void insert(String pattern, T value) {
+            if (pattern == null || !pattern.startsWith("/")) {
+                throw new IllegalArgumentException("Route pattern must start with '/': " + pattern);
+            }
+            String[] segments = Arrays.stream(pattern.split("/"))
+                    .filter(s -> !s.isEmpty())
+                    .toArray(String[]::new);
+
+            Builder<T> node = this;
+            for (int i = 0; i < segments.length; i++) {
+                String segment = segments[i];
+                if ("**".equals(segment)) {
+                    if (i != segments.length - 1) {
+                        throw new IllegalArgumentException("'**' is only allowed as the last segment: " + pattern);
+                    }
+                    node.prefixValue = requireUnique(node.prefixValue, value, pattern);
+                    return;
+                }
+                node = node.childFor(segment);
+            }
+            node.exactValue = requireUnique(node.exactValue, value, pattern);
+        }
+
+        private Builder<T> childFor(String segment) {
+            if ("*".equals(segment)) {
+                if (wildcard == null) {
+                    wildcard = new Builder<>(segment);
+                }
+                return wildcard;
+            }
+            if (segment.startsWith("{") && segment.endsWith("}")) {
+                if (numeric == null) {
+                    numeric = new Builder<>(segment);
+                }
+                return numeric;
+            }
+            for (Builder<T> literal : literals) {
+                if (literal.segment.equals(segment)) {
+                    return literal;
+                }
+            }
+            Builder<T> literal = new Builder<>(segment);
+            literals.add(literal);
+            return literal;
+        }
+
+        private static <T> T requireUnique(T existing, T value, String pattern) {
+            if (existing != null) {
+                throw new IllegalArgumentException("Duplicate route pattern: " + pattern);
+            }
+            return value;
+        }
+
+        @SuppressWarnings("unchecked")
+        private Node<T> build(int depth) {
+            String[] names = new String[literals.size()];
+            Node<T>[] children = new Node[literals.size()];
+            for (int i = 0; i < literals.size(); i++) {
+                names[i] = literals.get(i).segment;
+                children[i] = literals.get(i).build(depth + 1);
+            }
+            return new Node<>(names, children,
+                    numeric != null ? numeric.build(depth + 1) : null,
+                    wildcard != null ? wildcard.build(depth + 1) : null,
+                    exactValue, prefixValue, depth);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.ServerTimingProperties;
+import com.macedo.auth.authsystem.monitoring.ServerTiming;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Opt-in phase breakdown: when enabled, a request carrying the configured token header gets a
+ * {@code Server-Timing} header with the phases recorded through {@link ServerTiming} by the rate
+ * limiter, the JWT filter and the auth services. Runs right after {@link IpAccessFilter} so the
+ * total covers the whole security chain.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+
+    private final boolean enabled;
+    private final String tokenHeader;
+    private final byte[] token;
+
+    public ServerTimingFilter(ServerTimingProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.tokenHeader = properties.getHeader();
+        String configuredToken = properties.getToken();
+        if (enabled && (configuredToken == null || configuredToken.isBlank())) {
+            throw new IllegalStateException("server-timing.token must be set when server-timing.enabled=true");
+        }
+        this.token = enabled ? configuredToken.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        ServerTiming.setEnabled(enabled);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String presented = request.getHeader(tokenHeader);
+        // comparacao em tempo constante: o token nao pode ser descoberto pela latencia / constant-time comparison
+        if (presented == null || !MessageDigest.isEqual(presented.getBytes(StandardCharsets.UTF_8), token)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        TimingResponse timingResponse = new TimingResponse(response, ServerTiming.begin(), System.nanoTime());
+        try {
+            filterChain.doFilter(request, timingResponse);
+        } finally {
+            timingResponse.writeHeader();
+            ServerTiming.end();
+        }
+    }
+
+    // o header precisa entrar antes do commit da resposta / the header must be added before the response commits
+    private static final class TimingResponse extends OnCommittedResponseWrapper {
+
+        private final ServerTiming timing;
+        private final long startNanos;
+        private boolean written;
+
+        private TimingResponse(HttpServletResponse response, ServerTiming timing, long startNanos) {
+            super(response);
+            this.timing = timing;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeader();
+        }
+
+        private void writeHeader() {
+            if (written || getResponse().isCommitted()) {
+                return;
+            }
+            written = true;
+            addHeader(HEADER, timing.toHeader(System.nanoTime() - startNanos));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.RateLimitProperties;
+import com.macedo.auth.authsystem.exception.ErrorResponseWriter;
+import com.macedo.auth.authsystem.monitoring.RateLimitDecisionEvent;
+import com.macedo.auth.authsystem.security.SecurityEventLogger;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Second rate-limit stage, registered after {@code JwtAuthenticationFilter}: buckets are keyed on
+ * the authenticated subject instead of IP + User-Agent, so one user cannot escape the quota by
+ * rotating addresses and users behind a shared NAT do not drain each other's buckets.
+ */
+@Component
+public class UserRateLimitFilter extends OncePerRequestFilter {
+
+    private final RouteTable<RateLimitPolicy> policies;
+    private final ExpiringLongTable<RateLimitPolicy, Bucket> buckets;
+    private final RateLimitBucketProvider bucketProvider;
+    private final ExpiringLongTable.Factory<RateLimitPolicy, Bucket> bucketFactory;
+    private final SecurityEventLogger securityEvents;
+    private final RateLimitMetrics metrics;
+
+    public UserRateLimitFilter(RateLimitProperties properties, RateLimitBucketProvider bucketProvider,
+                               SecurityEventLogger securityEvents, MeterRegistry meterRegistry) {
+        this.policies = RateLimitPolicy.compile(properties.getUserPolicies());
+        this.buckets = new ExpiringLongTable<>(properties.getMaxBuckets());
+        this.bucketProvider = bucketProvider;
+        this.bucketFactory = bucketProvider::create;
+        this.securityEvents = securityEvents;
+        this.metrics = new RateLimitMetrics(meterRegistry, "user", properties.getUserPolicies(), buckets);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String path = request.getRequestURI();
+        RateLimitPolicy policy = policies.match(path);
+        String subject = policy != null ? getSubject() : null;
+
+        if (subject != null && !tryConsume(response, path, policy, subject)) {
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // tambem usado pelo RateLimitFilter para ceder a rota a este estagio / also lets RateLimitFilter defer to this stage
+    static String getSubject() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private boolean tryConsume(HttpServletResponse response, String path, RateLimitPolicy policy, String subject)
+            throws IOException {
+        RateLimitDecisionEvent event = new RateLimitDecisionEvent();
+        event.begin();
+        long key = RateLimitKey.packSubject(policy.id(), subject);
+        Bucket bucket = buckets.get(key, policy, policy.period().toNanos(), bucketFactory);
+        ConsumptionProbe probe = bucketProvider.tryConsume(bucket, policy);
+        event.finish("user", policy.name(), probe.isConsumed(), probe.getRemainingTokens());
+
+        long retryAfterSeconds = RateLimitFilter.writeHeaders(response, policy, probe);
+        if (probe.isConsumed()) {
+            metrics.accepted(policy);
+            return true;
+        }
+
+        metrics.rejected(policy);
+        ErrorResponseWriter.write(response, RateLimitFilter.RATE_LIMIT_EXCEEDED, retryAfterSeconds, path);
+
+        securityEvents.record(SecurityEventLogger.Event.USER_RATE_LIMITED,
+                "User rate limit exceeded for {} (policy: {})", subject, policy.name());
+        return false;
+    }
+}
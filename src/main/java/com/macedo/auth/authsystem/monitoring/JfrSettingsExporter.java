@@ -0,0 +1,55 @@
+package com.macedo.auth.authsystem.monitoring;
+
+import com.macedo.auth.authsystem.config.JfrProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Copies the {@code jfr/auth-system.jfc} profile out of the jar to {@code jfr.settings-file}.
+ * {@code jcmd} and {@code -XX:StartFlightRecording} resolve {@code settings=} against the file
+ * system of the JVM (or the JDK's own {@code lib/jfr}), never the application classpath, so the
+ * profile has to exist as a file before a recording can use it.
+ */
+@Slf4j
+@Component
+public class JfrSettingsExporter {
+
+    static final String RESOURCE = "/jfr/auth-system.jfc";
+
+    private final JfrProperties props;
+
+    public JfrSettingsExporter(JfrProperties props) {
+        this.props = props;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void export() {
+        Path target = props.getSettingsFile();
+        if (target == null) {
+            return;
+        }
+        try (InputStream in = JfrSettingsExporter.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                log.warn("JFR profile {} not found on the classpath", RESOURCE);
+                return;
+            }
+            Path file = target.toAbsolutePath();
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            // sempre sobrescreve: o arquivo acompanha a versao em execucao / always overwritten: follows the running version
+            Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+            log.info("JFR profile available at {} (jcmd <pid> JFR.start settings=default settings={})", file, file);
+        } catch (IOException ex) {
+            log.warn("Could not extract the JFR profile to {}: {}", target, ex.getMessage());
+        }
+    }
+}
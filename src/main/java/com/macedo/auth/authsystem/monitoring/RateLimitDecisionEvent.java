@@ -0,0 +1,40 @@
+package com.macedo.auth.authsystem.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.macedo.auth.RateLimitDecision")
+@Label("Rate Limit Decision")
+@Category({"Auth System", "Rate Limiting"})
+@Description("Bucket lookup and token consumption for one request")
+@Enabled(false)
+@StackTrace(false)
+public class RateLimitDecisionEvent extends jdk.jfr.Event {
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Policy")
+    public String policy;
+
+    @Label("Outcome")
+    public String outcome;
+
+    @Label("Remaining Tokens")
+    public long remainingTokens;
+
+    public void finish(String stage, String policy, boolean accepted, long remainingTokens) {
+        end();
+        if (shouldCommit()) {
+            this.stage = stage;
+            this.policy = policy;
+            this.outcome = accepted ? "accepted" : "rejected";
+            this.remainingTokens = remainingTokens;
+            commit();
+        }
+    }
+}
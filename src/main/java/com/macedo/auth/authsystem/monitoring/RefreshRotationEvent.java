@@ -0,0 +1,28 @@
+package com.macedo.auth.authsystem.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.macedo.auth.RefreshRotation")
+@Label("Refresh Rotation")
+@Category({"Auth System", "Security"})
+@Description("Validation of a refresh token and its replacement by a new one")
+@Enabled(false)
+@StackTrace(false)
+public class RefreshRotationEvent extends jdk.jfr.Event {
+
+    @Label("Outcome")
+    public String outcome;
+
+    public void finish(String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.macedo.auth.authsystem.monitoring;
+
+/**
+ * Per-request phase timer rendered as a {@code Server-Timing} header.
+ * <p>
+ * A recording only exists for requests opted in by {@code ServerTimingFilter}; everywhere else
+ * {@link #start()} returns {@link #OFF} after a single static flag read (or one thread-local lookup
+ * when the feature is on but the request did not opt in), and {@link #stop} returns immediately.
+ * Phases with the same name are summed.
+ * <pre>
+ * long t = ServerTiming.start();
+ * ...
+ * ServerTiming.stop("password-hash", t);
+ * </pre>
+ */
+public final class ServerTiming {
+
+    public static final long OFF = Long.MIN_VALUE;
+
+    private static final int MAX_PHASES = 16;
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    // escrito uma vez na inicializacao / written once at startup
+    private static volatile boolean enabled;
+
+    private final String[] names = new String[MAX_PHASES];
+    private final long[] nanos = new long[MAX_PHASES];
+    private int count;
+
+    private ServerTiming() {
+    }
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static long start() {
+        if (!enabled || CURRENT.get() == null) {
+            return OFF;
+        }
+        return System.nanoTime();
+    }
+
+    public static void stop(String phase, long start) {
+        if (start == OFF) {
+            return;
+        }
+        ServerTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.add(phase, System.nanoTime() - start);
+        }
+    }
+
+    void add(String phase, long elapsedNanos) {
+        for (int i = 0; i < count; i++) {
+            if (names[i].equals(phase)) {
+                nanos[i] += elapsedNanos;
+                return;
+            }
+        }
+        if (count < MAX_PHASES) {
+            names[count] = phase;
+            nanos[count++] = elapsedNanos;
+        }
+    }
+
+    /**
+     * @return e.g. {@code rate-limit;dur=0.041, password-hash;dur=71.802, total;dur=74.310}
+     */
+    public String toHeader(long totalNanos) {
+        StringBuilder header = new StringBuilder(32 * (count + 1));
+        for (int i = 0; i < count; i++) {
+            appendMetric(header, names[i], nanos[i]);
+            header.append(", ");
+        }
+        appendMetric(header, "total", totalNanos);
+        return header.toString();
+    }
+
+    // milissegundos com 3 casas, sem String.format / milliseconds with 3 decimals
+    private static void appendMetric(StringBuilder header, String name, long elapsedNanos) {
+        long micros = Math.max(0, elapsedNanos) / 1_000;
+        int fraction = (int) (micros % 1_000);
+        header.append(name).append(";dur=").append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            header.append('0');
+        }
+        if (fraction < 10) {
+            header.append('0');
+        }
+        header.append(fraction);
+    }
+}
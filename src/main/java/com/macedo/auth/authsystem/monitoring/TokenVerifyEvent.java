@@ -0,0 +1,32 @@
+package com.macedo.auth.authsystem.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Like the other auth-system JFR events, disabled unless a recording uses
+ * {@code jfr/auth-system.jfc}; {@code finish} only fills the fields when the event will be written.
+ */
+@Name("com.macedo.auth.TokenVerify")
+@Label("Token Verify")
+@Category({"Auth System", "Security"})
+@Description("Signature and claims validation of an access token")
+@Enabled(false)
+@StackTrace(false)
+public class TokenVerifyEvent extends jdk.jfr.Event {
+
+    @Label("Outcome")
+    public String outcome;
+
+    public void finish(String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
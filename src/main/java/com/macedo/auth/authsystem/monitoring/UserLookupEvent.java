@@ -0,0 +1,32 @@
+package com.macedo.auth.authsystem.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.macedo.auth.UserLookup")
+@Label("User Lookup")
+@Category({"Auth System", "Database"})
+@Description("User loaded by email, for login or for token authentication")
+@Enabled(false)
+@StackTrace(false)
+public class UserLookupEvent extends jdk.jfr.Event {
+
+    @Label("Caller")
+    public String caller;
+
+    @Label("Outcome")
+    public String outcome;
+
+    public void finish(String caller, boolean found) {
+        end();
+        if (shouldCommit()) {
+            this.caller = caller;
+            this.outcome = found ? "found" : "not_found";
+            commit();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.macedo.auth.authsystem.repository;
+
+import com.macedo.auth.authsystem.entity.LoginEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JDBC access to {@code login_events}, range-partitioned by month (UTC). Every read is bounded by
+ * {@code occurred_at} so PostgreSQL prunes the partitions outside the requested interval, and
+ * retention drops whole partitions instead of deleting rows. Rows for a month without a partition
+ * go to {@code login_events_default} (V12) until that month's partition is created.
+ */
+@Repository
+public class LoginEventRepository {
+
+    private static final String TABLE = "login_events";
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final String COLUMNS = "(user_id, occurred_at, success, ip, user_agent)";
+    private static final int COLUMN_COUNT = 5;
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_p(\\d{6})");
+
+    private static final RowMapper<LoginEvent> ROW_MAPPER = (rs, rowNum) -> new LoginEvent(
+            rs.getLong("user_id"),
+            rs.getTimestamp("occurred_at").toInstant(),
+            rs.getBoolean("success"),
+            rs.getString("ip"),
+            rs.getString("user_agent"));
+
+    private final JdbcTemplate jdbc;
+
+    public LoginEventRepository(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Inserts all events with a single multi-row {@code INSERT}: one round trip and one statement
+     * per batch instead of one per login.
+     */
+    public int insertAll(List<LoginEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+        return jdbc.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(insertSql(events.size()));
+            int index = 1;
+            for (LoginEvent event : events) {
+                statement.setLong(index++, event.userId());
+                statement.setTimestamp(index++, Timestamp.from(event.occurredAt()));
+                statement.setBoolean(index++, event.success());
+                statement.setString(index++, event.ip());
+                statement.setString(index++, event.userAgent());
+            }
+            return statement;
+        });
+    }
+
+    static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(64 + rows * (COLUMN_COUNT * 2 + 4))
+                .append("INSERT INTO ").append(TABLE).append(' ').append(COLUMNS).append(" VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "(?,?,?,?,?)" : ",(?,?,?,?,?)");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Most recent events of a user with {@code from <= occurred_at < to}, newest first.
+     */
+    public List<LoginEvent> findByUser(long userId, Instant from, Instant to, int limit) {
+        return jdbc.query("""
+                        SELECT user_id, occurred_at, success, ip, user_agent FROM login_events
+                        WHERE user_id = ? AND occurred_at >= ? AND occurred_at < ?
+                        ORDER BY occurred_at DESC
+                        LIMIT ?""",
+                ROW_MAPPER, userId, Timestamp.from(from), Timestamp.from(to), limit);
+    }
+
+    /**
+     * Latest successful login of a user inside {@code [from, to)}.
+     */
+    public Optional<Instant> findLastSuccess(long userId, Instant from, Instant to) {
+        List<Timestamp> found = jdbc.queryForList("""
+                        SELECT occurred_at FROM login_events
+                        WHERE user_id = ? AND success AND occurred_at >= ? AND occurred_at < ?
+                        ORDER BY occurred_at DESC
+                        LIMIT 1""",
+                Timestamp.class, userId, Timestamp.from(from), Timestamp.from(to));
+        return found.stream().findFirst().map(Timestamp::toInstant);
+    }
+
+    /**
+     * Creates the partition of {@code month}. If rows of that month already sit in the default
+     * partition, PostgreSQL refuses the new partition, so they are moved in the same statement:
+     * detach the default, create the partition, copy the rows over, re-attach the default.
+     */
+    public void createPartition(YearMonth month) {
+        jdbc.execute(createPartitionSql(month));
+    }
+
+    static String createPartitionSql(YearMonth month) {
+        String create = "CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF " + TABLE
+                + " FOR VALUES FROM ('" + start(month) + "') TO ('" + start(month.plusMonths(1)) + "')";
+        String range = "occurred_at >= '" + start(month) + "' AND occurred_at < '" + start(month.plusMonths(1)) + "'";
+        return """
+                DO $$
+                BEGIN
+                    IF to_regclass('%2$s') IS NOT NULL AND EXISTS (SELECT 1 FROM %2$s WHERE %3$s) THEN
+                        ALTER TABLE %1$s DETACH PARTITION %2$s;
+                        %4$s;
+                        INSERT INTO %1$s SELECT * FROM %2$s WHERE %3$s;
+                        DELETE FROM %2$s WHERE %3$s;
+                        ALTER TABLE %1$s ATTACH PARTITION %2$s DEFAULT;
+                    ELSE
+                        %4$s;
+                    END IF;
+                END $$""".formatted(TABLE, DEFAULT_PARTITION, range, create);
+    }
+
+    public void dropPartition(YearMonth month) {
+        jdbc.execute("DROP TABLE IF EXISTS " + partitionName(month));
+    }
+
+    /**
+     * Months that currently have a partition, oldest first.
+     */
+    public List<YearMonth> findPartitions() {
+        return jdbc.queryForList("""
+                        SELECT c.relname FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+                        JOIN pg_class p ON p.oid = i.inhparent
+                        WHERE p.relname = ?""",
+                String.class, TABLE).stream()
+                .map(PARTITION_NAME::matcher)
+                .filter(Matcher::matches)
+                .map(matcher -> YearMonth.parse(matcher.group(1), PARTITION_SUFFIX))
+                .sorted()
+                .toList();
+    }
+
+    static String partitionName(YearMonth month) {
+        return TABLE + "_p" + month.format(PARTITION_SUFFIX);
+    }
+
+    public static Instant start(YearMonth month) {
+        return month.atDay(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+}
@@ -1,5 +1,7 @@
 package com.macedo.auth.authsystem.repository;
 
+import com.macedo.auth.authsystem.datasource.Workload;
+import com.macedo.auth.authsystem.datasource.WorkloadType;
 import com.macedo.auth.authsystem.entity.PasswordResetToken;
 import org.springframework.data.jpa.repository.JpaRepository;
 
@@ -15,5 +17,8 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
 
     List<PasswordResetToken> findByEmailAndUsedFalseAndExpiryDateAfter(String email, Instant expiryDate);
 
+    // purga em massa no pool de jobs, mesmo chamada fora de um servico anotado
+    // bulk purge on the background pool even when called outside an annotated service
+    @Workload(WorkloadType.BACKGROUND)
     void deleteByExpiryDateBefore(Instant expiryDate);
 }
@@ -0,0 +1,13 @@
+package com.macedo.auth.authsystem.repository;
+
+import com.macedo.auth.authsystem.entity.RoleName;
+
+import java.time.Instant;
+
+/**
+ * One row of {@link UserRepository#findCredentialRowsByEmail}: the credential columns of a user
+ * repeated once per role ({@code role} is {@code null} for a user without roles).
+ */
+public record UserCredentialRow(Long id, String email, String password, boolean enabled,
+                                boolean accountLocked, Instant lockTime, RoleName role) {
+}
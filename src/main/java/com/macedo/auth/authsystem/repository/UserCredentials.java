@@ -0,0 +1,32 @@
+package com.macedo.auth.authsystem.repository;
+
+import com.macedo.auth.authsystem.entity.RoleName;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * What authentication needs from a user and nothing else: no name, avatar or timestamps, and
+ * not a managed entity, so there is nothing for Hibernate to snapshot or dirty-check.
+ */
+public record UserCredentials(Long id, String email, String password, boolean enabled,
+                              boolean accountLocked, Instant lockTime, Set<RoleName> roles) {
+
+    static Optional<UserCredentials> of(List<UserCredentialRow> rows) {
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Set<RoleName> roles = EnumSet.noneOf(RoleName.class);
+        for (UserCredentialRow row : rows) {
+            if (row.role() != null) {
+                roles.add(row.role());
+            }
+        }
+        UserCredentialRow first = rows.get(0);
+        return Optional.of(new UserCredentials(first.id(), first.email(), first.password(), first.enabled(),
+                first.accountLocked(), first.lockTime(), Set.copyOf(roles)));
+    }
+}
@@ -1,14 +1,20 @@
 package com.macedo.auth.authsystem.repository;
 
 import com.macedo.auth.authsystem.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,8 +22,39 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
 
     Optional<User> findByEmail(String email);
 
+    // mesma busca com os papeis no mesmo SELECT (join) / same lookup with roles joined in the same SELECT
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesByEmail(String email);
+
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findWithRolesById(Long id);
+
+    // login e autenticacao por token: so as colunas de credencial e os nomes dos papeis, uma linha por papel
+    // login and token authentication: credential columns and role names only, one row per role.
+    // FlushMode MANUAL evita o auto-flush antes da consulta quando ela roda dentro da transacao do login
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    @Query("SELECT new com.macedo.auth.authsystem.repository.UserCredentialRow("
+            + "u.id, u.email, u.password, u.enabled, u.accountLocked, u.lockTime, r.name) "
+            + "FROM User u LEFT JOIN u.roles r WHERE u.email = :email")
+    List<UserCredentialRow> findCredentialRowsByEmail(@Param("email") String email);
+
+    default Optional<UserCredentials> findCredentialsByEmail(String email) {
+        return UserCredentials.of(findCredentialRowsByEmail(email));
+    }
+
     boolean existsByEmail(String email);
 
-    @Query("SELECT u FROM User u WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :query, '%')) OR LOWER(u.email) LIKE LOWER(CONCAT('%', :query, '%'))")
-    Page<User> searchByNameOrEmail(@Param("query") String query, Pageable pageable);
+    // o padrao chega em minusculas e com % e _ escapados (UserService); LOWER(col) casa com os indices de V6
+    // the pattern arrives lower-cased with % and _ escaped (UserService); LOWER(col) matches the V6 expression indexes
+    @Query("SELECT u FROM User u WHERE LOWER(u.name) LIKE :pattern ESCAPE '\\' OR LOWER(u.email) LIKE :pattern ESCAPE '\\'")
+    Page<User> searchByNameOrEmail(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query("SELECT u FROM User u WHERE LOWER(u.email) LIKE :pattern ESCAPE '\\'")
+    Page<User> searchByEmail(@Param("pattern") String pattern, Pageable pageable);
+
+    // estimativa do planner (atualizada por ANALYZE/autovacuum): O(1), ao contrario de count(*)
+    // planner estimate kept up to date by ANALYZE/autovacuum: O(1), unlike count(*)
+    @Query(value = "SELECT CAST(reltuples AS BIGINT) FROM pg_class WHERE oid = CAST('users' AS regclass)", nativeQuery = true)
+    long estimateCount();
 }
@@ -0,0 +1,65 @@
+package com.macedo.auth.authsystem.repository;
+
+import com.macedo.auth.authsystem.entity.User;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Columns the admin user listing can be ordered and paged by: the only accepted sort fields, each
+ * backed by a migration-created B-tree index (V7, V8, PK) so listings read in index order and a
+ * keyset seek is an index range scan. Non-unique columns page by {@code (column, id)}; unique ones
+ * need no tiebreaker.
+ */
+public enum UserSortField {
+
+    CREATED_AT("createdAt", false, User::getCreatedAt, Instant::parse),
+    NAME("name", false, User::getName, Function.identity()),
+    EMAIL("email", true, User::getEmail, Function.identity()),
+    ID("id", true, User::getId, Long::valueOf);
+
+    private final String property;
+    private final boolean unique;
+    private final Function<User, Object> extractor;
+    private final Function<String, ? extends Comparable<?>> parser;
+
+    UserSortField(String property, boolean unique, Function<User, Object> extractor,
+                  Function<String, ? extends Comparable<?>> parser) {
+        this.property = property;
+        this.unique = unique;
+        this.extractor = extractor;
+        this.parser = parser;
+    }
+
+    public String property() {
+        return property;
+    }
+
+    public boolean unique() {
+        return unique;
+    }
+
+    public static Optional<UserSortField> fromProperty(String property) {
+        for (UserSortField field : values()) {
+            if (field.property.equals(property)) {
+                return Optional.of(field);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Sort key of {@code user} as stored in a cursor.
+     */
+    public String format(User user) {
+        return String.valueOf(extractor.apply(user));
+    }
+
+    /**
+     * Inverse of {@link #format}; throws {@link RuntimeException}s from the parser on malformed input.
+     */
+    public Comparable<?> parse(String value) {
+        return parser.apply(value);
+    }
+}
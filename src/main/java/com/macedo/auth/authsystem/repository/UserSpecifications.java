@@ -0,0 +1,59 @@
+package com.macedo.auth.authsystem.repository;
+
+import com.macedo.auth.authsystem.entity.User;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Criteria counterparts of the {@link UserRepository} search queries, for listings that are
+ * composed at runtime (keyset paging).
+ */
+public final class UserSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private UserSpecifications() {
+    }
+
+    /**
+     * Same predicate as {@link UserRepository#searchByNameOrEmail}; {@code pattern} is already
+     * lower-cased and escaped.
+     */
+    public static Specification<User> nameOrEmailLike(String pattern) {
+        return (root, query, cb) -> cb.or(
+                cb.like(cb.lower(root.get("name")), pattern, LIKE_ESCAPE),
+                cb.like(cb.lower(root.get("email")), pattern, LIKE_ESCAPE));
+    }
+
+    /**
+     * Same predicate as {@link UserRepository#searchByEmail}.
+     */
+    public static Specification<User> emailLike(String pattern) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get("email")), pattern, LIKE_ESCAPE);
+    }
+
+    /**
+     * Rows strictly after {@code (value, id)} in {@code field} order. The redundant
+     * {@code column >= value} bound gives the planner an index range to start from; the expanded
+     * {@code column > value OR id > lastId} alone would not be usable as an index condition.
+     */
+    public static Specification<User> after(UserSortField field, boolean descending, Comparable<?> value, long id) {
+        return (root, query, cb) -> {
+            Path<Long> idPath = root.get("id");
+            Predicate idAfter = descending ? cb.lessThan(idPath, id) : cb.greaterThan(idPath, id);
+            if (field == UserSortField.ID) {
+                return idAfter;
+            }
+            Path<Comparable<Object>> key = root.get(field.property());
+            @SuppressWarnings("unchecked")
+            Comparable<Object> bound = (Comparable<Object>) value;
+            Predicate keyAfter = descending ? cb.lessThan(key, bound) : cb.greaterThan(key, bound);
+            if (field.unique()) {
+                return keyAfter;
+            }
+            Predicate seek = descending ? cb.lessThanOrEqualTo(key, bound) : cb.greaterThanOrEqualTo(key, bound);
+            return cb.and(seek, cb.or(keyAfter, idAfter));
+        };
+    }
+}
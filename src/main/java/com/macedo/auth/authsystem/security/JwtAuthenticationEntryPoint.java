@@ -1,8 +1,10 @@
 package com.macedo.auth.authsystem.security;
 
+import com.macedo.auth.authsystem.exception.ErrorResponseWriter;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.stereotype.Component;
@@ -12,11 +14,16 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationEntryPoint implements AuthenticationEntryPoint {
 
+    private static final ErrorResponseWriter.Template UNAUTHORIZED = ErrorResponseWriter.template(
+            HttpStatus.UNAUTHORIZED, "UNAUTHORIZED", "Unauthorized: Invalid or missing token");
+
+    // escreve o corpo direto em vez de sendError: evita o forward para /error e uma segunda
+    // passagem pela cadeia de filtros / writes the body directly instead of sendError, avoiding
+    // the /error forward and a second pass through the filter chain
     @Override
     public void commence(HttpServletRequest request,
                          HttpServletResponse response,
                          AuthenticationException authException) throws IOException, ServletException {
-        response.sendError(HttpServletResponse.SC_UNAUTHORIZED,
-                "Unauthorized: Invalid or missing token");
+        ErrorResponseWriter.write(response, UNAUTHORIZED, request.getRequestURI());
     }
 }
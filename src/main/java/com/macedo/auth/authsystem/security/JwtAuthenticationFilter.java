@@ -1,5 +1,6 @@
 package com.macedo.auth.authsystem.security;
 
+import com.macedo.auth.authsystem.monitoring.ServerTiming;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,11 +22,14 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
+    private final SecurityEventLogger securityEvents;
 
     public JwtAuthenticationFilter(JwtTokenProvider tokenProvider,
-                                   UserDetailsService userDetailsService) {
+                                   UserDetailsService userDetailsService,
+                                   SecurityEventLogger securityEvents) {
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
+        this.securityEvents = securityEvents;
     }
 
     @Override
@@ -38,20 +42,29 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             token = header.substring(7);
         }
 
-        if (token != null && tokenProvider.validateToken(token)) {
+        boolean valid = false;
+        if (token != null) {
+            long timing = ServerTiming.start();
+            valid = tokenProvider.validateToken(token);
+            ServerTiming.stop("jwt-verify", timing);
+        }
+
+        if (valid) {
             String username = tokenProvider.getUsernameFromToken(token);
+            long timing = ServerTiming.start();
             UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            ServerTiming.stop("user-lookup", timing);
 
             // Verificação explícita do status da conta
             if (!userDetails.isEnabled()) {
-                log.warn("Attempted authentication from disabled user: {}", username);
+                securityEvents.record(SecurityEventLogger.Event.TOKEN_INACTIVE_ACCOUNT, "Attempted authentication from disabled user: {}", username);
                 filterChain.doFilter(request, response);
                 return;
             }
 
             // Verificar se a conta está bloqueada
             if (!userDetails.isAccountNonLocked()) {
-                log.warn("Attempted authentication from locked user: {}", username);
+                securityEvents.record(SecurityEventLogger.Event.TOKEN_INACTIVE_ACCOUNT, "Attempted authentication from locked user: {}", username);
                 filterChain.doFilter(request, response);
                 return;
             }
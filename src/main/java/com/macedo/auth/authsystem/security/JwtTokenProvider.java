@@ -1,9 +1,13 @@
 package com.macedo.auth.authsystem.security;
 
 import com.macedo.auth.authsystem.config.JwtProperties;
+import com.macedo.auth.authsystem.monitoring.TokenVerifyEvent;
+import com.macedo.auth.authsystem.security.SecurityEventLogger.Event;
 import com.macedo.auth.authsystem.service.JwtBlacklistService;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -11,6 +15,7 @@ import org.springframework.stereotype.Component;
 import java.security.Key;
 import java.util.Date;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Component
@@ -19,30 +24,40 @@ public class JwtTokenProvider {
     private final long accessTokenExpirationMs;
     private final long refreshTokenExpirationMs;
     private final JwtBlacklistService blacklistService;
-
-    public JwtTokenProvider(JwtProperties jwtProperties, JwtBlacklistService blacklistService) {
+    private final SecurityEventLogger securityEvents;
+    private final Timer signAccessTimer;
+    private final Timer signRefreshTimer;
+    private final Timer verifyValidTimer;
+    private final Timer verifyInvalidTimer;
+
+    public JwtTokenProvider(JwtProperties jwtProperties, JwtBlacklistService blacklistService,
+                            SecurityEventLogger securityEvents, MeterRegistry meterRegistry) {
         this.key = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes());
         this.accessTokenExpirationMs = jwtProperties.getAccessTokenExpirationMs();
         this.refreshTokenExpirationMs = jwtProperties.getRefreshTokenExpirationMs();
         this.blacklistService = blacklistService;
+        this.securityEvents = securityEvents;
+        this.signAccessTimer = timer(meterRegistry, "auth.jwt.sign", "type", "access");
+        this.signRefreshTimer = timer(meterRegistry, "auth.jwt.sign", "type", "refresh");
+        this.verifyValidTimer = timer(meterRegistry, "auth.jwt.verify", "outcome", "valid");
+        this.verifyInvalidTimer = timer(meterRegistry, "auth.jwt.verify", "outcome", "invalid");
+    }
+
+    private static Timer timer(MeterRegistry registry, String name, String tag, String value) {
+        return Timer.builder(name).tag(tag, value).register(registry);
     }
 
     public String generateAccessToken(String username) {
-        Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + accessTokenExpirationMs);
-        String jti = UUID.randomUUID().toString();
-        return Jwts.builder()
-                .setId(jti)
-                .setSubject(username)
-                .setIssuedAt(now)
-                .setExpiration(expiryDate)
-                .signWith(key, SignatureAlgorithm.HS512)
-                .compact();
+        return signAccessTimer.record(() -> sign(username, accessTokenExpirationMs));
     }
 
     public String generateRefreshToken(String username) {
+        return signRefreshTimer.record(() -> sign(username, refreshTokenExpirationMs));
+    }
+
+    private String sign(String username, long expirationMs) {
         Date now = new Date();
-        Date expiryDate = new Date(now.getTime() + refreshTokenExpirationMs);
+        Date expiryDate = new Date(now.getTime() + expirationMs);
         String jti = UUID.randomUUID().toString();
         return Jwts.builder()
                 .setId(jti)
@@ -81,6 +96,16 @@ public class JwtTokenProvider {
     }
 
     public boolean validateToken(String token) {
+        TokenVerifyEvent event = new TokenVerifyEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean valid = verify(token);
+        (valid ? verifyValidTimer : verifyInvalidTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        event.finish(valid ? "valid" : "invalid");
+        return valid;
+    }
+
+    private boolean verify(String token) {
         try {
             Claims claims = Jwts.parserBuilder()
                     .setSigningKey(key)
@@ -90,39 +115,39 @@ public class JwtTokenProvider {
 
             String jti = claims.getId();
             if (jti != null && blacklistService.isBlacklisted(jti)) {
-                log.warn("Token is blacklisted: {}", jti.substring(0, Math.min(8, jti.length())));
+                securityEvents.record(Event.TOKEN_BLACKLISTED, "Token is blacklisted: {}", jti.substring(0, Math.min(8, jti.length())));
                 return false;
             }
 
             Date issuedAt = claims.getIssuedAt();
             Date now = new Date();
             if (issuedAt != null && issuedAt.after(now)) {
-                log.error("Token issuedAt date is in the future");
+                securityEvents.record(Event.TOKEN_INVALID_CLAIMS, "Token issuedAt date is in the future: {}", issuedAt);
                 return false;
             }
 
             Date expiration = claims.getExpiration();
             if (expiration != null && expiration.before(now)) {
-                log.error("Token expiration time is in the past");
+                securityEvents.record(Event.TOKEN_EXPIRED, "Token expiration time is in the past: {}", expiration);
                 return false;
             }
 
             if (claims.getSubject() == null || claims.getSubject().isBlank()) {
-                log.error("Token subject is missing or empty");
+                securityEvents.record(Event.TOKEN_INVALID_CLAIMS, "Token subject is missing or empty: {}", claims.getId());
                 return false;
             }
 
             return true;
         } catch (ExpiredJwtException ex) {
-            log.error("Expired token: {}", ex.getMessage());
+            securityEvents.record(Event.TOKEN_EXPIRED, "Expired token: {}", ex.getMessage());
         } catch (UnsupportedJwtException ex) {
-            log.error("JWT token format not supported: {}", ex.getMessage());
+            securityEvents.record(Event.TOKEN_UNSUPPORTED, "JWT token format not supported: {}", ex.getMessage());
         } catch (MalformedJwtException ex) {
-            log.error("Malformed JWT Token: {}", ex.getMessage());
+            securityEvents.record(Event.TOKEN_MALFORMED, "Malformed JWT Token: {}", ex.getMessage());
         } catch (SignatureException ex) {
-            log.error("JWT token signing failed: {}", ex.getMessage());
+            securityEvents.record(Event.TOKEN_BAD_SIGNATURE, "JWT token signing failed: {}", ex.getMessage());
         } catch (IllegalArgumentException ex) {
-            log.error("Illegal argument when validating JWT token: {}", ex.getMessage());
+            securityEvents.record(Event.TOKEN_MALFORMED, "Illegal argument when validating JWT token: {}", ex.getMessage());
         } catch (Exception ex) {
             log.error("Unexpected error validating JWT token: {}", ex.getMessage());
         }
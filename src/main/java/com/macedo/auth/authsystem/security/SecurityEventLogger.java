@@ -0,0 +1,136 @@
+package com.macedo.auth.authsystem.security;
+
+import com.macedo.auth.authsystem.config.SecurityLoggingProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logging for expected security failures (bad tokens, failed logins, rate limits) that stays
+ * cheap under attack.
+ * <p>
+ * Every event is counted in a striped {@link LongAdder} per category. Only the first
+ * {@code sampleBurst} events of each category per summary interval are logged individually, then
+ * one in {@code sampleRate}; the rest show up in the periodic summary line. Logging itself goes
+ * through the async appender configured in {@code logback-spring.xml}.
+ */
+@Slf4j
+@Component
+public class SecurityEventLogger implements MeterBinder {
+
+    public enum Event {
+        TOKEN_EXPIRED,
+        TOKEN_MALFORMED,
+        TOKEN_BAD_SIGNATURE,
+        TOKEN_UNSUPPORTED,
+        TOKEN_INVALID_CLAIMS,
+        TOKEN_BLACKLISTED,
+        TOKEN_INACTIVE_ACCOUNT,
+        LOGIN_FAILED,
+        ACCOUNT_LOCKED,
+        LOCKED_ACCOUNT_ATTEMPT,
+        RATE_LIMITED,
+        USER_RATE_LIMITED
+    }
+
+    private static final Event[] EVENTS = Event.values();
+
+    private final int sampleBurst;
+    private final int sampleRate;
+    private final LongAdder[] counts = new LongAdder[EVENTS.length];
+    private final AtomicInteger[] logged = new AtomicInteger[EVENTS.length];
+    private final LongAdder suppressed = new LongAdder();
+
+    // apenas a thread do resumo le/escreve / only touched by the summary thread
+    private final long[] lastReported = new long[EVENTS.length];
+    private long lastSummaryNanos = System.nanoTime();
+
+    public SecurityEventLogger(SecurityLoggingProperties properties) {
+        this.sampleBurst = properties.getSampleBurst();
+        this.sampleRate = properties.getSampleRate();
+        for (int i = 0; i < EVENTS.length; i++) {
+            counts[i] = new LongAdder();
+            logged[i] = new AtomicInteger();
+        }
+    }
+
+    // os contadores ja existentes sao exportados, sem custo extra no caminho da requisicao
+    // exports the existing counters, adding nothing to the request path
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Event event : EVENTS) {
+            FunctionCounter.builder("auth.security.events", counts[event.ordinal()], LongAdder::sum)
+                    .description("Expected security failures by category")
+                    .tag("event", event.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+    }
+
+    public void record(Event event) {
+        counts[event.ordinal()].increment();
+    }
+
+    public void record(Event event, String message, Object arg) {
+        record(event);
+        if (sample(event)) {
+            log.warn(message, arg);
+        }
+    }
+
+    public void record(Event event, String message, Object arg1, Object arg2) {
+        record(event);
+        if (sample(event)) {
+            log.warn(message, arg1, arg2);
+        }
+    }
+
+    public long count(Event event) {
+        return counts[event.ordinal()].sum();
+    }
+
+    private boolean sample(Event event) {
+        AtomicInteger window = logged[event.ordinal()];
+        // leitura antes do incremento: passado o burst nao ha escrita na linha de cache compartilhada
+        if (window.get() < sampleBurst && window.incrementAndGet() <= sampleBurst) {
+            return true;
+        }
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${security-logging.summary-interval:60s}")
+    public synchronized void logSummary() {
+        long now = System.nanoTime();
+        long seconds = Math.max(1, (now - lastSummaryNanos) / 1_000_000_000L);
+        lastSummaryNanos = now;
+
+        StringBuilder summary = null;
+        for (Event event : EVENTS) {
+            int i = event.ordinal();
+            long total = counts[i].sum();
+            long delta = total - lastReported[i];
+            lastReported[i] = total;
+            logged[i].set(0);
+            if (delta > 0) {
+                summary = summary == null ? new StringBuilder() : summary.append(", ");
+                summary.append(event.name()).append('=').append(delta);
+            }
+        }
+        long notLogged = suppressed.sumThenReset();
+
+        if (summary != null) {
+            log.info("Security events in the last {}s: {} ({} not logged individually)", seconds, summary, notLogged);
+        }
+    }
+}
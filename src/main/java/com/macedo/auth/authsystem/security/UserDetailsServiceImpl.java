@@ -1,14 +1,20 @@
 package com.macedo.auth.authsystem.security;
 
-import com.macedo.auth.authsystem.entity.User;
+import com.macedo.auth.authsystem.datasource.Workload;
+import com.macedo.auth.authsystem.datasource.WorkloadType;
+import com.macedo.auth.authsystem.monitoring.UserLookupEvent;
+import com.macedo.auth.authsystem.repository.UserCredentials;
 import com.macedo.auth.authsystem.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Workload(WorkloadType.AUTH)
 public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository users;
@@ -18,17 +24,22 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     }
 
     @Override
+    @Timed(value = "auth.user.lookup", description = "User lookup by email for authentication")
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        User u = users.findByEmail(email)
-                .orElseThrow(() -> new UsernameNotFoundException("User " + email + " not found"));
+        UserLookupEvent event = new UserLookupEvent();
+        event.begin();
+        Optional<UserCredentials> found = users.findCredentialsByEmail(email);
+        event.finish("token", found.isPresent());
+
+        UserCredentials u = found.orElseThrow(() -> new UsernameNotFoundException("User " + email + " not found"));
 
         return new org.springframework.security.core.userdetails.User(
-                u.getEmail(),
-                u.getPassword(),
-                u.isEnabled(),
-                true, true, true,
-                u.getRoles().stream()
-                        .map(r -> new SimpleGrantedAuthority(r.getName().name()))
+                u.email(),
+                u.password(),
+                u.enabled(),
+                true, true, !u.accountLocked(),
+                u.roles().stream()
+                        .map(r -> new SimpleGrantedAuthority(r.name()))
                         .collect(Collectors.toSet())
         );
     }
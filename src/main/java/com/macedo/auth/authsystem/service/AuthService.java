@@ -1,23 +1,33 @@
 package com.macedo.auth.authsystem.service;
 
+import com.macedo.auth.authsystem.audit.AuditEventType;
+import com.macedo.auth.authsystem.audit.AuditLog;
 import com.macedo.auth.authsystem.config.JwtProperties;
+import com.macedo.auth.authsystem.datasource.Workload;
+import com.macedo.auth.authsystem.datasource.WorkloadType;
 import com.macedo.auth.authsystem.dto.*;
 import com.macedo.auth.authsystem.entity.*;
 import com.macedo.auth.authsystem.exception.AccountLockedException;
 import com.macedo.auth.authsystem.exception.EmailAlreadyExistsException;
 import com.macedo.auth.authsystem.exception.InvalidCredentialsException;
+import com.macedo.auth.authsystem.monitoring.ServerTiming;
+import com.macedo.auth.authsystem.monitoring.UserLookupEvent;
 import com.macedo.auth.authsystem.repository.RoleRepository;
+import com.macedo.auth.authsystem.repository.UserCredentials;
 import com.macedo.auth.authsystem.repository.UserRepository;
 import com.macedo.auth.authsystem.security.JwtTokenProvider;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
 import java.util.Set;
 
 @Slf4j
 @Service
+@Workload(WorkloadType.AUTH)
 public class AuthService {
     private final UserRepository users;
     private final RoleRepository roles;
@@ -26,11 +36,15 @@ public class AuthService {
     private final JwtProperties props;
     private final RefreshTokenService refreshTokenService;
     private final LoginAttemptService loginAttemptService;
+    private final AuditLog auditLog;
+    private final LoginHistoryService loginHistory;
 
     public AuthService(UserRepository users, RoleRepository roles,
                        PasswordEncoder encoder, JwtTokenProvider jwt, JwtProperties props,
                        RefreshTokenService refreshTokenService,
-                       LoginAttemptService loginAttemptService) {
+                       LoginAttemptService loginAttemptService,
+                       AuditLog auditLog,
+                       LoginHistoryService loginHistory) {
         this.users = users;
         this.roles = roles;
         this.encoder = encoder;
@@ -38,49 +52,88 @@ public class AuthService {
         this.props = props;
         this.refreshTokenService = refreshTokenService;
         this.loginAttemptService = loginAttemptService;
+        this.auditLog = auditLog;
+        this.loginHistory = loginHistory;
     }
 
+    @Timed(value = "auth.service", extraTags = {"operation", "register"})
     @Transactional
     public void register(RegisterRequest req) {
+        long timing = ServerTiming.start();
         if (users.existsByEmail(req.getEmail())) {
             throw new EmailAlreadyExistsException("Email already in use");
         }
         Role roleUser = roles.findByName(RoleName.ROLE_USER)
                 .orElseGet(() -> roles.save(Role.builder().name(RoleName.ROLE_USER).build()));
+        ServerTiming.stop("db-read", timing);
+
+        timing = ServerTiming.start();
+        String passwordHash = encoder.encode(req.getPassword());
+        ServerTiming.stop("password-hash", timing);
 
         User u = User.builder()
                 .name(req.getName())
                 .email(req.getEmail())
-                .password(encoder.encode(req.getPassword()))
+                .password(passwordHash)
                 .roles(Set.of(roleUser))
                 .enabled(true)
                 .build();
 
+        timing = ServerTiming.start();
         users.save(u);
+        ServerTiming.stop("db-write", timing);
     }
 
-    @Transactional
+    // sem transacao propria: a busca de credenciais roda na transacao somente-leitura do repositorio e
+    // o refresh token na de RefreshTokenService, sem conexao presa durante o hash da senha
+    // no transaction of its own: the credential lookup runs in the repository's read-only transaction and
+    // the refresh token in RefreshTokenService's, so no connection is held while the password is hashed
+    @Timed(value = "auth.service", extraTags = {"operation", "login"})
     public AuthResponse login(LoginRequest req) {
         if (loginAttemptService.isLocked(req.getEmail())) {
             long remaining = loginAttemptService.getLockoutTimeRemaining(req.getEmail());
+            auditLog.record(AuditEventType.LOGIN_FAILURE, req.getEmail(), "account_locked");
             throw new AccountLockedException("Account is temporarily locked due to multiple failed login attempts", remaining);
         }
 
-        User u = users.findByEmail(req.getEmail())
-                .orElseThrow(() -> {
-                    loginAttemptService.loginFailed(req.getEmail());
-                    return new InvalidCredentialsException("Invalid credentials");
-                });
-
-        if (!encoder.matches(req.getPassword(), u.getPassword())) {
+        long timing = ServerTiming.start();
+        UserLookupEvent lookup = new UserLookupEvent();
+        lookup.begin();
+        Optional<UserCredentials> found = users.findCredentialsByEmail(req.getEmail());
+        lookup.finish("login", found.isPresent());
+        UserCredentials u = found.orElseThrow(() -> {
             loginAttemptService.loginFailed(req.getEmail());
+            auditLog.record(AuditEventType.LOGIN_FAILURE, req.getEmail(), "unknown_account");
+            return new InvalidCredentialsException("Invalid credentials");
+        });
+        ServerTiming.stop("user-lookup", timing);
+
+        timing = ServerTiming.start();
+        boolean matches = encoder.matches(req.getPassword(), u.password());
+        ServerTiming.stop("password-hash", timing);
+        if (!matches) {
+            loginAttemptService.loginFailed(req.getEmail());
+            auditLog.record(AuditEventType.LOGIN_FAILURE, req.getEmail(), "bad_password");
+            loginHistory.record(u.id(), false);
+            throw new InvalidCredentialsException("Invalid credentials");
+        }
+        // bloqueio persistido so depois da senha, com a resposta generica: nao revela que a conta existe
+        // persisted lock only after the password, with the generic response: does not reveal the account exists
+        if (u.accountLocked()) {
+            auditLog.record(AuditEventType.LOGIN_FAILURE, req.getEmail(), "account_locked");
             throw new InvalidCredentialsException("Invalid credentials");
         }
 
         loginAttemptService.loginSucceeded(req.getEmail());
+        loginHistory.record(u.id(), true);
 
-        String access = jwt.generateAccessToken(u.getEmail());
-        String refreshToken = refreshTokenService.issue(u);
+        timing = ServerTiming.start();
+        String access = jwt.generateAccessToken(u.email());
+        ServerTiming.stop("token-sign", timing);
+        // referencia sem SELECT: o refresh token so precisa da chave estrangeira
+        // reference without a SELECT: the refresh token only needs the foreign key
+        String refreshToken = refreshTokenService.issue(users.getReferenceById(u.id()));
+        auditLog.recordAfterCommit(AuditEventType.LOGIN_SUCCESS, req.getEmail(), null);
 
         AuthResponse resp = new AuthResponse();
         resp.setAccessToken(access);
@@ -89,11 +142,14 @@ public class AuthService {
         return resp;
     }
 
+    @Timed(value = "auth.service", extraTags = {"operation", "refresh"})
     @Transactional
     public RefreshResponse refresh(RefreshRequest req) {
         var rt = refreshTokenService.validateAndGetRefreshToken(req.getRefreshToken());
 
+        long timing = ServerTiming.start();
         String newAccessToken = jwt.generateAccessToken(rt.getUser().getEmail());
+        ServerTiming.stop("token-sign", timing);
         String newRefreshToken = refreshTokenService.refresh(req.getRefreshToken());
 
         return RefreshResponse.builder()
@@ -119,6 +175,7 @@ public class AuthService {
                 .orElseThrow(() -> new InvalidCredentialsException("User not found"));
         refreshTokenService.revokeAll(user);
         jwt.blacklistByUser(email);
+        auditLog.recordAfterCommit(AuditEventType.LOGOUT_ALL, email, null);
     }
 
     @Transactional
@@ -137,6 +194,7 @@ public class AuthService {
         user.setPassword(encoder.encode(req.getNewPassword()));
         users.save(user);
         refreshTokenService.revokeAll(user);
+        auditLog.recordAfterCommit(AuditEventType.PASSWORD_CHANGED, email, "sessions_revoked");
 
         log.info("Password changed successfully for user: {}. All sessions revoked.", email);
     }
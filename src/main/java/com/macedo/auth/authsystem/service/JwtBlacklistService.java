@@ -2,6 +2,9 @@ package com.macedo.auth.authsystem.service;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -10,15 +13,21 @@ import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
-public class JwtBlacklistService {
+public class JwtBlacklistService implements MeterBinder {
 
     private static final Duration BLACKLIST_DURATION = Duration.ofMinutes(15);
 
     private final Cache<String, String> blacklist = Caffeine.newBuilder()
             .expireAfterWrite(BLACKLIST_DURATION)
             .maximumSize(10_000)
+            .recordStats()
             .build();
 
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, blacklist, "jwt-blacklist");
+    }
+
     public void blacklist(String tokenId) {
         blacklist.put(tokenId, tokenId);
         log.info("JWT token blacklisted: {}", tokenId.substring(0, Math.min(10, tokenId.length())) + "...");
@@ -2,15 +2,20 @@ package com.macedo.auth.authsystem.service;
 
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import lombok.extern.slf4j.Slf4j;
+import com.macedo.auth.authsystem.audit.AuditEventType;
+import com.macedo.auth.authsystem.audit.AuditLog;
+import com.macedo.auth.authsystem.security.SecurityEventLogger;
+import com.macedo.auth.authsystem.security.SecurityEventLogger.Event;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
-@Slf4j
 @Service
-public class LoginAttemptService {
+public class LoginAttemptService implements MeterBinder {
 
     private static final int MAX_ATTEMPTS = 5;
     private static final Duration LOCKOUT_DURATION = Duration.ofMinutes(15);
@@ -18,22 +23,39 @@ public class LoginAttemptService {
     private final Cache<String, Integer> attemptsCache = Caffeine.newBuilder()
             .expireAfterWrite(LOCKOUT_DURATION)
             .maximumSize(10_000)
+            .recordStats()
             .build();
 
     private final Cache<String, Long> lockedAccountsCache = Caffeine.newBuilder()
             .expireAfterWrite(LOCKOUT_DURATION)
             .maximumSize(10_000)
+            .recordStats()
             .build();
 
+    private final SecurityEventLogger securityEvents;
+    private final AuditLog auditLog;
+
+    public LoginAttemptService(SecurityEventLogger securityEvents, AuditLog auditLog) {
+        this.securityEvents = securityEvents;
+        this.auditLog = auditLog;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, attemptsCache, "login-attempts");
+        CaffeineCacheMetrics.monitor(registry, lockedAccountsCache, "locked-accounts");
+    }
+
     public void loginFailed(String identifier) {
         int attempts = attemptsCache.get(identifier, k -> 0) + 1;
         attemptsCache.put(identifier, attempts);
 
         if (attempts >= MAX_ATTEMPTS) {
             lockAccount(identifier);
-            log.warn("Account locked after {} failed attempts: {}", attempts, identifier);
+            auditLog.record(AuditEventType.ACCOUNT_LOCKED, identifier, "failed_attempts=" + attempts);
+            securityEvents.record(Event.ACCOUNT_LOCKED, "Account locked after {} failed attempts: {}", attempts, identifier);
         } else {
-            log.warn("Login failed for {} (attempt {}/{})", identifier, attempts, MAX_ATTEMPTS);
+            securityEvents.record(Event.LOGIN_FAILED, "Login failed for {} (attempt {})", identifier, attempts);
         }
     }
 
@@ -47,7 +69,7 @@ public class LoginAttemptService {
         if (lockedUntil != null) {
             long remainingMinutes = (lockedUntil - System.currentTimeMillis()) / 60_000;
             if (remainingMinutes > 0) {
-                log.warn("Login attempt for locked account: {} ({} minutes remaining)", identifier, remainingMinutes);
+                securityEvents.record(Event.LOCKED_ACCOUNT_ATTEMPT, "Login attempt for locked account: {} ({} minutes remaining)", identifier, remainingMinutes);
                 return true;
             } else {
                 lockedAccountsCache.invalidate(identifier);
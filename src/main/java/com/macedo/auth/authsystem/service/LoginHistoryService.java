@@ -0,0 +1,216 @@
+package com.macedo.auth.authsystem.service;
+
+import com.macedo.auth.authsystem.config.LoginHistoryProperties;
+import com.macedo.auth.authsystem.datasource.Workload;
+import com.macedo.auth.authsystem.datasource.WorkloadType;
+import com.macedo.auth.authsystem.dto.LoginEventResponse;
+import com.macedo.auth.authsystem.dto.LoginHistoryResponse;
+import com.macedo.auth.authsystem.entity.LoginEvent;
+import com.macedo.auth.authsystem.exception.ResourceNotFoundException;
+import com.macedo.auth.authsystem.filter.ClientIpResolver;
+import com.macedo.auth.authsystem.repository.LoginEventRepository;
+import com.macedo.auth.authsystem.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user login history kept in the monthly partitions of {@code login_events}.
+ * <p>
+ * {@link #record} runs inside {@code AuthService.login} and only queues the event; a scheduled
+ * flush writes whatever accumulated with one multi-row {@code INSERT} per {@code batch-size} rows,
+ * so logins never wait on (or contend for) the history table. When the queue is full the event is
+ * dropped and counted ({@code auth.login_history.events{result=dropped}}).
+ */
+@Slf4j
+@Service
+public class LoginHistoryService implements MeterBinder {
+
+    private static final int MAX_USER_AGENT_LENGTH = 255;
+    private static final Duration DEFAULT_WINDOW = Duration.ofDays(30);
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 500;
+
+    private final LoginEventRepository loginEvents;
+    private final UserRepository users;
+    private final LoginHistoryProperties props;
+    private final BlockingQueue<LoginEvent> pending;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public LoginHistoryService(LoginEventRepository loginEvents, UserRepository users, LoginHistoryProperties props) {
+        this.loginEvents = loginEvents;
+        this.users = users;
+        this.props = props;
+        this.pending = new ArrayBlockingQueue<>(props.getBufferSize());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bindCounter(registry, "written", written);
+        bindCounter(registry, "dropped", dropped);
+        bindCounter(registry, "failed", failed);
+        Gauge.builder("auth.login_history.pending", pending, BlockingQueue::size)
+                .description("Login events waiting for the next batch insert")
+                .register(registry);
+    }
+
+    private static void bindCounter(MeterRegistry registry, String result, LongAdder counter) {
+        FunctionCounter.builder("auth.login_history.events", counter, LongAdder::sum)
+                .description("Login history events by write result")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    public void record(long userId, boolean success) {
+        if (!props.isEnabled()) {
+            return;
+        }
+        String ip = null;
+        String userAgent = null;
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes servletAttributes) {
+            HttpServletRequest request = servletAttributes.getRequest();
+            ip = ClientIpResolver.getClientIp(request);
+            userAgent = truncate(request.getHeader(HttpHeaders.USER_AGENT));
+        }
+        if (!pending.offer(new LoginEvent(userId, Instant.now(), success, ip, userAgent))) {
+            dropped.increment();
+        }
+    }
+
+    private static String truncate(String value) {
+        return value != null && value.length() > MAX_USER_AGENT_LENGTH ? value.substring(0, MAX_USER_AGENT_LENGTH) : value;
+    }
+
+    @Workload(WorkloadType.BACKGROUND)
+    @Scheduled(fixedDelayString = "${login-history.flush-interval:1s}")
+    public synchronized void flush() {
+        List<LoginEvent> batch = new ArrayList<>(props.getBatchSize());
+        while (pending.drainTo(batch, props.getBatchSize()) > 0) {
+            try {
+                loginEvents.insertAll(batch);
+                written.add(batch.size());
+            } catch (DataAccessException ex) {
+                // o lote e descartado: tentar de novo so acumularia atraso / the batch is discarded rather than retried
+                failed.add(batch.size());
+                log.warn("Failed to write {} login history events: {}", batch.size(), ex.getMessage());
+            }
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Creates the partitions for the current month and the next {@code premake-months}, and drops
+     * those that fell out of {@code retention-months}. Dropping a partition is a catalog operation,
+     * unlike a {@code DELETE} of the same rows that would leave dead tuples for vacuum.
+     */
+    @Workload(WorkloadType.BACKGROUND)
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${login-history.maintenance-cron:0 15 3 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        if (!props.isEnabled()) {
+            return;
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        try {
+            for (int i = 0; i <= props.getPremakeMonths(); i++) {
+                loginEvents.createPartition(current.plusMonths(i));
+            }
+            YearMonth oldestKept = current.minusMonths(props.getRetentionMonths() - 1L);
+            for (YearMonth month : loginEvents.findPartitions()) {
+                if (month.isBefore(oldestKept)) {
+                    loginEvents.dropPartition(month);
+                    log.info("Dropped login history partition for {}", month);
+                }
+            }
+        } catch (DataAccessException ex) {
+            log.error("Login history partition maintenance failed: {}", ex.getMessage());
+        }
+    }
+
+    @Workload(WorkloadType.ADMIN)
+    public LoginHistoryResponse getHistory(Long userId, Instant from, Instant to, Integer limit) {
+        if (!users.existsById(userId)) {
+            throw new ResourceNotFoundException("User not found with id: " + userId);
+        }
+        Instant now = Instant.now();
+        Instant end = to != null ? to : now;
+        Instant start = from != null ? from : end.minus(DEFAULT_WINDOW);
+        int rows = limit != null && limit > 0 ? Math.min(limit, MAX_LIMIT) : DEFAULT_LIMIT;
+
+        List<LoginEvent> events = loginEvents.findByUser(userId, start, end, rows);
+
+        // se o intervalo vai ate agora, o primeiro sucesso da pagina ja e o ultimo login
+        // when the window reaches "now", its newest success already is the last login
+        Optional<Instant> lastLogin = Optional.empty();
+        if (!end.isBefore(now)) {
+            lastLogin = events.stream().filter(LoginEvent::success).map(LoginEvent::occurredAt).findFirst();
+        }
+        if (lastLogin.isEmpty()) {
+            lastLogin = findLastLogin(userId);
+        }
+
+        return LoginHistoryResponse.builder()
+                .userId(userId)
+                .lastLoginAt(lastLogin.orElse(null))
+                .items(events.stream().map(LoginHistoryService::toResponse).toList())
+                .build();
+    }
+
+    /**
+     * Walks back one month at a time so each probe touches a single partition (through its
+     * {@code (user_id, occurred_at)} index) and stops at the first month with a successful login.
+     */
+    private Optional<Instant> findLastLogin(long userId) {
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i < props.getRetentionMonths(); i++, month = month.minusMonths(1)) {
+            Optional<Instant> found = loginEvents.findLastSuccess(userId,
+                    LoginEventRepository.start(month), LoginEventRepository.start(month.plusMonths(1)));
+            if (found.isPresent()) {
+                return found;
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static LoginEventResponse toResponse(LoginEvent event) {
+        return LoginEventResponse.builder()
+                .occurredAt(event.occurredAt())
+                .success(event.success())
+                .ip(event.ip())
+                .userAgent(event.userAgent())
+                .build();
+    }
+}
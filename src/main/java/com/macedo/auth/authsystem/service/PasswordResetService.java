@@ -1,5 +1,9 @@
 package com.macedo.auth.authsystem.service;
 
+import com.macedo.auth.authsystem.audit.AuditEventType;
+import com.macedo.auth.authsystem.audit.AuditLog;
+import com.macedo.auth.authsystem.datasource.Workload;
+import com.macedo.auth.authsystem.datasource.WorkloadType;
 import com.macedo.auth.authsystem.dto.ResetPasswordRequest;
 import com.macedo.auth.authsystem.entity.PasswordResetToken;
 import com.macedo.auth.authsystem.entity.User;
@@ -29,6 +33,7 @@ public class PasswordResetService {
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
     private final RefreshTokenService refreshTokenService;
+    private final AuditLog auditLog;
 
     @Value("${app.frontend.url:http://localhost:3000}")
     private String frontendUrl;
@@ -41,13 +46,15 @@ public class PasswordResetService {
             UserRepository userRepository,
             PasswordEncoder passwordEncoder,
             EmailService emailService,
-            RefreshTokenService refreshTokenService
+            RefreshTokenService refreshTokenService,
+            AuditLog auditLog
     ) {
         this.tokenRepository = tokenRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
         this.refreshTokenService = refreshTokenService;
+        this.auditLog = auditLog;
     }
 
     @Transactional
@@ -83,6 +90,7 @@ public class PasswordResetService {
         tokenRepository.save(resetToken);
 
         refreshTokenService.revokeAll(user);
+        auditLog.recordAfterCommit(AuditEventType.PASSWORD_RESET, user.getEmail(), "sessions_revoked");
 
         log.info("Password reset completed for user: {} from token issued at {}",
                 user.getEmail(), resetToken.getCreatedAt());
@@ -127,6 +135,7 @@ public class PasswordResetService {
         }
     }
 
+    @Workload(WorkloadType.BACKGROUND)
     @Transactional
     public void cleanupExpiredTokens() {
         tokenRepository.deleteByExpiryDateBefore(Instant.now());
@@ -1,10 +1,14 @@
 package com.macedo.auth.authsystem.service;
 
+import com.macedo.auth.authsystem.audit.AuditEventType;
+import com.macedo.auth.authsystem.audit.AuditLog;
 import com.macedo.auth.authsystem.config.JwtProperties;
 import com.macedo.auth.authsystem.dto.SessionResponse;
 import com.macedo.auth.authsystem.entity.RefreshToken;
 import com.macedo.auth.authsystem.entity.User;
 import com.macedo.auth.authsystem.exception.TokenRefreshException;
+import com.macedo.auth.authsystem.monitoring.RefreshRotationEvent;
+import com.macedo.auth.authsystem.monitoring.ServerTiming;
 import com.macedo.auth.authsystem.repository.RefreshTokenRepository;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
@@ -25,11 +29,14 @@ public class RefreshTokenService {
     private final RefreshTokenRepository repo;
     private final JwtProperties props;
     private final PasswordEncoder passwordEncoder;
+    private final AuditLog auditLog;
 
-    public RefreshTokenService(RefreshTokenRepository repo, JwtProperties props, PasswordEncoder passwordEncoder) {
+    public RefreshTokenService(RefreshTokenRepository repo, JwtProperties props, PasswordEncoder passwordEncoder,
+                               AuditLog auditLog) {
         this.repo = repo;
         this.props = props;
         this.passwordEncoder = passwordEncoder;
+        this.auditLog = auditLog;
     }
 
     private String hashToken(String token) {
@@ -56,6 +63,9 @@ public class RefreshTokenService {
 
     @Transactional
     public String issue(User user) {
+        long timing = ServerTiming.start();
+        // uma sessao por login: os tokens anteriores do usuario sao substituidos
+        // one session per login: the user's previous tokens are replaced
         repo.deleteByUser(user);
         var token = UUID.randomUUID().toString();
         var hashedToken = hashToken(token);
@@ -69,14 +79,17 @@ public class RefreshTokenService {
                 .lastUsedAt(now)
                 .build();
         repo.save(rt);
+        ServerTiming.stop("refresh-issue", timing);
         return token;
     }
 
     @Transactional
     public RefreshToken validateAndGetRefreshToken(String refreshToken) {
+        long timing = ServerTiming.start();
         var hashedToken = hashToken(refreshToken);
         var rt = repo.findByToken(hashedToken)
                 .orElseThrow(() -> new TokenRefreshException("Invalid refresh token"));
+        ServerTiming.stop("refresh-lookup", timing);
         if (rt.isRevoked()) {
             throw new TokenRefreshException("Refresh token revoked");
         }
@@ -88,8 +101,17 @@ public class RefreshTokenService {
 
     @Transactional
     public String refresh(String oldRefreshToken) {
-        var oldRt = validateAndGetRefreshToken(oldRefreshToken);
+        RefreshRotationEvent event = new RefreshRotationEvent();
+        event.begin();
+        RefreshToken oldRt;
+        try {
+            oldRt = validateAndGetRefreshToken(oldRefreshToken);
+        } catch (TokenRefreshException ex) {
+            event.finish("rejected");
+            throw ex;
+        }
 
+        long timing = ServerTiming.start();
         oldRt.setRevoked(true);
         repo.save(oldRt);
 
@@ -108,6 +130,8 @@ public class RefreshTokenService {
                 .lastUsedAt(now)
                 .build();
         repo.save(rt);
+        ServerTiming.stop("refresh-rotate", timing);
+        event.finish("rotated");
         return newToken;
     }
 
@@ -123,6 +147,8 @@ public class RefreshTokenService {
         repo.save(rt);
     }
 
+    // somente leitura: pode ser atendida por uma replica (replica-routing) / read-only: may be served by a replica
+    @org.springframework.transaction.annotation.Transactional(readOnly = true)
     public List<SessionResponse> getSessionsByUser(User user, String currentToken) {
         var tokens = repo.findByUserAndRevokedFalseOrderByCreatedAtDesc(user);
         String currentHashedToken = currentToken != null ? hashToken(currentToken) : null;
@@ -154,6 +180,7 @@ public class RefreshTokenService {
 
         rt.setRevoked(true);
         repo.save(rt);
+        auditLog.recordAfterCommit(AuditEventType.SESSION_REVOKED, user.getEmail(), "session=" + sessionId);
         log.info("Session {} revoked for user {} - Device: {}, IP: {}",
                 sessionId, user.getEmail(), rt.getDeviceName(), rt.getIp());
     }
@@ -0,0 +1,48 @@
+package com.macedo.auth.authsystem.service;
+
+import com.macedo.auth.authsystem.entity.User;
+import com.macedo.auth.authsystem.exception.InvalidRequestParameterException;
+import com.macedo.auth.authsystem.repository.UserSortField;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.util.Base64;
+
+/**
+ * Position after the last row of a keyset page: the sort it was produced with, the row's id and its
+ * sort key. Encoded as URL-safe Base64 of {@code property|asc|desc|id|value} so clients treat it as
+ * opaque; the value goes last because names may contain the separator.
+ */
+record UserCursor(UserSortField field, boolean descending, long id, String value) {
+
+    private static final String INVALID = "Invalid cursor";
+
+    static UserCursor after(User user, UserSortField field, boolean descending) {
+        return new UserCursor(field, descending, user.getId(), field.format(user));
+    }
+
+    Comparable<?> key() {
+        return field.parse(value);
+    }
+
+    String encode() {
+        String raw = field.property() + '|' + (descending ? "desc" : "asc") + '|' + id + '|' + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static UserCursor decode(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 4);
+            if (parts.length != 4 || !(parts[1].equals("asc") || parts[1].equals("desc"))) {
+                throw new InvalidRequestParameterException(INVALID);
+            }
+            UserSortField field = UserSortField.fromProperty(parts[0])
+                    .orElseThrow(() -> new InvalidRequestParameterException(INVALID));
+            UserCursor decoded = new UserCursor(field, parts[1].equals("desc"), Long.parseLong(parts[2]), parts[3]);
+            decoded.key();
+            return decoded;
+        } catch (IllegalArgumentException | DateTimeException ex) {
+            throw new InvalidRequestParameterException(INVALID);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.macedo.auth.authsystem.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.macedo.auth.authsystem.datasource.Workload;
+import com.macedo.auth.authsystem.datasource.WorkloadType;
+import com.macedo.auth.authsystem.exception.InvalidRequestParameterException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Locale;
+
+/**
+ * Compliance export of every user as NDJSON or CSV.
+ * <p>
+ * Rows are read over plain JDBC with a fetch size inside a read-only transaction, which makes the
+ * PostgreSQL driver use a server-side cursor instead of materializing the whole result, and each
+ * row is written to the response as soon as it is read. Nothing is attached to a persistence
+ * context, so memory stays flat however many users there are.
+ */
+@Slf4j
+@Service
+@Workload(WorkloadType.ADMIN)
+public class UserExportService {
+
+    private static final int FETCH_SIZE = 1_000;
+
+    // papeis agregados no proprio SELECT: uma linha por usuario, sem consulta extra
+    // roles aggregated in the same SELECT: one row per user, no extra query
+    private static final String EXPORT_SQL = """
+            SELECT u.id, u.name, u.email, u.enabled, u.created_at,
+                   (SELECT string_agg(r.name, ',' ORDER BY r.name)
+                    FROM user_roles ur JOIN roles r ON r.id = ur.role_id
+                    WHERE ur.user_id = u.id) AS roles
+            FROM users u
+            ORDER BY u.id""";
+
+    public enum Format {
+        NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+        CSV(new MediaType("text", "csv", StandardCharsets.UTF_8), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            if (value == null || value.isBlank()) {
+                return NDJSON;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidRequestParameterException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public UserExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper) {
+        this.jdbc = new JdbcTemplate(dataSource);
+        this.jdbc.setFetchSize(FETCH_SIZE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes all users to {@code out} in id order.
+     *
+     * @return number of users written
+     */
+    public long export(Format format, OutputStream out) throws IOException {
+        RowWriter writer = format == Format.CSV ? new CsvWriter(out) : new NdjsonWriter(out);
+        long[] count = new long[1];
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbc.query(EXPORT_SQL, rs -> {
+                try {
+                    writer.write(rs);
+                    count[0]++;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }));
+        } catch (UncheckedIOException ex) {
+            // cliente desconectou no meio da exportacao / client went away mid-export
+            throw ex.getCause();
+        }
+        writer.finish();
+        log.info("Exported {} users as {}", count[0], format);
+        return count[0];
+    }
+
+    private interface RowWriter {
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private final class NdjsonWriter implements RowWriter {
+
+        private final JsonGenerator json;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.json = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // cada linha termina com '\n' explicitamente; sem o separador padrao (espaco) entre objetos
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            json.writeStartObject();
+            json.writeNumberField("id", rs.getLong("id"));
+            json.writeStringField("name", rs.getString("name"));
+            json.writeStringField("email", rs.getString("email"));
+            json.writeArrayFieldStart("roles");
+            String roles = rs.getString("roles");
+            if (roles != null) {
+                for (String role : roles.split(",")) {
+                    json.writeString(role);
+                }
+            }
+            json.writeEndArray();
+            json.writeBooleanField("enabled", rs.getBoolean("enabled"));
+            json.writeStringField("createdAt", instant(rs));
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.close();
+        }
+    }
+
+    private static final class CsvWriter implements RowWriter {
+
+        private final Writer csv;
+
+        CsvWriter(OutputStream out) throws IOException {
+            this.csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+            this.csv.write("id,name,email,roles,enabled,createdAt\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            csv.write(Long.toString(rs.getLong("id")));
+            csv.write(',');
+            writeField(rs.getString("name"));
+            csv.write(',');
+            writeField(rs.getString("email"));
+            csv.write(',');
+            writeField(rs.getString("roles"));
+            csv.write(',');
+            csv.write(Boolean.toString(rs.getBoolean("enabled")));
+            csv.write(',');
+            writeField(instant(rs));
+            csv.write("\r\n");
+        }
+
+        // RFC 4180: aspas quando ha virgula, aspas ou quebra de linha; aspas internas duplicadas
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (isFormulaLike(value)) {
+                value = "'" + value;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                csv.write(value);
+                return;
+            }
+            csv.write('"');
+            csv.write(value.replace("\"", "\"\""));
+            csv.write('"');
+        }
+
+        // planilhas executam celulas que comecam assim como formulas (CSV injection); o apostrofo as torna texto
+        // spreadsheets evaluate cells starting like this as formulas (CSV injection); the apostrophe keeps them text
+        static boolean isFormulaLike(String value) {
+            if (value.isEmpty()) {
+                return false;
+            }
+            char first = value.charAt(0);
+            return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+        }
+
+        @Override
+        public void finish() throws IOException {
+            csv.flush();
+        }
+    }
+
+    private static String instant(ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return createdAt != null ? createdAt.toInstant().toString() : null;
+    }
+}
@@ -1,21 +1,31 @@
 package com.macedo.auth.authsystem.service;
 
+import com.macedo.auth.authsystem.datasource.Workload;
+import com.macedo.auth.authsystem.datasource.WorkloadType;
 import com.macedo.auth.authsystem.dto.PagedResponse;
 import com.macedo.auth.authsystem.dto.UpdateUserRequest;
 import com.macedo.auth.authsystem.dto.UserProfileResponse;
 import com.macedo.auth.authsystem.dto.UserResponse;
 import com.macedo.auth.authsystem.entity.Role;
 import com.macedo.auth.authsystem.entity.User;
+import com.macedo.auth.authsystem.exception.InvalidRequestParameterException;
 import com.macedo.auth.authsystem.repository.UserRepository;
+import com.macedo.auth.authsystem.repository.UserSortField;
+import com.macedo.auth.authsystem.repository.UserSpecifications;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -30,14 +40,10 @@ public class UserService {
                 .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("User not found: " + email));
     }
 
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(this::toResponse)
-                .collect(Collectors.toList());
-    }
-
+    @Workload(WorkloadType.ADMIN)
+    @Transactional(readOnly = true)
     public UserResponse getUserById(Long id) {
-        User user = userRepository.findById(id)
+        User user = userRepository.findWithRolesById(id)
                 .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("User not found with id: " + id));
         return toResponse(user);
     }
@@ -57,7 +63,8 @@ public class UserService {
     }
 
     public UserProfileResponse updateProfile(String email, UpdateUserRequest request) {
-        User user = findByEmail(email);
+        User user = userRepository.findWithRolesByEmail(email)
+                .orElseThrow(() -> new jakarta.persistence.EntityNotFoundException("User not found: " + email));
 
         if (request.getName() != null) {
             user.setName(request.getName());
@@ -92,9 +99,16 @@ public class UserService {
 
     private static final int MAX_PAGE_SIZE = 100;
     private static final int DEFAULT_PAGE_SIZE = 20;
+    // pg_trgm so indexa buscas por substring com 3+ caracteres / pg_trgm only serves substring searches of 3+ chars
+    private static final int MIN_SUBSTRING_QUERY_LENGTH = 3;
+    private static final String SORTABLE_FIELDS = Arrays.stream(UserSortField.values())
+            .map(UserSortField::property)
+            .collect(Collectors.joining(", "));
 
+    @Workload(WorkloadType.ADMIN)
+    @Transactional(readOnly = true)
     public PagedResponse<UserResponse> searchUsers(String query, Integer page, Integer size, String[] sort) {
-        int pageSize = size != null && size > 0 ? Math.min(size, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+        int pageSize = pageSize(size);
         int pageNumber = page != null && page >= 0 ? page : 0;
 
         Sort sortConfig = buildSort(sort);
@@ -102,7 +116,10 @@ public class UserService {
 
         Page<User> userPage;
         if (query != null && !query.isBlank()) {
-            userPage = userRepository.searchByNameOrEmail(query, pageable);
+            SearchPattern search = SearchPattern.of(query);
+            userPage = search.emailOnly()
+                    ? userRepository.searchByEmail(search.pattern(), pageable)
+                    : userRepository.searchByNameOrEmail(search.pattern(), pageable);
             log.info("Admin search: query='{}', page={}, size={}, results={}", query, pageNumber, pageSize, userPage.getTotalElements());
         } else {
             userPage = userRepository.findAll(pageable);
@@ -116,24 +133,184 @@ public class UserService {
         return PagedResponse.of(items, userPage.getNumber(), userPage.getSize(), userPage.getTotalElements());
     }
 
-    private Sort buildSort(String[] sort) {
-        if (sort == null || sort.length == 0) {
-            return Sort.by(Sort.Direction.DESC, "createdAt");
+    /**
+     * Keyset variant of {@link #searchUsers}: instead of an OFFSET the page starts right after the
+     * row encoded in {@code cursor}, so every page is an index seek plus {@code size} rows no
+     * matter how deep it is. The total is only computed on request ({@code total=exact}), or
+     * estimated from the table statistics ({@code total=estimate}, the default, unfiltered lists).
+     */
+    @Workload(WorkloadType.ADMIN)
+    @Transactional(readOnly = true)
+    public PagedResponse<UserResponse> searchUsersByCursor(String query, String cursor, Integer size,
+                                                           String[] sort, String total) {
+        int pageSize = pageSize(size);
+        TotalCount totalCount = TotalCount.parse(total);
+        UserCursor after = cursor == null || cursor.isBlank() ? null : UserCursor.decode(cursor);
+
+        UserSortField field = UserSortField.CREATED_AT;
+        boolean descending = true;
+        if (sort != null && sort.length > 0) {
+            List<SortKey> keys = parseSort(sort);
+            if (keys.size() > 1) {
+                throw new InvalidRequestParameterException("Cursor pagination supports a single sort field");
+            }
+            field = keys.get(0).field();
+            descending = keys.get(0).descending();
+            if (after != null && (after.field() != field || after.descending() != descending)) {
+                throw new InvalidRequestParameterException("Cursor was issued for a different sort");
+            }
+        } else if (after != null) {
+            field = after.field();
+            descending = after.descending();
+        }
+
+        Specification<User> filter = Specification.allOf();
+        SearchPattern search = query != null && !query.isBlank() ? SearchPattern.of(query) : null;
+        if (search != null) {
+            filter = search.emailOnly()
+                    ? UserSpecifications.emailLike(search.pattern())
+                    : UserSpecifications.nameOrEmailLike(search.pattern());
+        }
+        Specification<User> page = after == null
+                ? filter
+                : filter.and(UserSpecifications.after(field, descending, after.key(), after.id()));
+
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort order = field.unique()
+                ? Sort.by(direction, field.property())
+                : Sort.by(direction, field.property(), "id");
+        // uma linha a mais indica se ha proxima pagina / one extra row tells whether there is a next page
+        List<User> rows = userRepository.findBy(page, q -> q.sortBy(order).limit(pageSize + 1).all());
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = UserCursor.after(rows.get(pageSize - 1), field, descending).encode();
+        }
+
+        Long totalItems = switch (totalCount) {
+            case EXACT -> userRepository.count(filter);
+            case ESTIMATE -> search == null ? estimateUserCount() : null;
+            case NONE -> null;
+        };
+        // busca filtrada ou tabela nunca analisada: sem estimativa / filtered search or never-analyzed table: no estimate
+        boolean estimated = totalCount == TotalCount.ESTIMATE && totalItems != null;
+        log.info("Admin list users (cursor): query='{}', sort={},{}, size={}, returned={}",
+                query, field.property(), direction, pageSize, rows.size());
+
+        List<UserResponse> items = rows.stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+
+        return PagedResponse.ofCursor(items, pageSize, nextCursor, totalItems, estimated);
+    }
+
+    private Long estimateUserCount() {
+        long estimate = userRepository.estimateCount();
+        // -1: tabela nunca analisada (ANALYZE/autovacuum) / table never analyzed
+        return estimate >= 0 ? estimate : null;
+    }
+
+    private static int pageSize(Integer size) {
+        return size != null && size > 0 ? Math.min(size, MAX_PAGE_SIZE) : DEFAULT_PAGE_SIZE;
+    }
+
+    private enum TotalCount {
+        EXACT, ESTIMATE, NONE;
+
+        static TotalCount parse(String value) {
+            if (value == null || value.isBlank()) {
+                return ESTIMATE;
+            }
+            for (TotalCount option : values()) {
+                if (option.name().equalsIgnoreCase(value)) {
+                    return option;
+                }
+            }
+            throw new InvalidRequestParameterException("Unsupported total mode: " + value);
+        }
+    }
+
+    /**
+     * Cheapest pattern for a search term: an email-looking term ({@code joao@...}) only needs an
+     * email prefix match (B-tree range scan); terms shorter than a trigram fall back to a prefix
+     * match on name or email; anything else is a substring match served by the trigram indexes.
+     * The pattern is lower-cased with LIKE wildcards escaped.
+     */
+    private record SearchPattern(String pattern, boolean emailOnly) {
+
+        static SearchPattern of(String query) {
+            String term = query.trim().toLowerCase(Locale.ROOT);
+            String escaped = term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            if (term.indexOf('@') > 0) {
+                return new SearchPattern(escaped + "%", true);
+            }
+            if (term.length() < MIN_SUBSTRING_QUERY_LENGTH) {
+                return new SearchPattern(escaped + "%", false);
+            }
+            return new SearchPattern("%" + escaped + "%", false);
         }
+    }
 
-        Sort.Direction direction = Sort.Direction.ASC;
-        String property = "createdAt";
+    /**
+     * Orders for the offset listing. Each field is backed by an index ({@link UserSortField}), so the
+     * leading field is read in index order and later fields only sort rows tied on it (incremental
+     * sort); {@code id} is appended as the final tiebreaker so OFFSET pages are stable.
+     */
+    private Sort buildSort(String[] sort) {
+        List<SortKey> keys = parseSort(sort);
+        List<Sort.Order> orders = new ArrayList<>(keys.size() + 1);
+        for (SortKey key : keys) {
+            orders.add(key.toOrder());
+        }
+        if (keys.stream().noneMatch(key -> key.field().unique())) {
+            orders.add(new SortKey(UserSortField.ID, keys.get(keys.size() - 1).descending()).toOrder());
+        }
+        return Sort.by(orders);
+    }
 
-        for (String sortParam : sort) {
-            String[] parts = sortParam.split(",");
-            property = parts[0];
-            if (parts.length > 1 && "desc".equalsIgnoreCase(parts[1])) {
-                direction = Sort.Direction.DESC;
-            } else {
-                direction = Sort.Direction.ASC;
+    /**
+     * Accepts {@code sort=name,asc&sort=createdAt,desc} as well as the flattened
+     * {@code ["name", "asc"]} Spring binds from a single comma-separated parameter. Unknown fields,
+     * repeated fields and dangling directions are rejected; no sort means {@code createdAt,desc}.
+     */
+    private static List<SortKey> parseSort(String[] sort) {
+        List<SortKey> keys = new ArrayList<>();
+        if (sort != null) {
+            for (String param : sort) {
+                for (String part : param.split(",")) {
+                    String token = part.trim();
+                    if (token.isEmpty()) {
+                        continue;
+                    }
+                    if (token.equalsIgnoreCase("asc") || token.equalsIgnoreCase("desc")) {
+                        if (keys.isEmpty()) {
+                            throw new InvalidRequestParameterException("Sort direction without a field: " + token);
+                        }
+                        SortKey last = keys.remove(keys.size() - 1);
+                        keys.add(new SortKey(last.field(), token.equalsIgnoreCase("desc")));
+                        continue;
+                    }
+                    UserSortField field = UserSortField.fromProperty(token)
+                            .orElseThrow(() -> new InvalidRequestParameterException(
+                                    "Unsupported sort field: " + token + " (allowed: " + SORTABLE_FIELDS + ")"));
+                    if (keys.stream().anyMatch(key -> key.field() == field)) {
+                        throw new InvalidRequestParameterException("Duplicate sort field: " + token);
+                    }
+                    keys.add(new SortKey(field, false));
+                }
             }
         }
+        if (keys.isEmpty()) {
+            keys.add(new SortKey(UserSortField.CREATED_AT, true));
+        }
+        return keys;
+    }
 
-        return Sort.by(direction, property);
+    private record SortKey(UserSortField field, boolean descending) {
+
+        Sort.Order toOrder() {
+            return descending ? Sort.Order.desc(field.property()) : Sort.Order.asc(field.property());
+        }
     }
 }
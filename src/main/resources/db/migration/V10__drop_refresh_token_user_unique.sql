@@ -0,0 +1,19 @@
+-- RefreshToken.user era @OneToOne, e o ddl-auto=update criava UNIQUE (user_id) com nome gerado: a rotacao falhava,
+-- pois o token revogado e o novo coexistem para o mesmo usuario. O mapeamento agora e @ManyToOne; aqui a constraint
+-- e removida onde existir. O login continua substituindo os tokens anteriores (RefreshTokenService.issue).
+DO $$
+DECLARE
+    constraint_name TEXT;
+BEGIN
+    FOR constraint_name IN
+        SELECT c.conname
+        FROM pg_constraint c
+        JOIN pg_attribute a ON a.attrelid = c.conrelid AND a.attnum = c.conkey[1]
+        WHERE c.conrelid = 'refresh_tokens'::regclass
+          AND c.contype = 'u'
+          AND array_length(c.conkey, 1) = 1
+          AND a.attname = 'user_id'
+    LOOP
+        EXECUTE format('ALTER TABLE refresh_tokens DROP CONSTRAINT %I', constraint_name);
+    END LOOP;
+END $$;
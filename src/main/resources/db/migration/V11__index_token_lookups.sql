@@ -0,0 +1,21 @@
+-- Indices das consultas de RefreshTokenRepository, PasswordResetTokenRepository e dos papeis.
+-- CONCURRENTLY: sem bloquear escritas em bancos em producao (migration sem transacao, so com estes comandos).
+-- lower(users.email) ja e atendido por idx_users_email_prefix (V6): text_pattern_ops serve igualdade e prefixo.
+
+-- Sessoes ativas de um usuario (findByUserAndRevokedFalseOrderByCreatedAtDesc): parcial, so tokens nao revogados,
+-- ja na ordem da listagem
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_user_active
+    ON refresh_tokens (user_id, created_at DESC) WHERE revoked = false;
+
+-- deleteByUser (logout-all, troca de senha, novo login) e a FK ao remover usuarios
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_refresh_tokens_user ON refresh_tokens (user_id);
+
+-- Tokens de reset ativos de um email (findByEmailAndUsedFalseAndExpiryDateAfter): parcial, so os nao usados
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_password_reset_email_active
+    ON password_reset_tokens (email, expiry_date) WHERE used = false;
+
+-- Purga de tokens expirados (deleteByExpiryDateBefore)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_password_reset_expiry ON password_reset_tokens (expiry_date);
+
+-- FK user_roles.role_id; a PK (user_id, role_id) cobre o outro sentido
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_roles_role ON user_roles (role_id);
@@ -0,0 +1,3 @@
+-- Recebe os logins de meses sem particao (ex.: a manutencao nao rodou a tempo) em vez de o INSERT do lote falhar
+-- Ao criar a particao do mes, LoginEventRepository.createPartition move essas linhas para ela
+CREATE TABLE IF NOT EXISTS login_events_default PARTITION OF login_events DEFAULT;
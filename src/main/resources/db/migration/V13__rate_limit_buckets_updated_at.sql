@@ -0,0 +1,17 @@
+-- Ultimo uso de cada bucket distribuido: PostgresBucketProvider apaga os ociosos por mais que o maior periodo
+-- das politicas (ja estariam cheios de novo). O bucket4j so grava id e state, entao um trigger atualiza a coluna a cada
+-- novo state.
+-- Sem indice em updated_at: ele impediria updates HOT a cada requisicao; a limpeza periodica faz um seq scan.
+ALTER TABLE rate_limit_buckets ADD COLUMN IF NOT EXISTS updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+CREATE OR REPLACE FUNCTION rate_limit_buckets_touch() RETURNS trigger AS $$
+BEGIN
+    NEW.updated_at := now();
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS rate_limit_buckets_touch ON rate_limit_buckets;
+CREATE TRIGGER rate_limit_buckets_touch
+    BEFORE UPDATE OF state ON rate_limit_buckets
+    FOR EACH ROW EXECUTE FUNCTION rate_limit_buckets_touch();
@@ -0,0 +1,5 @@
+-- Buckets do rate limiting distribuido (bucket4j-postgresql), usados com rate-limit.store=postgres
+CREATE TABLE IF NOT EXISTS rate_limit_buckets (
+    id BIGINT PRIMARY KEY,
+    state BYTEA
+);
@@ -0,0 +1,12 @@
+-- Historico de logins particionado por mes (login_events_pYYYYMM), preenchido em lote pelo LoginHistoryService
+-- As particoes sao criadas antecipadamente e removidas (DROP) ao sair da retencao pela propria aplicacao
+CREATE TABLE IF NOT EXISTS login_events (
+    user_id BIGINT NOT NULL,
+    occurred_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    success BOOLEAN NOT NULL,
+    ip VARCHAR(45),
+    user_agent VARCHAR(255)
+) PARTITION BY RANGE (occurred_at);
+
+-- Criado em cada particao; atende "ultimo login" e o historico de um usuario num intervalo
+CREATE INDEX IF NOT EXISTS idx_login_events_user_time ON login_events (user_id, occurred_at DESC);
@@ -0,0 +1,3 @@
+-- Indices de trigramas para a busca de usuarios (LIKE '%q%') do painel administrativo
+-- Requer permissao para CREATE EXTENSION (ou a extensao ja instalada pelo DBA)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
@@ -0,0 +1,8 @@
+-- CONCURRENTLY nao bloqueia escritas em users durante a criacao; por isso fica fora de transacao (migration separada)
+-- Trigramas: LOWER(name|email) LIKE '%q%' (q com 3+ caracteres) usa bitmap scan em vez de seq scan
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_trgm ON users USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_trgm ON users USING gin (lower(email) gin_trgm_ops);
+
+-- Prefixo: LOWER(name|email) LIKE 'q%' (buscas por email e termos curtos) usa range scan em B-tree
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_prefix ON users (lower(name) text_pattern_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_email_prefix ON users (lower(email) text_pattern_ops);
@@ -0,0 +1,4 @@
+-- Paginacao por cursor em /api/admin/users: (coluna, id) permite o seek "depois de (valor, id)" por range scan
+-- email e id ja sao unicos (uk_users_email, PK) e nao precisam de desempate
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_created_at_id ON users (created_at, id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_users_name_id ON users (name, id);
@@ -0,0 +1,4 @@
+-- Cada campo ordenavel de /api/admin/users (UserSortField) tem um indice criado por migration:
+-- created_at e name em V7 (coluna, id), id pela PK e email abaixo. Em bancos criados pelo Hibernate a
+-- constraint uk_users_email ja existe com este mesmo nome e o comando nao faz nada.
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uk_users_email ON users (email);
@@ -0,0 +1,35 @@
+-- IDs gerados por sequencias com INCREMENT BY 50 (allocationSize das entidades, otimizador pooled do Hibernate)
+-- em vez de IDENTITY: o id e conhecido antes do INSERT, o que permite hibernate.jdbc.batch_size.
+-- Cada sequencia comeca acima do maior id existente; o DEFAULT da coluna passa a usar a mesma sequencia,
+-- entao INSERTs feitos fora do Hibernate continuam funcionando sem colidir com os blocos reservados.
+
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS roles_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS refresh_tokens_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS password_reset_tokens_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1);
+SELECT setval('roles_seq', COALESCE((SELECT MAX(id) FROM roles), 0) + 1);
+SELECT setval('refresh_tokens_seq', COALESCE((SELECT MAX(id) FROM refresh_tokens), 0) + 1);
+SELECT setval('password_reset_tokens_seq', COALESCE((SELECT MAX(id) FROM password_reset_tokens), 0) + 1);
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE roles ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE refresh_tokens ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE password_reset_tokens ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+ALTER TABLE roles ALTER COLUMN id SET DEFAULT nextval('roles_seq');
+ALTER TABLE refresh_tokens ALTER COLUMN id SET DEFAULT nextval('refresh_tokens_seq');
+ALTER TABLE password_reset_tokens ALTER COLUMN id SET DEFAULT nextval('password_reset_tokens_seq');
+
+ALTER SEQUENCE users_seq OWNED BY users.id;
+ALTER SEQUENCE roles_seq OWNED BY roles.id;
+ALTER SEQUENCE refresh_tokens_seq OWNED BY refresh_tokens.id;
+ALTER SEQUENCE password_reset_tokens_seq OWNED BY password_reset_tokens.id;
+
+-- bancos antigos com colunas BIGSERIAL / older databases with BIGSERIAL columns
+DROP SEQUENCE IF EXISTS users_id_seq;
+DROP SEQUENCE IF EXISTS roles_id_seq;
+DROP SEQUENCE IF EXISTS refresh_tokens_id_seq;
+DROP SEQUENCE IF EXISTS password_reset_tokens_id_seq;
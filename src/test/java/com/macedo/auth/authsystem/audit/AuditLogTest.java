@@ -0,0 +1,176 @@
+package com.macedo.auth.authsystem.audit;
+
+import com.macedo.auth.authsystem.config.AuditProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void whenEventsRecorded_thenStreamedBackAsNdjson() throws Exception {
+        AuditLog auditLog = new AuditLog(properties(DataSize.ofMegabytes(1), 1024));
+        long before = System.currentTimeMillis();
+
+        auditLog.start();
+        auditLog.record(AuditEventType.LOGIN_SUCCESS, "user@example.com", null);
+        auditLog.record(AuditEventType.LOGIN_FAILURE, "user@example.com", "bad_password");
+        auditLog.stop();
+
+        String[] lines = read(auditLog, before, System.currentTimeMillis() + 1);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"type\":\"LOGIN_SUCCESS\",\"subject\":\"user@example.com\""));
+        assertTrue(lines[1].endsWith(",\"detail\":\"bad_password\"}"));
+        assertEquals(0, read(auditLog, 0, before).length);
+    }
+
+    @Test
+    void whenSegmentFull_thenRotatesAndReadsAcrossSegments() throws Exception {
+        AuditLog auditLog = new AuditLog(properties(DataSize.ofBytes(512), 1024));
+
+        auditLog.start();
+        for (int i = 0; i < 40; i++) {
+            auditLog.record(AuditEventType.SESSION_REVOKED, "user" + i + "@example.com", "session=" + i);
+        }
+        auditLog.stop();
+
+        try (Stream<Path> segments = Files.list(directory)) {
+            assertTrue(segments.count() > 1);
+        }
+        assertEquals(40, read(auditLog, 0, Long.MAX_VALUE).length);
+    }
+
+    @Test
+    void whenSegmentHasNulPaddingOrPartialLine_thenOnlyCompleteRecordsAreRead() throws Exception {
+        byte[] complete = new AuditEvent(1_000, AuditEventType.LOGOUT_ALL, "a@example.com", null, null).toNdjson();
+        byte[] content = new byte[complete.length + 64];
+        System.arraycopy(complete, 0, content, 0, complete.length);
+        byte[] partial = "{\"ts\":2000,\"type\":\"LOGO".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(partial, 0, content, complete.length, partial.length);
+        Files.write(AuditSegmentReader.segmentPath(directory, 1_000), content);
+
+        AuditLog auditLog = new AuditLog(properties(DataSize.ofMegabytes(1), 1024));
+
+        String[] lines = read(auditLog, 0, Long.MAX_VALUE);
+        assertEquals(1, lines.length);
+        assertTrue(lines[0].contains("LOGOUT_ALL"));
+    }
+
+    @Test
+    void whenBufferFull_thenDropsInsteadOfBlocking() {
+        AuditLog auditLog = new AuditLog(properties(DataSize.ofMegabytes(1), 4));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        auditLog.bindTo(registry);
+
+        // sem start(): nada consome o buffer / no start(): nothing drains the buffer
+        for (int i = 0; i < 10; i++) {
+            auditLog.record(AuditEventType.LOGIN_FAILURE, "user@example.com", null);
+        }
+
+        assertEquals(6, registry.get("auth.audit.events").tag("result", "dropped").functionCounter().count());
+    }
+
+    @Test
+    void whenRecordedAfterCommit_thenQueuedOnlyOnCommit() {
+        AuditLog auditLog = new AuditLog(properties(DataSize.ofMegabytes(1), 4));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        auditLog.bindTo(registry);
+
+        // buffer de 4 sem escritor: cada evento enfileirado alem disso conta como descartado
+        // 4-slot buffer and no writer: every event queued beyond that counts as dropped
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            for (int i = 0; i < 10; i++) {
+                auditLog.recordAfterCommit(AuditEventType.SESSION_REVOKED, "user@example.com", "session=" + i);
+            }
+            assertEquals(0, registry.get("auth.audit.events").tag("result", "dropped").functionCounter().count());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(6, registry.get("auth.audit.events").tag("result", "dropped").functionCounter().count());
+    }
+
+    @Test
+    void whenRecordedAfterCommitOutsideATransaction_thenQueuedImmediately() {
+        // menor buffer aceito e sem escritor: o terceiro evento ja e descartado / smallest buffer, no writer: the third is dropped
+        AuditLog auditLog = new AuditLog(properties(DataSize.ofMegabytes(1), 2));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        auditLog.bindTo(registry);
+
+        for (int i = 0; i < 3; i++) {
+            auditLog.recordAfterCommit(AuditEventType.LOGOUT_ALL, "user@example.com", null);
+        }
+
+        assertEquals(1, registry.get("auth.audit.events").tag("result", "dropped").functionCounter().count());
+    }
+
+    @Test
+    void whenSegmentsOutliveRetention_thenDeletedButNewestKept() throws Exception {
+        long now = System.currentTimeMillis();
+        long old = now - Duration.ofDays(30).toMillis();
+        for (long start : new long[] {old, old + 1_000, now}) {
+            Files.write(AuditSegmentReader.segmentPath(directory, start), new byte[0]);
+        }
+        AuditProperties properties = properties(DataSize.ofMegabytes(1), 1024);
+        properties.setRetention(Duration.ofDays(7));
+        AuditLog auditLog = new AuditLog(properties);
+
+        // a primeira limpeza roda quando o escritor inicia / the first prune runs when the writer thread starts
+        auditLog.start();
+        auditLog.stop();
+
+        assertFalse(Files.exists(AuditSegmentReader.segmentPath(directory, old)));
+        // o seguinte comeca agora: pode conter eventos recentes / its successor starts now, so it may hold recent events
+        assertTrue(Files.exists(AuditSegmentReader.segmentPath(directory, old + 1_000)));
+        assertTrue(Files.exists(AuditSegmentReader.segmentPath(directory, now)));
+    }
+
+    @Test
+    void whenRingBufferUsed_thenFifoAndBounded() {
+        AuditRingBuffer buffer = new AuditRingBuffer(2);
+        AuditEvent first = new AuditEvent(1, AuditEventType.LOGIN_SUCCESS, "a", null, null);
+        AuditEvent second = new AuditEvent(2, AuditEventType.LOGIN_SUCCESS, "b", null, null);
+
+        assertTrue(buffer.offer(first));
+        assertTrue(buffer.offer(second));
+        assertFalse(buffer.offer(first));
+        assertSame(first, buffer.poll());
+        assertTrue(buffer.offer(first));
+        assertSame(second, buffer.poll());
+        assertSame(first, buffer.poll());
+        assertNull(buffer.poll());
+    }
+
+    private AuditProperties properties(DataSize segmentSize, int bufferSize) {
+        AuditProperties properties = new AuditProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(segmentSize);
+        properties.setBufferSize(bufferSize);
+        return properties;
+    }
+
+    private static String[] read(AuditLog auditLog, long from, long to) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        auditLog.copy(from, to, out);
+        String text = out.toString(StandardCharsets.UTF_8);
+        return text.isEmpty() ? new String[0] : text.split("\n");
+    }
+}
@@ -0,0 +1,59 @@
+package com.macedo.auth.authsystem.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+/**
+ * Minimal harness for the {@code benchmark}-tagged tests (./mvnw test -Pbenchmark).
+ * Reports latency percentiles and bytes allocated per operation on the calling thread.
+ */
+public final class BenchmarkSupport {
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private BenchmarkSupport() {
+    }
+
+    @FunctionalInterface
+    public interface Operation {
+        void run() throws Exception;
+    }
+
+    public record Result(String name, int operations, double meanNanos, long p50Nanos, long p99Nanos,
+                         double bytesPerOperation) {
+
+        @Override
+        public String toString() {
+            return String.format("%-45s ops=%-8d mean=%10.1f ns  p50=%8d ns  p99=%8d ns  alloc=%8.1f B/op",
+                    name, operations, meanNanos, p50Nanos, p99Nanos, bytesPerOperation);
+        }
+    }
+
+    public static Result run(String name, int warmup, int iterations, Operation operation) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+
+        long[] samples = new long[iterations];
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            operation.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        long total = 0;
+        for (long sample : samples) {
+            total += sample;
+        }
+        Arrays.sort(samples);
+        Result result = new Result(name, iterations, (double) total / iterations,
+                samples[iterations / 2], samples[(int) (iterations * 0.99)],
+                (double) allocated / iterations);
+        System.out.println(result);
+        return result;
+    }
+}
@@ -0,0 +1,34 @@
+package com.macedo.auth.authsystem.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Binds {@link RateLimitProperties} the way the application does: the policies shipped in
+ * application.properties, any overrides on top, and the {@code @Validated} constraints.
+ */
+public final class RateLimitPropertiesFixture {
+
+    @EnableConfigurationProperties(RateLimitProperties.class)
+    static class Binding {
+    }
+
+    private RateLimitPropertiesFixture() {
+    }
+
+    static ApplicationContextRunner runner() {
+        return new ApplicationContextRunner()
+                .withInitializer(new ConfigDataApplicationContextInitializer())
+                .withUserConfiguration(Binding.class);
+    }
+
+    public static RateLimitProperties fromApplicationProperties(String... overrides) {
+        AtomicReference<RateLimitProperties> bound = new AtomicReference<>();
+        runner().withPropertyValues(overrides)
+                .run(context -> bound.set(context.getBean(RateLimitProperties.class)));
+        return bound.get();
+    }
+}
@@ -0,0 +1,51 @@
+package com.macedo.auth.authsystem.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.NestedExceptionUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitPropertiesTest {
+
+    @Test
+    void whenNothingOverridden_thenShippedPoliciesAreBound() {
+        RateLimitProperties properties = RateLimitPropertiesFixture.fromApplicationProperties();
+
+        assertEquals(9, properties.getPolicies().size());
+        assertEquals("/api/auth/login/**", properties.getPolicies().get("login").getPath());
+        assertEquals(5, properties.getPolicies().get("login").getCapacity());
+        assertEquals(2, properties.getUserPolicies().size());
+        assertEquals(120, properties.getUserPolicies().get("admin").getCapacity());
+        assertEquals(Duration.ofMinutes(60), properties.longestPeriod());
+    }
+
+    @Test
+    void whenShippedPolicyCapacityOverridden_thenPathIsKept() {
+        RateLimitProperties properties = RateLimitPropertiesFixture.fromApplicationProperties(
+                "rate-limit.policies.login.capacity=50");
+
+        assertEquals("/api/auth/login/**", properties.getPolicies().get("login").getPath());
+        assertEquals(50, properties.getPolicies().get("login").getCapacity());
+    }
+
+    @Test
+    void whenNewPolicyHasOnlyCapacity_thenStartupFailsNamingThePath() {
+        RateLimitPropertiesFixture.runner()
+                .withPropertyValues("rate-limit.policies.sessions.capacity=5")
+                .run(context -> {
+                    Throwable failure = context.getStartupFailure();
+                    assertNotNull(failure);
+                    assertTrue(NestedExceptionUtils.getMostSpecificCause(failure).getMessage()
+                            .contains("policies[sessions].path"), failure::getMessage);
+                });
+    }
+
+    @Test
+    void whenCapacityIsNotPositive_thenStartupFails() {
+        RateLimitPropertiesFixture.runner()
+                .withPropertyValues("rate-limit.user-policies.user.capacity=0")
+                .run(context -> assertNotNull(context.getStartupFailure()));
+    }
+}
@@ -0,0 +1,195 @@
+package com.macedo.auth.authsystem.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replicaA;
+    private DataSource replicaB;
+    private Connection primaryConnection;
+    private Connection replicaAConnection;
+    private Connection replicaBConnection;
+    private WorkloadType previousWorkload;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        previousWorkload = WorkloadContext.enter(WorkloadType.ADMIN);
+        primary = mock(DataSource.class);
+        replicaA = mock(DataSource.class);
+        replicaB = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        replicaAConnection = mock(Connection.class);
+        replicaBConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaA.getConnection()).thenReturn(replicaAConnection);
+        when(replicaB.getConnection()).thenReturn(replicaBConnection);
+    }
+
+    @AfterEach
+    void tearDown() {
+        WorkloadContext.restore(previousWorkload);
+    }
+
+    private ReplicaRoutingDataSource routing(String lagQuery) {
+        return new ReplicaRoutingDataSource(primary, List.of(
+                new ReplicaRoutingDataSource.Replica("a", replicaA),
+                new ReplicaRoutingDataSource.Replica("b", replicaB)), Duration.ofSeconds(5), lagQuery,
+                Set.of(WorkloadType.ADMIN));
+    }
+
+    private static void lag(Connection connection, double seconds) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(rs);
+        when(rs.next()).thenReturn(true);
+        when(rs.getDouble(1)).thenReturn(seconds);
+    }
+
+    @Test
+    void whenReplicasHealthy_thenConnectionsAlternate() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(null);
+
+        assertSame(replicaAConnection, routing.getConnection());
+        assertSame(replicaBConnection, routing.getConnection());
+        assertSame(replicaAConnection, routing.getConnection());
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void whenReplicaLagsBeyondTolerance_thenItLeavesRotationUntilItCatchesUp() throws SQLException {
+        ReplicaRoutingDataSource routing = routing("SELECT lag");
+        lag(replicaAConnection, 30);
+        lag(replicaBConnection, 0.2);
+
+        routing.checkReplicas();
+
+        assertSame(replicaBConnection, routing.getConnection());
+        assertSame(replicaBConnection, routing.getConnection());
+
+        lag(replicaAConnection, 1);
+        routing.checkReplicas();
+
+        assertTrue(routing.getReplicas().get(0).available());
+        assertEquals(1, routing.getReplicas().get(0).lagSeconds());
+    }
+
+    @Test
+    void whenReplicaUnreachable_thenNextReplicaServesTheRead() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(null);
+        when(replicaA.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        assertSame(replicaBConnection, routing.getConnection());
+        assertFalse(routing.getReplicas().get(0).available());
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void whenNoReplicaUsable_thenFallsBackToPrimaryAndCounts() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(null);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        routing.bindTo(registry);
+        when(replicaA.getConnection()).thenThrow(new SQLException("down"));
+        when(replicaB.getConnection()).thenThrow(new SQLException("down"));
+
+        routing.checkReplicas();
+
+        assertSame(primaryConnection, routing.getConnection());
+        assertEquals(1, registry.get("auth.datasource.replica.fallbacks").functionCounter().count());
+        assertEquals(0, registry.get("auth.datasource.replica.available").tag("replica", "a").gauge().value());
+    }
+
+    @Test
+    void whenWorkloadNotReplicaEligible_thenReadStaysOnPrimaryWithoutCountingAFallback() throws SQLException {
+        ReplicaRoutingDataSource routing = routing(null);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        routing.bindTo(registry);
+
+        WorkloadContext.restore(WorkloadType.AUTH);
+        try {
+            assertSame(primaryConnection, routing.getConnection());
+        } finally {
+            WorkloadContext.restore(WorkloadType.ADMIN);
+        }
+
+        verify(replicaA, never()).getConnection();
+        verify(replicaB, never()).getConnection();
+        assertEquals(0, registry.get("auth.datasource.replica.fallbacks").functionCounter().count());
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicasAndOthersToPrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                List.of(new ReplicaRoutingDataSource.Replica("a", replicaA)), Duration.ofSeconds(5), null,
+                Set.of(WorkloadType.ADMIN));
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primary);
+        dataSource.setReadOnlyDataSource(routing);
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> touch(dataSource));
+        verify(replicaA).getConnection();
+        verify(replicaAConnection).createStatement();
+
+        transaction.setReadOnly(false);
+        transaction.executeWithoutResult(status -> touch(dataSource));
+        verify(primaryConnection).createStatement();
+        verifyNoMoreInteractions(replicaA);
+    }
+
+    @Test
+    void whenOnlyTheTransactionIsMarkedReadOnly_thenConnectionStillComesFromReplica() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary,
+                List.of(new ReplicaRoutingDataSource.Replica("a", replicaA)), Duration.ofSeconds(5), null,
+                Set.of(WorkloadType.ADMIN));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(
+                new ReadOnlyTransactionRoutingDataSource(primary, routing));
+
+        // como o HibernateJpaDialect ao liberar apos a transacao: nenhum setReadOnly na conexao
+        // like HibernateJpaDialect when releasing after the transaction: no setReadOnly on the connection
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+        verify(replicaAConnection).createStatement();
+        verify(primaryConnection, never()).createStatement();
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement();
+        }
+        verify(primaryConnection).createStatement();
+        verify(replicaAConnection).createStatement();
+    }
+
+    private static void touch(DataSource dataSource) {
+        try {
+            DataSourceUtils.getConnection(dataSource).createStatement();
+        } catch (SQLException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
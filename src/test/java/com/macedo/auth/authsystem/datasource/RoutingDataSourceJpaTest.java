@@ -0,0 +1,137 @@
+package com.macedo.auth.authsystem.datasource;
+
+import com.macedo.auth.authsystem.config.DataSourceConfig;
+import com.macedo.auth.authsystem.config.ReplicaRoutingProperties;
+import com.macedo.auth.authsystem.config.WorkloadPoolProperties;
+import com.macedo.auth.authsystem.entity.User;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the routing datasource behind the real {@code JpaTransactionManager}, with one
+ * {@link EntityManager} kept open across transactions the way open-in-view does. The "replica" is
+ * the same database reached with {@code default_transaction_read_only=on}, so a write that lands
+ * on it fails and a read can tell which side answered. Workload pools are on as well, so each
+ * transaction must also take its connection from the pool of the workload it runs in.
+ */
+@DataJpaTest(properties = {
+        "replica-routing.enabled=true",
+        "replica-routing.lag-query=",
+        "workload-pools.enabled=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DataSourceConfig.class, ReplicaRoutingProperties.class, WorkloadPoolProperties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class RoutingDataSourceJpaTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("replica-routing.replicas[0].name", () -> "replica");
+        registry.add("replica-routing.replicas[0].url",
+                () -> POSTGRES.getJdbcUrl() + "&options=-c%20default_transaction_read_only=on");
+    }
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private WorkloadRoutingDataSource workloadPools;
+
+    private EntityManager entityManager;
+    private WorkloadType previousWorkload;
+
+    @BeforeEach
+    void openEntityManager() {
+        // o que o OpenEntityManagerInViewInterceptor faz / what OpenEntityManagerInViewInterceptor does
+        entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        previousWorkload = WorkloadContext.enter(WorkloadType.ADMIN);
+    }
+
+    @AfterEach
+    void closeEntityManager() {
+        WorkloadContext.restore(previousWorkload);
+        TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+        entityManager.close();
+    }
+
+    @Test
+    void readOnlyTransactionThenWriteInTheSameEntityManager_writeReachesThePrimary() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.setReadOnly(true);
+        assertEquals("on", transaction.execute(status -> defaultReadOnly()));
+
+        transaction.setReadOnly(false);
+        assertEquals("off", transaction.execute(status -> defaultReadOnly()));
+        transaction.executeWithoutResult(status -> entityManager.persist(User.builder()
+                .name("Routed")
+                .email("routed@example.com")
+                .password("hash")
+                .build()));
+
+        assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM users WHERE email = 'routed@example.com'", Long.class));
+    }
+
+    @Test
+    void eachTransactionInTheSameEntityManagerUsesThePoolOfItsWorkload() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        assertEquals(Integer.valueOf(1), transaction.execute(status -> activeConnectionsAfterQuery(WorkloadType.ADMIN)));
+
+        WorkloadContext.restore(WorkloadType.AUTH);
+        assertEquals(Integer.valueOf(1), transaction.execute(status -> activeConnectionsAfterQuery(WorkloadType.AUTH)));
+        assertEquals(0, activeConnections(WorkloadType.ADMIN));
+    }
+
+    private int activeConnectionsAfterQuery(WorkloadType workload) {
+        defaultReadOnly();
+        return activeConnections(workload);
+    }
+
+    private int activeConnections(WorkloadType workload) {
+        return ((HikariDataSource) workloadPools.pool(workload)).getHikariPoolMXBean().getActiveConnections();
+    }
+
+    private String defaultReadOnly() {
+        return (String) entityManager.createNativeQuery("SELECT current_setting('default_transaction_read_only')")
+                .getSingleResult();
+    }
+}
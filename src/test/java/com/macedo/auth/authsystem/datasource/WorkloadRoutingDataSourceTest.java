@@ -0,0 +1,109 @@
+package com.macedo.auth.authsystem.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WorkloadRoutingDataSourceTest {
+
+    @Workload(WorkloadType.ADMIN)
+    static class AdminReports {
+
+        WorkloadType report() {
+            return WorkloadContext.current();
+        }
+
+        @Workload(WorkloadType.BACKGROUND)
+        WorkloadType purge() {
+            return WorkloadContext.current();
+        }
+
+        WorkloadType call(Supplier<WorkloadType> inner) {
+            return inner.get();
+        }
+    }
+
+    @Workload(WorkloadType.AUTH)
+    interface CredentialsLookup {
+
+        WorkloadType lookup();
+    }
+
+    private static <T> T advised(T target, Class<?>... interfaces) {
+        ProxyFactory factory = new ProxyFactory(target);
+        if (interfaces.length == 0) {
+            factory.setProxyTargetClass(true);
+        } else {
+            factory.setInterfaces(interfaces);
+        }
+        factory.addAdvisor(new DefaultPointcutAdvisor(
+                new ComposablePointcut(new AnnotationMatchingPointcut(Workload.class, true))
+                        .union(new AnnotationMatchingPointcut(null, Workload.class, true)),
+                new WorkloadInterceptor()));
+        @SuppressWarnings("unchecked")
+        T proxy = (T) factory.getProxy();
+        return proxy;
+    }
+
+    @Test
+    void whenMethodAnnotated_thenItWinsOverClassAnnotation() {
+        AdminReports reports = advised(new AdminReports());
+
+        assertEquals(WorkloadType.ADMIN, reports.report());
+        assertEquals(WorkloadType.BACKGROUND, reports.purge());
+        assertEquals(WorkloadType.GENERAL, WorkloadContext.current());
+    }
+
+    @Test
+    void whenInterfaceAnnotated_thenImplementationRunsInItsWorkload() {
+        CredentialsLookup lookup = advised((CredentialsLookup) WorkloadContext::current, CredentialsLookup.class);
+
+        assertEquals(WorkloadType.AUTH, lookup.lookup());
+    }
+
+    @Test
+    void whenNested_thenOutermostWorkloadKeepsTheThread() {
+        AdminReports reports = advised(new AdminReports());
+        CredentialsLookup lookup = advised((CredentialsLookup) WorkloadContext::current, CredentialsLookup.class);
+
+        assertEquals(WorkloadType.ADMIN, reports.call(lookup::lookup));
+        assertEquals(WorkloadType.AUTH, lookup.lookup());
+    }
+
+    @Test
+    void connectionComesFromThePoolOfTheCurrentWorkload() throws SQLException {
+        Map<WorkloadType, DataSource> pools = new EnumMap<>(WorkloadType.class);
+        Map<WorkloadType, Connection> connections = new EnumMap<>(WorkloadType.class);
+        for (WorkloadType workload : WorkloadType.values()) {
+            DataSource pool = mock(DataSource.class);
+            Connection connection = mock(Connection.class);
+            when(pool.getConnection()).thenReturn(connection);
+            pools.put(workload, pool);
+            connections.put(workload, connection);
+        }
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource(pools);
+
+        assertSame(connections.get(WorkloadType.GENERAL), routing.getConnection());
+
+        WorkloadType previous = WorkloadContext.enter(WorkloadType.AUTH);
+        try {
+            assertSame(connections.get(WorkloadType.AUTH), routing.getConnection());
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+        assertSame(connections.get(WorkloadType.GENERAL), routing.getConnection());
+    }
+}
@@ -0,0 +1,108 @@
+package com.macedo.auth.authsystem.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.macedo.auth.authsystem.benchmark.BenchmarkSupport;
+import com.macedo.auth.authsystem.dto.ErrorResponse;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.time.Instant;
+
+/**
+ * Bytes allocated per rejected request: the previous path (exception with a stack trace, an
+ * {@code ErrorResponse} built and serialized by Jackson) against a stackless exception and a
+ * pre-serialized template written straight to the response.
+ */
+@Tag("benchmark")
+class ErrorResponseBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    private static final ErrorResponseWriter.Template TEMPLATE = ErrorResponseWriter.template(
+            HttpStatus.TOO_MANY_REQUESTS, "RATE_LIMIT_EXCEEDED", "Too many requests. Please try again in ", " seconds.");
+
+    private static Object sink;
+
+    @Test
+    void rejectedRequest() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        StubResponse response = new StubResponse();
+
+        BenchmarkSupport.run("exception with stack trace (before)", WARMUP, ITERATIONS,
+                () -> sink = new RuntimeException("Invalid credentials"));
+        BenchmarkSupport.run("stackless exception (after)", WARMUP, ITERATIONS,
+                () -> sink = new InvalidCredentialsException("Invalid credentials"));
+
+        BenchmarkSupport.run("Jackson ErrorResponse body (before)", WARMUP, ITERATIONS, () -> {
+            ErrorResponse error = ErrorResponse.builder()
+                    .code("RATE_LIMIT_EXCEEDED")
+                    .message("Too many requests. Please try again in " + 42 + " seconds.")
+                    .timestamp(Instant.now())
+                    .path("/api/auth/login")
+                    .build();
+            response.getWriter().write(objectMapper.writeValueAsString(error));
+        });
+        BenchmarkSupport.run("pre-serialized template body (after)", WARMUP, ITERATIONS,
+                () -> ErrorResponseWriter.write(response, TEMPLATE, 42, "/api/auth/login"));
+    }
+
+    private static final class StubResponse extends HttpServletResponseWrapper {
+
+        private final PrintWriter writer = new PrintWriter(OutputStream.nullOutputStream());
+
+        private final ServletOutputStream outputStream = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        private StubResponse() {
+            super(new MockHttpServletResponse());
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            return writer;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        @Override
+        public void setStatus(int sc) {
+        }
+
+        @Override
+        public void setContentType(String type) {
+        }
+
+        @Override
+        public void setContentLength(int len) {
+        }
+    }
+}
@@ -12,8 +12,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.when;
 
@@ -36,59 +41,111 @@ class GlobalExceptionHandlerTest {
     }
 
     @Test
-    void whenEmailAlreadyExistsException_thenReturns409Conflict() {
+    void whenEmailAlreadyExistsException_thenReturns409Conflict() throws IOException {
         EmailAlreadyExistsException ex = new EmailAlreadyExistsException("Email already in use");
         when(request.getRequestURI()).thenReturn("/api/auth/register");
 
-        ResponseEntity<ErrorResponse> response = exceptionHandler.handleEmailAlreadyExists(ex, request);
+        ResponseEntity<byte[]> response = exceptionHandler.handleEmailAlreadyExists(ex, request);
+        ErrorResponse body = parse(response);
 
         assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
-        assertEquals("EMAIL_ALREADY_EXISTS", response.getBody().getCode());
-        assertEquals("Email already registered", response.getBody().getMessage());
-        assertEquals("/api/auth/register", response.getBody().getPath());
-        assertNotNull(response.getBody().getTimestamp());
+        assertEquals("EMAIL_ALREADY_EXISTS", body.getCode());
+        assertEquals("Email already registered", body.getMessage());
+        assertEquals("/api/auth/register", body.getPath());
+        assertNotNull(body.getTimestamp());
     }
 
     @Test
-    void whenInvalidCredentialsException_thenReturns401Unauthorized() {
+    void whenInvalidCredentialsException_thenReturns401Unauthorized() throws IOException {
         InvalidCredentialsException ex = new InvalidCredentialsException("Invalid credentials");
         when(request.getRequestURI()).thenReturn("/api/auth/login");
 
-        ResponseEntity<ErrorResponse> response = exceptionHandler.handleInvalidCredentials(ex, request);
+        ResponseEntity<byte[]> response = exceptionHandler.handleInvalidCredentials(ex, request);
+        ErrorResponse body = parse(response);
 
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
-        assertEquals("INVALID_CREDENTIALS", response.getBody().getCode());
-        assertEquals("Invalid email or password", response.getBody().getMessage());
-        assertEquals("/api/auth/login", response.getBody().getPath());
-        assertNotNull(response.getBody().getTimestamp());
+        assertEquals("INVALID_CREDENTIALS", body.getCode());
+        assertEquals("Invalid email or password", body.getMessage());
+        assertEquals("/api/auth/login", body.getPath());
+        assertNotNull(body.getTimestamp());
     }
 
     @Test
-    void whenResourceNotFoundException_thenReturns404NotFound() {
+    void whenResourceNotFoundException_thenReturns404NotFound() throws IOException {
         ResourceNotFoundException ex = new ResourceNotFoundException("Resource not found");
         when(request.getRequestURI()).thenReturn("/api/users/999");
 
-        ResponseEntity<ErrorResponse> response = exceptionHandler.handleResourceNotFound(ex, request);
+        ResponseEntity<byte[]> response = exceptionHandler.handleResourceNotFound(ex, request);
+        ErrorResponse body = parse(response);
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-        assertEquals("RESOURCE_NOT_FOUND", response.getBody().getCode());
-        assertEquals("Resource not found", response.getBody().getMessage());
-        assertEquals("/api/users/999", response.getBody().getPath());
-        assertNotNull(response.getBody().getTimestamp());
+        assertEquals("RESOURCE_NOT_FOUND", body.getCode());
+        assertEquals("Resource not found", body.getMessage());
+        assertEquals("/api/users/999", body.getPath());
+        assertNotNull(body.getTimestamp());
     }
 
     @Test
-    void whenGenericException_thenReturns500InternalServerError() {
+    void whenGenericException_thenReturns500InternalServerError() throws IOException {
         Exception ex = new Exception("Internal error");
         when(request.getRequestURI()).thenReturn("/api/some-endpoint");
 
-        ResponseEntity<ErrorResponse> response = exceptionHandler.handleGenericException(ex, request);
+        ResponseEntity<byte[]> response = exceptionHandler.handleGenericException(ex, request);
+        ErrorResponse body = parse(response);
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
-        assertEquals("INTERNAL_SERVER_ERROR", response.getBody().getCode());
-        assertEquals("An unexpected error occurred", response.getBody().getMessage());
-        assertEquals("/api/some-endpoint", response.getBody().getPath());
-        assertNotNull(response.getBody().getTimestamp());
+        assertEquals("INTERNAL_SERVER_ERROR", body.getCode());
+        assertEquals("An unexpected error occurred", body.getMessage());
+        assertEquals("/api/some-endpoint", body.getPath());
+        assertNotNull(body.getTimestamp());
+    }
+
+    @Test
+    void whenAccountLockedException_thenReturns423WithRemainingMinutes() throws IOException {
+        AccountLockedException ex = new AccountLockedException("Locked", 12);
+        when(request.getRequestURI()).thenReturn("/api/auth/login");
+
+        ResponseEntity<byte[]> response = exceptionHandler.handleAccountLocked(ex, request);
+        ErrorResponse body = parse(response);
+
+        assertEquals(HttpStatus.LOCKED, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("ACCOUNT_LOCKED", body.getCode());
+        assertEquals("Account temporarily locked. Try again in 12 minutes", body.getMessage());
+    }
+
+    @Test
+    void whenExpectedFailureThrown_thenHasNoStackTrace() {
+        assertEquals(0, new InvalidCredentialsException("Invalid credentials").getStackTrace().length);
+        assertEquals(0, new TokenRefreshException("Refresh token expired").getStackTrace().length);
+    }
+
+    @Test
+    void whenPathNeedsEscaping_thenBodyIsStillValidJson() throws IOException {
+        when(request.getRequestURI()).thenReturn("/api/\"quoted\"\\path");
+
+        ResponseEntity<byte[]> response = exceptionHandler.handleAccessDenied(
+                new org.springframework.security.access.AccessDeniedException("denied"), request);
+
+        assertEquals("/api/\"quoted\"\\path", parse(response).getPath());
+    }
+
+    @Test
+    void whenTemplateRendered_thenMatchesJacksonOutput() throws IOException {
+        Instant now = Instant.parse("2024-01-17T12:34:56.789Z");
+        ErrorResponse error = ErrorResponse.builder()
+                .code("INVALID_CREDENTIALS")
+                .message("Invalid email or password")
+                .timestamp(now)
+                .path("/api/auth/login")
+                .build();
+
+        ErrorResponseWriter.Template template = ErrorResponseWriter.template(
+                HttpStatus.UNAUTHORIZED, "INVALID_CREDENTIALS", "Invalid email or password");
+        byte[] rendered = ErrorResponseWriter.render(template, false, 0, now.toEpochMilli(), "/api/auth/login")
+                .toByteArray();
+
+        assertEquals(objectMapper.writeValueAsString(error), new String(rendered, StandardCharsets.UTF_8));
     }
 
     @Test
@@ -107,4 +164,8 @@ class GlobalExceptionHandlerTest {
         assertTrue(json.contains("\"path\":\"/test/path\""));
         assertTrue(json.contains("\"timestamp\""));
     }
+
+    private ErrorResponse parse(ResponseEntity<byte[]> response) throws IOException {
+        return objectMapper.readValue(response.getBody(), ErrorResponse.class);
+    }
 }
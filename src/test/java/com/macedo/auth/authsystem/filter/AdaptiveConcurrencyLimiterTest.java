@@ -0,0 +1,91 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MS = 1_000_000L;
+
+    private ConcurrencyLimitProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(10);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(50);
+        properties.setLatencyBudget(Duration.ofMillis(500));
+    }
+
+    @Test
+    void whenLimitReached_thenRejectsImmediately() {
+        properties.setInitialLimit(2);
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void whenLatencyExceedsBudget_thenLimitBacksOff() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        limiter.tryAcquire();
+        limiter.release(800 * MS);
+
+        assertEquals(9, limiter.getLimit());
+    }
+
+    @Test
+    void whenLatencyStaysAtMinimumUnderLoad_thenLimitGrows() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        for (int i = 0; i < 5; i++) {
+            while (limiter.tryAcquire()) {
+                // ocupa todas as permissoes / hold every permit
+            }
+            limiter.release(100 * MS);
+            while (limiter.getInFlight() > 0) {
+                limiter.release();
+            }
+        }
+
+        assertTrue(limiter.getLimit() > 10);
+    }
+
+    @Test
+    void whenLatencyRisesWellAboveMinimum_thenLimitShrinks() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+        limiter.tryAcquire();
+        limiter.release(50 * MS);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.release(400 * MS);
+        }
+
+        assertTrue(limiter.getLimit() < 10);
+    }
+
+    @Test
+    void whenRepeatedlyOverBudget_thenNeverDropsBelowMinimum() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(properties);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire();
+            limiter.release(2_000 * MS);
+        }
+
+        assertEquals(2, limiter.getLimit());
+    }
+}
@@ -0,0 +1,69 @@
+package com.macedo.auth.authsystem.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClientIpResolverTest {
+
+    private final ClientIpResolver resolver =
+            new ClientIpResolver(IpPrefixTrie.compile(List.of("10.0.0.0/8", "::1/128")));
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Test
+    void whenPeerIsNotTrusted_thenIgnoresForwardedFor() {
+        when(request.getRemoteAddr()).thenReturn("198.51.100.9");
+
+        assertEquals("198.51.100.9", resolver.resolve(request));
+        verify(request, never()).getHeader("X-Forwarded-For");
+    }
+
+    @Test
+    void whenPeerIsTrusted_thenUsesRightmostUntrustedHop() {
+        when(request.getRemoteAddr()).thenReturn("10.0.0.2");
+        when(request.getHeader("X-Forwarded-For")).thenReturn("1.1.1.1, 203.0.113.7, 10.0.0.5");
+
+        // 1.1.1.1 foi enviado pelo proprio cliente e nao e confiavel
+        assertEquals("203.0.113.7", resolver.resolve(request));
+    }
+
+    @Test
+    void whenEveryHopIsTrusted_thenUsesLeftmostHop() {
+        when(request.getRemoteAddr()).thenReturn("::1");
+        when(request.getHeader("X-Forwarded-For")).thenReturn("10.1.1.1,10.0.0.5");
+
+        assertEquals("10.1.1.1", resolver.resolve(request));
+    }
+
+    @Test
+    void whenHeaderMissing_thenUsesPeer() {
+        when(request.getRemoteAddr()).thenReturn("10.0.0.2");
+
+        assertEquals("10.0.0.2", resolver.resolve(request));
+    }
+
+    @Test
+    void whenHopIsGarbage_thenStopsAtLastTrustedHop() {
+        when(request.getRemoteAddr()).thenReturn("10.0.0.2");
+        when(request.getHeader("X-Forwarded-For")).thenReturn("203.0.113.7, not-an-ip, 10.0.0.5");
+
+        assertEquals("10.0.0.5", resolver.resolve(request));
+    }
+
+    @Test
+    void resolvedAddressIsReadFromRequestAttribute() {
+        when(request.getAttribute(ClientIpResolver.CLIENT_IP_ATTRIBUTE)).thenReturn("203.0.113.7");
+
+        assertEquals("203.0.113.7", ClientIpResolver.getClientIp(request));
+    }
+}
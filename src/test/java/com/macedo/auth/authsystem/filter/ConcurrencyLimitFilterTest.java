@@ -0,0 +1,107 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitFilterTest {
+
+    private ConcurrencyLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private ServletOutputStream outputStream;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(1);
+        properties.setMinLimit(1);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void whenLimitReached_thenRejectsWith503AndCountsIt() throws ServletException, IOException {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, meterRegistry);
+        HttpServletResponse rejectedResponse = mock(HttpServletResponse.class);
+        when(rejectedResponse.getOutputStream()).thenReturn(outputStream);
+        FilterChain rejectedChain = mock(FilterChain.class);
+
+        // a segunda requisicao chega enquanto a primeira segura a unica permissao / arrives while the only permit is held
+        filter.doFilterInternal(request("/api/auth/login"), response, (req, res) -> {
+            assertEquals(1, meterRegistry.get("auth.concurrency.in_flight").gauge().value());
+            filter.doFilterInternal(request("/api/auth/register"), rejectedResponse, rejectedChain);
+        });
+
+        verifyNoInteractions(rejectedChain);
+        verify(rejectedResponse).setStatus(503);
+        verify(rejectedResponse).setHeader("Retry-After", "1");
+        assertEquals(1.0, meterRegistry.get("auth.concurrency.rejected").counter().count());
+        assertEquals(0, meterRegistry.get("auth.concurrency.in_flight").gauge().value());
+    }
+
+    @Test
+    void whenChainThrows_thenPermitIsReleased() throws ServletException, IOException {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, meterRegistry);
+
+        assertThrows(ServletException.class, () -> filter.doFilterInternal(request("/api/auth/login"), response,
+                (req, res) -> {
+                    throw new ServletException("boom");
+                }));
+
+        assertEquals(0, meterRegistry.get("auth.concurrency.in_flight").gauge().value());
+        FilterChain chain = mock(FilterChain.class);
+        HttpServletRequest next = request("/api/auth/login");
+        filter.doFilterInternal(next, response, chain);
+        verify(chain).doFilter(next, response);
+        assertEquals(0.0, meterRegistry.get("auth.concurrency.rejected").counter().count());
+    }
+
+    @Test
+    void whenChainAnswers5xx_thenPermitIsReleasedWithoutLatencySample() throws ServletException, IOException {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, meterRegistry);
+        when(response.getStatus()).thenReturn(500);
+
+        filter.doFilterInternal(request("/api/auth/login"), response, mock(FilterChain.class));
+
+        assertEquals(0, meterRegistry.get("auth.concurrency.in_flight").gauge().value());
+        // uma amostra rapida com a permissao em uso faria o limite crescer / a fast sample would have grown the limit
+        assertEquals(1, meterRegistry.get("auth.concurrency.limit").gauge().value());
+    }
+
+    @Test
+    void whenPathNotLimitedOrDisabled_thenSkipsFilter() {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, meterRegistry);
+        assertTrue(filter.shouldNotFilter(request("/api/user/me")));
+        assertFalse(filter.shouldNotFilter(request("/api/auth/login")));
+
+        properties.setEnabled(false);
+        ConcurrencyLimitFilter disabled = new ConcurrencyLimitFilter(properties, new SimpleMeterRegistry());
+        assertTrue(disabled.shouldNotFilter(request("/api/auth/login")));
+    }
+
+    private HttpServletRequest request(String path) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        lenient().when(request.getRequestURI()).thenReturn(path);
+        lenient().when(request.getMethod()).thenReturn("POST");
+        return request;
+    }
+}
@@ -0,0 +1,111 @@
+package com.macedo.auth.authsystem.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiringLongTableTest {
+
+    private static final long ONE_MINUTE = Duration.ofMinutes(1).toNanos();
+
+    private final ExpiringLongTable.Factory<String, Object> factory = (key, context) -> new Object();
+
+    @Test
+    void whenSameKey_thenReturnsSameValue() {
+        ExpiringLongTable<String, Object> table = new ExpiringLongTable<>(1_000);
+
+        Object first = table.get(42L, "ctx", ONE_MINUTE, factory);
+        Object second = table.get(42L, "ctx", ONE_MINUTE, factory);
+
+        assertSame(first, second);
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void whenEntryExpired_thenCreatesNewValue() throws InterruptedException {
+        ExpiringLongTable<String, Object> table = new ExpiringLongTable<>(1_000);
+
+        Object first = table.get(42L, "ctx", 1, factory);
+        Thread.sleep(1);
+        Object second = table.get(42L, "ctx", 1, factory);
+
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void whenMoreKeysThanCapacity_thenEvictsInsteadOfGrowing() {
+        ExpiringLongTable<String, Object> table = new ExpiringLongTable<>(1_000);
+
+        for (long key = 1; key <= 10_000; key++) {
+            table.get(key, "ctx", ONE_MINUTE, factory);
+        }
+
+        assertTrue(table.size() <= 1_024);
+        assertTrue(table.evictionCount() > 0);
+    }
+
+    @Test
+    void whenEntriesExpire_thenSizeDropsAndTheirSlotsAreFreed() throws InterruptedException {
+        ExpiringLongTable<String, Object> table = new ExpiringLongTable<>(1_000);
+
+        for (long key = 1; key <= 500; key++) {
+            table.get(key, "ctx", 1, factory);
+        }
+        Thread.sleep(1);
+
+        assertEquals(0, table.size());
+
+        for (long key = 501; key <= 1_000; key++) {
+            table.get(key, "ctx", ONE_MINUTE, factory);
+        }
+        assertEquals(500, table.size());
+        assertEquals(0, table.evictionCount());
+    }
+
+    @Test
+    void whenExpiredEntriesAreFreed_thenLiveEntriesInTheSameProbeRunAreStillFound() throws InterruptedException {
+        ExpiringLongTable<String, Object> table = new ExpiringLongTable<>(1_000);
+        Object[] live = new Object[1_001];
+
+        for (int key = 1; key <= 1_000; key++) {
+            Object value = table.get(key, "ctx", key % 3 == 0 ? ONE_MINUTE : 1, factory);
+            if (key % 3 == 0) {
+                live[key] = value;
+            }
+        }
+        Thread.sleep(1);
+        long liveEntries = table.size();
+
+        int found = 0;
+        for (int key = 3; key <= 1_000; key += 3) {
+            if (table.get(key, "ctx", ONE_MINUTE, factory) == live[key]) {
+                found++;
+            }
+        }
+        // deslocar entradas para tras nao esconde nenhuma chave viva / shifting entries back hides no live key
+        assertEquals(liveEntries, found);
+        assertTrue(found > 0);
+    }
+
+    @Test
+    void whenLookedUp_thenCountsHitsAndMisses() {
+        ExpiringLongTable<String, Object> table = new ExpiringLongTable<>(1_000);
+
+        table.get(1L, "ctx", ONE_MINUTE, factory);
+        table.get(1L, "ctx", ONE_MINUTE, factory);
+        table.get(1L, "ctx", ONE_MINUTE, factory);
+        table.get(2L, "ctx", ONE_MINUTE, factory);
+
+        assertEquals(2, table.hitCount());
+        assertEquals(2, table.missCount());
+    }
+
+    @Test
+    void whenKeyIsZero_thenRejects() {
+        ExpiringLongTable<String, Object> table = new ExpiringLongTable<>(1_000);
+
+        assertThrows(IllegalArgumentException.class, () -> table.get(0L, "ctx", ONE_MINUTE, factory));
+    }
+}
@@ -0,0 +1,69 @@
+package com.macedo.auth.authsystem.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IpAddressesTest {
+
+    private static long ipv4(String s) {
+        return IpAddresses.parseIpv4(s, 0, s.length());
+    }
+
+    private static long[] ipv6(String s) {
+        long[] out = new long[2];
+        assertTrue(IpAddresses.parseIpv6(s, 0, s.length(), out), s);
+        return out;
+    }
+
+    @Test
+    void whenValidIpv4_thenParsesToUnsignedInt() {
+        assertEquals(0x01020304L, ipv4("1.2.3.4"));
+        assertEquals(0xffffffffL, ipv4("255.255.255.255"));
+        assertEquals(0L, ipv4("0.0.0.0"));
+    }
+
+    @Test
+    void whenInvalidIpv4_thenReturnsInvalid() {
+        assertEquals(IpAddresses.INVALID, ipv4("256.1.1.1"));
+        assertEquals(IpAddresses.INVALID, ipv4("1.2.3"));
+        assertEquals(IpAddresses.INVALID, ipv4("1.2.3.4.5"));
+        assertEquals(IpAddresses.INVALID, ipv4("1..2.3"));
+        assertEquals(IpAddresses.INVALID, ipv4("a.b.c.d"));
+    }
+
+    @Test
+    void whenCompressedIpv6_thenExpandsZeros() {
+        assertArrayEquals(new long[]{0L, 1L}, ipv6("::1"));
+        assertArrayEquals(new long[]{0xfe80000000000000L, 1L}, ipv6("fe80::1"));
+        assertArrayEquals(new long[]{0x20010db800000000L, 0x00008a2e03707334L}, ipv6("2001:db8::8a2e:370:7334"));
+        assertArrayEquals(new long[]{0L, 0L}, ipv6("::"));
+    }
+
+    @Test
+    void whenIpv6WithBracketsZoneOrEmbeddedIpv4_thenParses() {
+        assertArrayEquals(new long[]{0x20010db800000000L, 1L}, ipv6("[2001:db8::1]"));
+        assertArrayEquals(new long[]{0xfe80000000000000L, 1L}, ipv6("fe80::1%eth0"));
+        assertArrayEquals(new long[]{0L, 0x0000ffffc0a80101L}, ipv6("::ffff:192.168.1.1"));
+    }
+
+    @Test
+    void whenInvalidIpv6_thenReturnsFalse() {
+        long[] out = new long[2];
+        for (String s : new String[]{":::", "1::2::3", "12345::", "1:2:3:4:5:6:7:8:9", "1:2:3:4:5:6:7", ":1", "1:"}) {
+            assertFalse(IpAddresses.parseIpv6(s, 0, s.length(), out), s);
+        }
+    }
+
+    @Test
+    void whenFingerprintingHeaderEntry_thenIgnoresSurroundingSpaces() {
+        String header = "203.0.113.7 , 10.0.0.1";
+        assertEquals(0xcb007107L, IpAddresses.fingerprint(header, 0, header.indexOf(',')));
+    }
+
+    @Test
+    void whenIpv6InSameSlash64_thenSharesFingerprint() {
+        assertEquals(IpAddresses.fingerprint("2001:db8:1:2::1"), IpAddresses.fingerprint("2001:db8:1:2::ffff"));
+        assertNotEquals(IpAddresses.fingerprint("2001:db8:1:2::1"), IpAddresses.fingerprint("2001:db8:1:3::1"));
+    }
+}
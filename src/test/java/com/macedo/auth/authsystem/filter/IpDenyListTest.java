@@ -0,0 +1,81 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.IpAccessProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IpDenyListTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void whenNoFileConfigured_thenDeniesNothing() {
+        IpDenyList denyList = new IpDenyList(new IpAccessProperties());
+
+        assertFalse(denyList.isDenied("10.0.0.1"));
+        assertEquals(0, denyList.size());
+    }
+
+    @Test
+    void loadsPrefixesAndSkipsCommentsAndInvalidLines() throws IOException {
+        Path file = write("""
+                # redes abusivas
+                198.51.100.0/24
+                2001:db8::/32   # provedor X
+
+                not-a-cidr
+                """, Instant.parse("2024-01-01T00:00:00Z"));
+
+        IpDenyList denyList = new IpDenyList(properties(file));
+
+        assertEquals(2, denyList.size());
+        assertTrue(denyList.isDenied("198.51.100.20"));
+        assertTrue(denyList.isDenied("2001:db8::1"));
+        assertFalse(denyList.isDenied("203.0.113.7"));
+    }
+
+    @Test
+    void whenFileChanges_thenReloadsList() throws IOException {
+        Path file = write("198.51.100.0/24\n", Instant.parse("2024-01-01T00:00:00Z"));
+        IpDenyList denyList = new IpDenyList(properties(file));
+
+        write("203.0.113.0/24\n", Instant.parse("2024-01-01T00:01:00Z"));
+        denyList.reloadIfChanged();
+
+        assertFalse(denyList.isDenied("198.51.100.20"));
+        assertTrue(denyList.isDenied("203.0.113.7"));
+    }
+
+    @Test
+    void whenFileDisappears_thenKeepsLastGoodList() throws IOException {
+        Path file = write("198.51.100.0/24\n", Instant.parse("2024-01-01T00:00:00Z"));
+        IpDenyList denyList = new IpDenyList(properties(file));
+
+        Files.delete(file);
+        denyList.reloadIfChanged();
+
+        assertTrue(denyList.isDenied("198.51.100.20"));
+    }
+
+    private Path write(String content, Instant modified) throws IOException {
+        Path file = dir.resolve("deny.txt");
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.from(modified));
+        return file;
+    }
+
+    private IpAccessProperties properties(Path file) {
+        IpAccessProperties properties = new IpAccessProperties();
+        properties.setDenyListFile(file.toString());
+        return properties;
+    }
+}
@@ -0,0 +1,81 @@
+package com.macedo.auth.authsystem.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IpPrefixTrieTest {
+
+    private final IpPrefixTrie trie = IpPrefixTrie.compile(List.of(
+            "10.0.0.0/8",
+            "192.168.1.128/25",
+            "203.0.113.7",
+            "2001:db8::/32",
+            "::ffff:198.51.100.0/120"
+    ));
+
+    @Test
+    void matchesAddressesInsideIpv4Prefixes() {
+        assertTrue(trie.contains("10.1.2.3"));
+        assertTrue(trie.contains("192.168.1.200"));
+        assertTrue(trie.contains("203.0.113.7"));
+
+        assertFalse(trie.contains("11.0.0.1"));
+        assertFalse(trie.contains("192.168.1.127"));
+        assertFalse(trie.contains("203.0.113.8"));
+    }
+
+    @Test
+    void matchesAddressesInsideIpv6Prefixes() {
+        assertTrue(trie.contains("2001:db8:1::1"));
+        assertTrue(trie.contains("[2001:db8::5]"));
+
+        assertFalse(trie.contains("2001:db9::1"));
+        assertFalse(trie.contains("::1"));
+    }
+
+    @Test
+    void treatsIpv4MappedAddressesAsIpv4() {
+        assertTrue(trie.contains("198.51.100.9"));
+        assertTrue(trie.contains("::ffff:10.9.9.9"));
+        assertFalse(trie.contains("198.51.101.1"));
+    }
+
+    @Test
+    void matchesEntryInsideLargerString() {
+        String header = "198.18.0.1, 10.0.0.7 ,172.16.0.1";
+
+        assertFalse(trie.contains(header, 0, 10));
+        assertTrue(trie.contains(header, 11, 21));
+    }
+
+    @Test
+    void rejectsGarbageWithoutMatching() {
+        assertFalse(trie.contains("garbage"));
+        assertFalse(trie.contains(""));
+        assertFalse(trie.contains(null));
+    }
+
+    @Test
+    void zeroLengthPrefixesMatchEverything() {
+        IpPrefixTrie all = IpPrefixTrie.compile(List.of("0.0.0.0/0", "::/0"));
+
+        assertTrue(all.contains("1.2.3.4"));
+        assertTrue(all.contains("fe80::1"));
+    }
+
+    @Test
+    void whenEntryInvalid_thenCompileFails() {
+        assertThrows(IllegalArgumentException.class, () -> IpPrefixTrie.compile(List.of("10.0.0.0/33")));
+        assertThrows(IllegalArgumentException.class, () -> IpPrefixTrie.compile(List.of("nope/8")));
+        assertThrows(IllegalArgumentException.class, () -> IpPrefixTrie.compile(List.of("2001:db8::/129")));
+    }
+
+    @Test
+    void emptyTrieMatchesNothing() {
+        assertTrue(IpPrefixTrie.empty().isEmpty());
+        assertFalse(IpPrefixTrie.empty().contains("10.0.0.1"));
+    }
+}
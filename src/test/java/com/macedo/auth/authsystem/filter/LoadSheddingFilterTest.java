@@ -0,0 +1,194 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.LoadSheddingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LoadSheddingFilterTest {
+
+    private LoadSheddingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private ServletOutputStream outputStream;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LoadSheddingProperties();
+        properties.setMaxInFlight(4);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void whenIdle_thenAdmitsEveryClass() throws ServletException, IOException {
+        LoadSheddingFilter filter = new LoadSheddingFilter(properties, meterRegistry);
+        FilterChain chain = mock(FilterChain.class);
+
+        for (String path : List.of("/api/auth/register", "/api/admin/users", "/api/user/me", "/api/auth/refresh")) {
+            HttpServletRequest request = request(path);
+            filter.doFilterInternal(request, response, chain);
+            verify(chain).doFilter(request, response);
+        }
+        verify(response, never()).setStatus(503);
+    }
+
+    @Test
+    void whenUtilizationHigh_thenShedsLowestClassFirst() throws Exception {
+        LoadSheddingFilter filter = new LoadSheddingFilter(properties, meterRegistry);
+        when(response.getOutputStream()).thenReturn(outputStream);
+
+        // 2 de 4 em andamento = 50%: LOW descartada, NORMAL ainda admitida
+        try (Blocked blocked = occupy(filter, 2)) {
+            FilterChain chain = mock(FilterChain.class);
+
+            filter.doFilterInternal(request("/api/auth/register"), response, chain);
+            filter.doFilterInternal(request("/api/admin/users"), response, chain);
+            filter.doFilterInternal(request("/api/auth/refresh"), response, chain);
+
+            verify(chain, times(2)).doFilter(any(), eq(response));
+            verify(response).setStatus(503);
+            verify(response).setHeader("Retry-After", "1");
+        }
+
+        assertEquals(1.0, meterRegistry.get("auth.load_shedding.shed").tag("priority", "low").counter().count());
+        assertEquals(0.0, meterRegistry.get("auth.load_shedding.shed").tag("priority", "normal").counter().count());
+    }
+
+    @Test
+    void whenAtCapacity_thenOnlyCriticalIsAdmitted() throws Exception {
+        LoadSheddingFilter filter = new LoadSheddingFilter(properties, meterRegistry);
+        when(response.getOutputStream()).thenReturn(outputStream);
+
+        try (Blocked blocked = occupy(filter, 4)) {
+            FilterChain chain = mock(FilterChain.class);
+
+            filter.doFilterInternal(request("/api/user/me"), response, chain);
+            filter.doFilterInternal(request("/api/auth/refresh"), response, chain);
+
+            verify(chain, times(1)).doFilter(any(), eq(response));
+        }
+
+        assertEquals(1.0, meterRegistry.get("auth.load_shedding.shed").tag("priority", "high").counter().count());
+    }
+
+    @Test
+    void whenLatencyAboveThreshold_thenShedsLowButAdmitsHigh() throws ServletException, IOException {
+        properties.setMaxInFlight(100);
+        properties.setLatencyThreshold(Duration.ofMillis(1));
+        LoadSheddingFilter filter = new LoadSheddingFilter(properties, meterRegistry);
+        when(response.getOutputStream()).thenReturn(outputStream);
+
+        filter.doFilterInternal(request("/api/user/me"), response, (req, res) -> sleep(3));
+
+        FilterChain chain = mock(FilterChain.class);
+        filter.doFilterInternal(request("/api/auth/forgot-password"), response, chain);
+        filter.doFilterInternal(request("/api/user/me"), response, chain);
+
+        verify(chain, times(1)).doFilter(any(), eq(response));
+        verify(response).setStatus(503);
+    }
+
+    @Test
+    void whenOnlyPasswordHashingRoutesAreSlow_thenNothingIsShed() throws ServletException, IOException {
+        properties.setMaxInFlight(100);
+        properties.setLatencyThreshold(Duration.ofMillis(1));
+        LoadSheddingFilter filter = new LoadSheddingFilter(properties, meterRegistry);
+
+        filter.doFilterInternal(request("/api/auth/login"), response, (req, res) -> sleep(3));
+        filter.doFilterInternal(request("/api/auth/register"), response, (req, res) -> sleep(3));
+
+        FilterChain chain = mock(FilterChain.class);
+        filter.doFilterInternal(request("/api/auth/forgot-password"), response, chain);
+
+        verify(chain).doFilter(any(), eq(response));
+        verify(response, never()).setStatus(503);
+        assertEquals(0, meterRegistry.get("auth.load_shedding.in_flight").gauge().value());
+    }
+
+    @Test
+    void whenDisabled_thenSkipsFilter() {
+        properties.setEnabled(false);
+        LoadSheddingFilter filter = new LoadSheddingFilter(properties, meterRegistry);
+
+        assertTrue(filter.shouldNotFilter(request("/api/auth/register")));
+    }
+
+    private HttpServletRequest request(String path) {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        lenient().when(request.getRequestURI()).thenReturn(path);
+        lenient().when(request.getMethod()).thenReturn("POST");
+        return request;
+    }
+
+    // mantem requisicoes CRITICAL em andamento em outras threads / keeps CRITICAL requests in flight on other threads
+    private Blocked occupy(LoadSheddingFilter filter, int count) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        CountDownLatch entered = new CountDownLatch(count);
+        CountDownLatch release = new CountDownLatch(1);
+        List<HttpServletRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(request("/api/auth/refresh"));
+        }
+        for (HttpServletRequest request : requests) {
+            executor.submit(() -> {
+                filter.doFilterInternal(request, mock(HttpServletResponse.class), (req, res) -> {
+                    entered.countDown();
+                    await(release);
+                });
+                return null;
+            });
+        }
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        return new Blocked(executor, release);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Blocked(ExecutorService executor, CountDownLatch release) implements AutoCloseable {
+        @Override
+        public void close() throws InterruptedException {
+            release.countDown();
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.RateLimitProperties;
+import io.github.bucket4j.Bucket;
+import io.github.bucket4j.ConsumptionProbe;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers(disabledWithoutDocker = true)
+class PostgresBucketProviderTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static DataSource dataSource;
+    private static JdbcTemplate jdbc;
+
+    private final RateLimitPolicy policy = new RateLimitPolicy(0, "login", 5, Duration.ofMinutes(1));
+
+    @BeforeAll
+    static void createTable() throws Exception {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("db/migration/V3__create_rate_limit_buckets.sql"));
+            // arquivo inteiro em um comando: o driver respeita o corpo $$ da funcao / whole file at once, the driver keeps $$ intact
+            ScriptUtils.executeSqlScript(connection,
+                    new EncodedResource(new ClassPathResource("db/migration/V13__rate_limit_buckets_updated_at.sql")),
+                    false, false, ScriptUtils.DEFAULT_COMMENT_PREFIX, ScriptUtils.EOF_STATEMENT_SEPARATOR,
+                    ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER, ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+        }
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    private long key(String ip) {
+        return RateLimitKey.pack(policy.id(), IpAddresses.fingerprint(ip), 0);
+    }
+
+    private static PostgresBucketProvider provider(RateLimitProperties.Optimization optimization) {
+        RateLimitProperties.Distributed settings = new RateLimitProperties.Distributed();
+        settings.setOptimization(optimization);
+        return new PostgresBucketProvider(dataSource, settings, Duration.ofHours(1));
+    }
+
+    // como o pool de RateLimitStoreConfig: cada conexao ja abre com statement_timeout / like the dedicated pool
+    private static PostgresBucketProvider providerWithTimeout(boolean failOpen) {
+        RateLimitProperties.Distributed settings = new RateLimitProperties.Distributed();
+        settings.setOptimization(RateLimitProperties.Optimization.NONE);
+        settings.setFailOpen(failOpen);
+        DataSource timed = new DriverManagerDataSource(POSTGRES.getJdbcUrl() + "&options=-c%20statement_timeout=100",
+                POSTGRES.getUsername(), POSTGRES.getPassword());
+        return new PostgresBucketProvider(timed, settings, Duration.ofHours(1));
+    }
+
+    // segura a linha e o advisory lock do bucket, como uma instancia travada no meio da sincronizacao
+    // holds the bucket's row and advisory lock, like an instance stuck mid-sync
+    private static void whileBucketIsLocked(long key, Runnable action) throws Exception {
+        try (Connection blocker = dataSource.getConnection()) {
+            blocker.setAutoCommit(false);
+            try (Statement statement = blocker.createStatement()) {
+                statement.execute("SELECT pg_advisory_xact_lock(" + key + ")");
+                statement.execute("SELECT id FROM rate_limit_buckets WHERE id = " + key + " FOR UPDATE");
+                action.run();
+            } finally {
+                blocker.rollback();
+            }
+        }
+    }
+
+    @Test
+    void whenStoreTimesOutAndFailOpen_thenRequestIsAllowedAndCounted() throws Exception {
+        long key = key("10.0.0.5");
+        PostgresBucketProvider provider = providerWithTimeout(true);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        provider.bindTo(registry);
+        Bucket bucket = provider.create(key, policy);
+        assertTrue(provider.tryConsume(bucket, policy).isConsumed());
+
+        whileBucketIsLocked(key, () -> assertTrue(provider.tryConsume(bucket, policy).isConsumed()));
+
+        assertEquals(1, registry.get("auth.rate_limit.store_failures").tag("on_failure", "allow").functionCounter().count());
+        assertEquals(3, provider.tryConsume(bucket, policy).getRemainingTokens());
+    }
+
+    @Test
+    void whenStoreTimesOutAndFailClosed_thenRequestIsRejected() throws Exception {
+        long key = key("10.0.0.6");
+        PostgresBucketProvider provider = providerWithTimeout(false);
+        Bucket bucket = provider.create(key, policy);
+        assertTrue(provider.tryConsume(bucket, policy).isConsumed());
+
+        whileBucketIsLocked(key, () -> {
+            ConsumptionProbe probe = provider.tryConsume(bucket, policy);
+            assertFalse(probe.isConsumed());
+            assertTrue(probe.getNanosToWaitForRefill() > 0);
+        });
+    }
+
+    @Test
+    void whenBucketIdleLongerThanLongestPeriod_thenCleanupDeletesOnlyThatRow() {
+        PostgresBucketProvider provider = provider(RateLimitProperties.Optimization.NONE);
+        long idle = key("10.0.0.7");
+        long active = key("10.0.0.8");
+        assertTrue(provider.create(idle, policy).tryConsume(1));
+        assertTrue(provider.create(active, policy).tryConsume(1));
+        jdbc.update("UPDATE rate_limit_buckets SET updated_at = now() - interval '2 hours' WHERE id = ?", idle);
+
+        provider.deleteIdleBuckets();
+
+        assertEquals(0, jdbc.queryForObject("SELECT count(*) FROM rate_limit_buckets WHERE id = ?", Long.class, idle));
+        assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM rate_limit_buckets WHERE id = ?", Long.class, active));
+    }
+
+    @Test
+    void whenBucketIsConsumed_thenUpdatedAtMovesForward() {
+        long key = key("10.0.0.9");
+        Bucket bucket = provider(RateLimitProperties.Optimization.NONE).create(key, policy);
+        assertTrue(bucket.tryConsume(1));
+        jdbc.update("UPDATE rate_limit_buckets SET updated_at = now() - interval '2 hours' WHERE id = ?", key);
+
+        assertTrue(bucket.tryConsume(1));
+
+        assertTrue(jdbc.queryForObject(
+                "SELECT updated_at > now() - interval '1 minute' FROM rate_limit_buckets WHERE id = ?", Boolean.class, key));
+    }
+
+    @Test
+    void whenTwoNodesShareTheSameKey_thenLimitIsEnforcedGlobally() {
+        Bucket nodeA = provider(RateLimitProperties.Optimization.NONE).create(key("10.0.0.1"), policy);
+        Bucket nodeB = provider(RateLimitProperties.Optimization.NONE).create(key("10.0.0.1"), policy);
+
+        int consumed = 0;
+        for (int i = 0; i < 5; i++) {
+            if (nodeA.tryConsume(1)) consumed++;
+            if (nodeB.tryConsume(1)) consumed++;
+        }
+
+        assertEquals(5, consumed);
+    }
+
+    @Test
+    void whenDifferentKeys_thenBucketsAreIndependent() {
+        PostgresBucketProvider provider = provider(RateLimitProperties.Optimization.NONE);
+        Bucket first = provider.create(key("10.0.0.2"), policy);
+        Bucket second = provider.create(key("10.0.0.3"), policy);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(first.tryConsume(1));
+        }
+
+        assertFalse(first.tryConsume(1));
+        assertTrue(second.tryConsume(1));
+    }
+
+    @Test
+    void whenDelayingOptimization_thenStillRejectsOnceSynchronized() {
+        Bucket bucket = provider(RateLimitProperties.Optimization.DELAYING).create(key("10.0.0.4"), policy);
+
+        int consumed = 0;
+        for (int i = 0; i < 20; i++) {
+            if (bucket.tryConsume(1)) consumed++;
+        }
+
+        assertTrue(consumed >= 5 && consumed <= 5 + 2, "consumed " + consumed);
+    }
+}
@@ -0,0 +1,97 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.benchmark.BenchmarkSupport;
+import com.macedo.auth.authsystem.config.RateLimitProperties;
+import com.macedo.auth.authsystem.config.SecurityLoggingProperties;
+import com.macedo.auth.authsystem.security.SecurityEventLogger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Bytes allocated by {@link RateLimitFilter} per accepted request. The request and response
+ * stubs return constants and drop headers, so only the filter's own allocations are counted.
+ */
+@Tag("benchmark")
+class RateLimitFilterBenchmark {
+
+    private static final int WARMUP = 200_000;
+    private static final int ITERATIONS = 1_000_000;
+
+    @Test
+    void acceptedRequest() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.Policy policy = new RateLimitProperties.Policy();
+        policy.setPath("/bench/**");
+        policy.setCapacity(Integer.MAX_VALUE);
+        properties.getPolicies().put("bench", policy);
+        RateLimitFilter filter = new RateLimitFilter(properties, new LocalBucketProvider(),
+                new SecurityEventLogger(new SecurityLoggingProperties()), new SimpleMeterRegistry());
+
+        StubRequest ipv4 = new StubRequest("/bench/login", "203.0.113.7");
+        StubRequest ipv6 = new StubRequest("/bench/login", "2001:db8:85a3::8a2e:370:7334");
+        StubRequest unmatched = new StubRequest("/api/user/me", "203.0.113.7");
+        StubResponse response = new StubResponse();
+        FilterChain chain = (req, res) -> { };
+
+        BenchmarkSupport.run("rate limit, IPv4 client", WARMUP, ITERATIONS,
+                () -> filter.doFilterInternal(ipv4, response, chain));
+        BenchmarkSupport.run("rate limit, IPv6 client", WARMUP, ITERATIONS,
+                () -> filter.doFilterInternal(ipv6, response, chain));
+        BenchmarkSupport.run("no policy for path", WARMUP, ITERATIONS,
+                () -> filter.doFilterInternal(unmatched, response, chain));
+    }
+
+    private static final class StubRequest extends HttpServletRequestWrapper {
+
+        private final String uri;
+        private final String clientIp;
+
+        private StubRequest(String uri, String clientIp) {
+            super(new MockHttpServletRequest());
+            this.uri = uri;
+            this.clientIp = clientIp;
+        }
+
+        @Override
+        public String getMethod() {
+            return "POST";
+        }
+
+        @Override
+        public String getRequestURI() {
+            return uri;
+        }
+
+        @Override
+        public String getRemoteAddr() {
+            return "10.0.0.1";
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return ClientIpResolver.CLIENT_IP_ATTRIBUTE.equals(name) ? clientIp : null;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return "User-Agent".equals(name) ? "Mozilla/5.0 (benchmark)" : null;
+        }
+    }
+
+    private static final class StubResponse extends HttpServletResponseWrapper {
+
+        private StubResponse() {
+            super(new MockHttpServletResponse());
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+        }
+    }
+}
@@ -1,17 +1,27 @@
 package com.macedo.auth.authsystem.filter;
 
+import com.macedo.auth.authsystem.config.RateLimitProperties;
+import com.macedo.auth.authsystem.config.RateLimitPropertiesFixture;
+import com.macedo.auth.authsystem.config.SecurityLoggingProperties;
+import com.macedo.auth.authsystem.security.SecurityEventLogger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,11 +41,20 @@ class RateLimitFilterTest {
     private FilterChain filterChain;
 
     @Mock
-    private PrintWriter writer;
+    private ServletOutputStream outputStream;
+
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() {
-        rateLimitFilter = new RateLimitFilter();
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitFilter = new RateLimitFilter(RateLimitPropertiesFixture.fromApplicationProperties(),
+                new LocalBucketProvider(), new SecurityEventLogger(new SecurityLoggingProperties()), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
     }
 
     @Test
@@ -68,7 +87,7 @@ class RateLimitFilterTest {
         when(request.getMethod()).thenReturn("POST");
         when(request.getRequestURI()).thenReturn("/api/auth/login");
         when(request.getRemoteAddr()).thenReturn("192.168.1.1");
-        when(response.getWriter()).thenReturn(writer);
+        when(response.getOutputStream()).thenReturn(outputStream);
 
         for (int i = 0; i < 5; i++) {
             rateLimitFilter.doFilterInternal(request, response, filterChain);
@@ -80,6 +99,32 @@ class RateLimitFilterTest {
         verify(response).setContentType("application/json");
     }
 
+    @Test
+    void whenRequestsChecked_thenCountsPerPolicyAndOutcome() throws ServletException, IOException {
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getRequestURI()).thenReturn("/api/auth/login");
+        when(request.getRemoteAddr()).thenReturn("192.168.1.3");
+        when(response.getOutputStream()).thenReturn(outputStream);
+
+        for (int i = 0; i < 7; i++) {
+            rateLimitFilter.doFilterInternal(request, response, filterChain);
+        }
+
+        assertEquals(5, requests("login", "accepted"));
+        assertEquals(2, requests("login", "rejected"));
+        assertEquals(0, requests("register", "accepted"));
+        assertEquals(1, meterRegistry.get("auth.rate_limit.buckets").tag("stage", "client").gauge().value());
+        assertEquals(6, meterRegistry.get("auth.rate_limit.bucket_lookups").tag("result", "hit").functionCounter().count());
+    }
+
+    private double requests(String policy, String outcome) {
+        return meterRegistry.get("auth.rate_limit.requests")
+                .tag("stage", "client")
+                .tag("policy", policy)
+                .tag("outcome", outcome)
+                .counter().count();
+    }
+
     @Test
     void whenRegisterRequestUnderLimit_thenSucceeds() throws ServletException, IOException {
         when(request.getMethod()).thenReturn("POST");
@@ -99,7 +144,7 @@ class RateLimitFilterTest {
         when(request.getMethod()).thenReturn("POST");
         when(request.getRequestURI()).thenReturn("/api/auth/register");
         when(request.getRemoteAddr()).thenReturn("192.168.1.2");
-        when(response.getWriter()).thenReturn(writer);
+        when(response.getOutputStream()).thenReturn(outputStream);
 
         for (int i = 0; i < 3; i++) {
             rateLimitFilter.doFilterInternal(request, response, filterChain);
@@ -139,4 +184,69 @@ class RateLimitFilterTest {
         verify(filterChain).doFilter(request, response);
         verify(response, never()).setStatus(429);
     }
+
+    @Test
+    void whenAdminDetailPath_thenUsesDetailLimitInsteadOfListLimit() throws ServletException, IOException {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getRequestURI()).thenReturn("/api/admin/users/42");
+        when(request.getRemoteAddr()).thenReturn("10.0.0.1");
+
+        rateLimitFilter.doFilterInternal(request, response, filterChain);
+
+        verify(response).setHeader("X-RateLimit-Limit", "50");
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void whenAuthenticatedOnRouteWithUserPolicy_thenLeavesItToTheUserStage() throws ServletException, IOException {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "admin@example.com", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN"))));
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getRequestURI()).thenReturn("/api/admin/users/42/roles");
+
+        // admin-default permite 20/min por IP; o limite do usuario (120/min) fica com o UserRateLimitFilter
+        for (int i = 0; i < 40; i++) {
+            rateLimitFilter.doFilterInternal(request, response, filterChain);
+        }
+
+        verify(filterChain, times(40)).doFilter(request, response);
+        verify(response, never()).setStatus(429);
+    }
+
+    @Test
+    void whenAnonymousOnRouteWithUserPolicy_thenIpLimitStillApplies() throws ServletException, IOException {
+        when(request.getMethod()).thenReturn("POST");
+        when(request.getRequestURI()).thenReturn("/api/admin/users/42/roles");
+        when(request.getRemoteAddr()).thenReturn("10.0.0.9");
+        when(response.getOutputStream()).thenReturn(outputStream);
+
+        for (int i = 0; i < 21; i++) {
+            rateLimitFilter.doFilterInternal(request, response, filterChain);
+        }
+
+        verify(filterChain, times(20)).doFilter(request, response);
+        verify(response).setStatus(429);
+    }
+
+    @Test
+    void whenCustomPolicyConfigured_thenAppliesWithoutCodeChanges() throws ServletException, IOException {
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimitProperties.Policy sessions = new RateLimitProperties.Policy();
+        sessions.setPath("/api/user/sessions/**");
+        sessions.setCapacity(1);
+        properties.getPolicies().put("sessions", sessions);
+        rateLimitFilter = new RateLimitFilter(properties, new LocalBucketProvider(),
+                new SecurityEventLogger(new SecurityLoggingProperties()), new SimpleMeterRegistry());
+
+        when(request.getMethod()).thenReturn("DELETE");
+        when(request.getRequestURI()).thenReturn("/api/user/sessions/7");
+        when(request.getRemoteAddr()).thenReturn("10.0.0.2");
+        when(response.getOutputStream()).thenReturn(outputStream);
+
+        rateLimitFilter.doFilterInternal(request, response, filterChain);
+        rateLimitFilter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain, times(1)).doFilter(request, response);
+        verify(response).setStatus(429);
+    }
 }
@@ -0,0 +1,83 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.benchmark.BenchmarkSupport;
+import com.macedo.auth.authsystem.config.RateLimitProperties;
+import io.github.bucket4j.Bucket;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.EncodedResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+/**
+ * Added latency of a single rate-limit check, local vs. PostgreSQL with each optimization.
+ * The capacity is large enough that no check is ever rejected.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class RateLimitStoreBenchmark {
+
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 20_000;
+    private static final RateLimitPolicy POLICY =
+            new RateLimitPolicy(0, "benchmark", 1_000_000_000, Duration.ofMinutes(1));
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static DataSource dataSource;
+
+    @BeforeAll
+    static void createTable() throws Exception {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("db/migration/V3__create_rate_limit_buckets.sql"));
+            // o trigger de updated_at faz parte do custo de cada sincronizacao / the updated_at trigger is part of every sync
+            ScriptUtils.executeSqlScript(connection,
+                    new EncodedResource(new ClassPathResource("db/migration/V13__rate_limit_buckets_updated_at.sql")),
+                    false, false, ScriptUtils.DEFAULT_COMMENT_PREFIX, ScriptUtils.EOF_STATEMENT_SEPARATOR,
+                    ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER, ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+        }
+    }
+
+    @Test
+    void local() throws Exception {
+        measure("local", new LocalBucketProvider());
+    }
+
+    @Test
+    void postgresUnoptimized() throws Exception {
+        measure("postgres (none)", postgres(RateLimitProperties.Optimization.NONE));
+    }
+
+    @Test
+    void postgresBatching() throws Exception {
+        measure("postgres (batching)", postgres(RateLimitProperties.Optimization.BATCHING));
+    }
+
+    @Test
+    void postgresDelaying() throws Exception {
+        measure("postgres (delaying, 2 tokens / 500ms)", postgres(RateLimitProperties.Optimization.DELAYING));
+    }
+
+    private static RateLimitBucketProvider postgres(RateLimitProperties.Optimization optimization) {
+        RateLimitProperties.Distributed settings = new RateLimitProperties.Distributed();
+        settings.setOptimization(optimization);
+        return new PostgresBucketProvider(dataSource, settings, Duration.ofHours(1));
+    }
+
+    private static void measure(String name, RateLimitBucketProvider provider) throws Exception {
+        Bucket bucket = provider.create(RateLimitKey.pack(POLICY.id(), name.hashCode(), 0), POLICY);
+        BenchmarkSupport.run(name, WARMUP, ITERATIONS, () -> bucket.tryConsumeAndReturnRemaining(1));
+    }
+}
@@ -0,0 +1,101 @@
+package com.macedo.auth.authsystem.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteTableTest {
+
+    private RouteTable<String> table;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, String> routes = new LinkedHashMap<>();
+        routes.put("/api/auth/login/**", "login");
+        routes.put("/api/admin/users", "admin-list");
+        routes.put("/api/admin/users/{id}", "admin-detail");
+        routes.put("/api/admin/**", "admin-default");
+        routes.put("/api/user/*/avatar", "avatar");
+        table = RouteTable.compile(routes);
+    }
+
+    @Test
+    void whenExactLiteralPath_thenMatches() {
+        assertEquals("admin-list", table.match("/api/admin/users"));
+        assertEquals("admin-list", table.match("/api/admin/users/"));
+    }
+
+    @Test
+    void whenPrefixPattern_thenMatchesPathAndDescendants() {
+        assertEquals("login", table.match("/api/auth/login"));
+        assertEquals("login", table.match("/api/auth/login/"));
+        assertEquals("login", table.match("/api/auth/login/extra"));
+    }
+
+    @Test
+    void whenNumericSegment_thenMatchesIdPlaceholder() {
+        assertEquals("admin-detail", table.match("/api/admin/users/42"));
+    }
+
+    @Test
+    void whenNonNumericSegment_thenFallsBackToDeepestPrefix() {
+        assertEquals("admin-default", table.match("/api/admin/users/abc"));
+        assertEquals("admin-default", table.match("/api/admin/users/42/roles"));
+        assertEquals("admin-default", table.match("/api/admin"));
+    }
+
+    @Test
+    void whenWildcardSegment_thenMatchesAnySingleSegment() {
+        assertEquals("avatar", table.match("/api/user/me/avatar"));
+        assertNull(table.match("/api/user/me"));
+    }
+
+    @Test
+    void whenPreferredBranchDeadEnds_thenBacktracksToNextOne() {
+        Map<String, String> routes = new LinkedHashMap<>();
+        routes.put("/api/users/me/**", "me");
+        routes.put("/api/users/me/settings", "settings");
+        routes.put("/api/users/*/sessions", "sessions");
+        routes.put("/api/users/{id}/roles", "roles");
+        RouteTable<String> overlapping = RouteTable.compile(routes);
+
+        assertEquals("sessions", overlapping.match("/api/users/me/sessions"));
+        assertEquals("settings", overlapping.match("/api/users/me/settings"));
+        assertEquals("me", overlapping.match("/api/users/me/other"));
+        assertEquals("roles", overlapping.match("/api/users/7/roles"));
+        assertEquals("sessions", overlapping.match("/api/users/7/sessions"));
+        assertNull(overlapping.match("/api/users/7/other"));
+    }
+
+    @Test
+    void whenPrefixesOnSeveralBranches_thenDeepestWins() {
+        Map<String, String> routes = new LinkedHashMap<>();
+        routes.put("/api/users/me/**", "me");
+        routes.put("/api/users/*/sessions/**", "sessions");
+        RouteTable<String> overlapping = RouteTable.compile(routes);
+
+        assertEquals("sessions", overlapping.match("/api/users/me/sessions/9"));
+        assertEquals("me", overlapping.match("/api/users/me/avatar"));
+    }
+
+    @Test
+    void whenNoPatternMatches_thenReturnsNull() {
+        assertNull(table.match("/api/v1/auth/login"));
+        assertNull(table.match("/api/auth/loginx"));
+        assertNull(table.match("/"));
+        assertNull(table.match(null));
+    }
+
+    @Test
+    void whenDuplicatePattern_thenRejectsAtCompileTime() {
+        Map<String, String> routes = new LinkedHashMap<>();
+        routes.put("/api/admin/users/{id}", "a");
+        routes.put("/api/admin/users/{userId}", "b");
+
+        assertThrows(IllegalArgumentException.class, () -> RouteTable.compile(routes));
+    }
+}
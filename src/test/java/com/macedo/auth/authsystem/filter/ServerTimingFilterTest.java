@@ -0,0 +1,89 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.ServerTimingProperties;
+import com.macedo.auth.authsystem.monitoring.ServerTiming;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerTimingFilterTest {
+
+    private static final String TOKEN = "s3cret";
+
+    // simula as fases gravadas pelos filtros e servicos / simulates phases recorded downstream
+    private final FilterChain chain = (request, response) -> {
+        ServerTiming.stop("rate-limit", ServerTiming.start());
+        ServerTiming.stop("password-hash", ServerTiming.start());
+        ServerTiming.stop("password-hash", ServerTiming.start());
+        response.getWriter().write("{}");
+    };
+
+    @AfterEach
+    void tearDown() {
+        ServerTiming.setEnabled(false);
+    }
+
+    @Test
+    void whenTokenMatches_thenAddsServerTimingHeader() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.addHeader("X-Server-Timing-Token", TOKEN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter(true).doFilter(request, response, chain);
+
+        String header = response.getHeader(ServerTimingFilter.HEADER);
+        assertNotNull(header);
+        assertTrue(header.matches("rate-limit;dur=\\d+\\.\\d{3}, password-hash;dur=\\d+\\.\\d{3}, total;dur=\\d+\\.\\d{3}"), header);
+        assertEquals(ServerTiming.OFF, ServerTiming.start());
+    }
+
+    @Test
+    void whenTokenMissingOrWrong_thenNoHeader() throws ServletException, IOException {
+        ServerTimingFilter filter = filter(true);
+
+        MockHttpServletRequest withoutToken = new MockHttpServletRequest("POST", "/api/auth/login");
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        filter.doFilter(withoutToken, first, chain);
+
+        MockHttpServletRequest wrongToken = new MockHttpServletRequest("POST", "/api/auth/login");
+        wrongToken.addHeader("X-Server-Timing-Token", "guess");
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        filter.doFilter(wrongToken, second, chain);
+
+        assertNull(first.getHeader(ServerTimingFilter.HEADER));
+        assertNull(second.getHeader(ServerTimingFilter.HEADER));
+    }
+
+    @Test
+    void whenDisabled_thenTimerIsOffEvenWithToken() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.addHeader("X-Server-Timing-Token", TOKEN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter(false).doFilter(request, response, (req, res) -> assertEquals(ServerTiming.OFF, ServerTiming.start()));
+
+        assertNull(response.getHeader(ServerTimingFilter.HEADER));
+    }
+
+    @Test
+    void whenEnabledWithoutToken_thenFailsAtStartup() {
+        ServerTimingProperties properties = new ServerTimingProperties();
+        properties.setEnabled(true);
+
+        assertThrows(IllegalStateException.class, () -> new ServerTimingFilter(properties));
+    }
+
+    private static ServerTimingFilter filter(boolean enabled) {
+        ServerTimingProperties properties = new ServerTimingProperties();
+        properties.setEnabled(enabled);
+        properties.setToken(TOKEN);
+        return new ServerTimingFilter(properties);
+    }
+}
@@ -0,0 +1,163 @@
+package com.macedo.auth.authsystem.filter;
+
+import com.macedo.auth.authsystem.config.RateLimitProperties;
+import com.macedo.auth.authsystem.config.RateLimitPropertiesFixture;
+import com.macedo.auth.authsystem.config.SecurityLoggingProperties;
+import com.macedo.auth.authsystem.security.SecurityEventLogger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserRateLimitFilterTest {
+
+    private UserRateLimitFilter filter;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private final CapturingOutputStream body = new CapturingOutputStream();
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = RateLimitPropertiesFixture.fromApplicationProperties(
+                "rate-limit.user-policies.user.capacity=3");
+        filter = new UserRateLimitFilter(properties, new LocalBucketProvider(),
+                new SecurityEventLogger(new SecurityLoggingProperties()), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void whenUserExceedsQuota_thenReturns429() throws ServletException, IOException {
+        when(request.getRequestURI()).thenReturn("/api/user/me");
+        when(response.getOutputStream()).thenReturn(body);
+        authenticate("noisy@example.com");
+
+        for (int i = 0; i < 4; i++) {
+            filter.doFilterInternal(request, response, filterChain);
+        }
+
+        verify(filterChain, times(3)).doFilter(request, response);
+        verify(response).setStatus(429);
+        assertTrue(body.toString().contains("\"code\":\"RATE_LIMIT_EXCEEDED\""));
+
+        // mesmos cabecalhos do estagio por IP, aceitas e rejeitada / same headers as the IP stage, accepted and rejected
+        verify(response, times(4)).setHeader("X-RateLimit-Limit", "3");
+        verify(response).setHeader("X-RateLimit-Remaining", "2");
+        verify(response).setHeader("X-RateLimit-Remaining", "1");
+        verify(response, times(2)).setHeader("X-RateLimit-Remaining", "0");
+        verify(response, times(4)).setHeader(eq("X-RateLimit-Reset"), anyString());
+        verify(response).setHeader(eq("Retry-After"), anyString());
+    }
+
+    @Test
+    void whenUsersShareAnAddress_thenQuotasAreIndependent() throws ServletException, IOException {
+        when(request.getRequestURI()).thenReturn("/api/user/me");
+        when(response.getOutputStream()).thenReturn(body);
+
+        authenticate("noisy@example.com");
+        for (int i = 0; i < 4; i++) {
+            filter.doFilterInternal(request, response, filterChain);
+        }
+
+        authenticate("quiet@example.com");
+        filter.doFilterInternal(request, response, filterChain);
+
+        verify(filterChain, times(4)).doFilter(request, response);
+        verify(response, times(1)).setStatus(429);
+    }
+
+    @Test
+    void whenUnauthenticated_thenNotLimitedByUserStage() throws ServletException, IOException {
+        when(request.getRequestURI()).thenReturn("/api/user/me");
+
+        for (int i = 0; i < 10; i++) {
+            filter.doFilterInternal(request, response, filterChain);
+        }
+
+        verify(filterChain, times(10)).doFilter(request, response);
+        verify(response, never()).setStatus(429);
+    }
+
+    @Test
+    void whenPathHasNoUserPolicy_thenPassesThrough() throws ServletException, IOException {
+        when(request.getRequestURI()).thenReturn("/api/auth/login");
+        authenticate("noisy@example.com");
+
+        for (int i = 0; i < 10; i++) {
+            filter.doFilterInternal(request, response, filterChain);
+        }
+
+        verify(filterChain, times(10)).doFilter(request, response);
+    }
+
+    @Test
+    void subjectKeysNeverCollideWithClientKeys() {
+        long subjectKey = RateLimitKey.packSubject(0, "noisy@example.com");
+        long clientKey = RateLimitKey.pack(0, IpAddresses.fingerprint("10.0.0.1"), "curl/8".hashCode());
+
+        assertTrue(RateLimitKey.isSubject(subjectKey));
+        assertFalse(RateLimitKey.isSubject(clientKey));
+        assertEquals(0, RateLimitKey.policyId(subjectKey));
+    }
+
+    private void authenticate(String email) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                email, null, List.of(new SimpleGrantedAuthority("ROLE_USER"))));
+    }
+
+    private static final class CapturingOutputStream extends ServletOutputStream {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        @Override
+        public void write(int b) {
+            bytes.write(b);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+        }
+
+        @Override
+        public String toString() {
+            return bytes.toString(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.macedo.auth.authsystem.monitoring;
+
+import com.macedo.auth.authsystem.security.TimedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthJfrEventsTest {
+
+    private static final List<String> EVENTS = List.of(
+            "com.macedo.auth.TokenVerify",
+            "com.macedo.auth.PasswordHash",
+            "com.macedo.auth.UserLookup",
+            "com.macedo.auth.RateLimitDecision",
+            "com.macedo.auth.RefreshRotation");
+
+    private static Configuration profile;
+
+    @BeforeAll
+    static void loadProfile() throws Exception {
+        try (Reader reader = new InputStreamReader(Objects.requireNonNull(
+                AuthJfrEventsTest.class.getResourceAsStream("/jfr/auth-system.jfc")), StandardCharsets.UTF_8)) {
+            profile = Configuration.create(reader);
+        }
+    }
+
+    @Test
+    void shippedProfileEnablesEveryAuthEvent() {
+        for (String event : EVENTS) {
+            assertEquals("true", profile.getSettings().get(event + "#enabled"), event);
+        }
+    }
+
+    @Test
+    void whenRecordingWithProfile_thenPasswordHashEventsAreWritten(@TempDir Path dir) throws Exception {
+        List<RecordedEvent> events = record(new Recording(profile), dir);
+
+        assertEquals(2, events.size());
+        assertEquals("encode", events.get(0).getString("operation"));
+        assertEquals("matches", events.get(1).getString("operation"));
+        assertEquals("mismatch", events.get(1).getString("outcome"));
+        assertTrue(events.get(1).getDuration().toNanos() > 0);
+    }
+
+    @Test
+    void whenRecordingWithoutProfile_thenAuthEventsStayDisabled(@TempDir Path dir) throws Exception {
+        assertTrue(record(new Recording(), dir).isEmpty());
+    }
+
+    private static List<RecordedEvent> record(Recording recording, Path dir) throws Exception {
+        TimedPasswordEncoder encoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(4), new SimpleMeterRegistry());
+        Path file = dir.resolve("auth.jfr");
+        try (recording) {
+            recording.start();
+            String hash = encoder.encode("Password@123");
+            encoder.matches("wrong", hash);
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("com.macedo.auth.PasswordHash"))
+                .toList();
+    }
+}
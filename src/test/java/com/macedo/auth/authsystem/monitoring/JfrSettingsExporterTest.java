@@ -0,0 +1,30 @@
+package com.macedo.auth.authsystem.monitoring;
+
+import com.macedo.auth.authsystem.config.JfrProperties;
+import jdk.jfr.Configuration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JfrSettingsExporterTest {
+
+    @Test
+    void whenSettingsFileConfigured_thenProfileIsExtractedAndLoadableFromThePath(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("jfr/auth-system.jfc");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "stale");
+        JfrProperties props = new JfrProperties();
+        props.setSettingsFile(file);
+
+        new JfrSettingsExporter(props).export();
+
+        // o mesmo caminho que jcmd JFR.start settings=<arquivo> usaria / the path jcmd JFR.start settings=<file> would use
+        Configuration profile = Configuration.create(file);
+        assertEquals("Auth System", profile.getLabel());
+        assertEquals("true", profile.getSettings().get("com.macedo.auth.PasswordHash#enabled"));
+    }
+}
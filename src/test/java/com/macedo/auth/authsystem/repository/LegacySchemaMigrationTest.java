@@ -0,0 +1,92 @@
+package com.macedo.auth.authsystem.repository;
+
+import com.macedo.auth.authsystem.entity.User;
+import jakarta.persistence.EntityManager;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.CoreMigrationType;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Upgrade path of a database created by the old {@code ddl-auto=update}: the schema and rows are
+ * in place before the context starts, Flyway baselines it at version 1 and applies V2 onwards, and
+ * JPA then has to validate against the result.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class LegacySchemaMigrationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    // roda antes do contexto (e do Flyway) subir / runs before the context (and Flyway) starts
+    @BeforeAll
+    static void createLegacySchema() throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/legacy-ddl-auto-schema.sql"));
+        }
+    }
+
+    @Test
+    void existingSchemaIsBaselinedAtV1AndMigratedFromV2() {
+        MigrationInfo[] applied = flyway.info().applied();
+
+        assertEquals(CoreMigrationType.BASELINE, applied[0].getType());
+        assertEquals("1", applied[0].getVersion().getVersion());
+        assertEquals("2", applied[1].getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+        assertTrue(flyway.validateWithResult().validationSuccessful);
+    }
+
+    @Test
+    void legacyRowsAreFixedUp() {
+        assertEquals(0, jdbc.queryForObject("SELECT failed_attempts FROM users WHERE id = 1", Integer.class));
+        assertEquals(Boolean.FALSE, jdbc.queryForObject("SELECT account_locked FROM users WHERE id = 1", Boolean.class));
+    }
+
+    @Test
+    void generatedOneToOneConstraintIsDropped() {
+        jdbc.update("INSERT INTO refresh_tokens (user_id, token, expiry_date, revoked, created_at) "
+                + "VALUES (120, 'second-token', now() + interval '1 day', false, now())");
+
+        assertEquals(2, jdbc.queryForObject("SELECT count(*) FROM refresh_tokens WHERE user_id = 120", Long.class));
+    }
+
+    @Test
+    void newIdsStartAboveTheLegacyOnes() {
+        User user = User.builder().name("New").email("new@example.com").password("hash").build();
+        entityManager.persist(user);
+        entityManager.flush();
+
+        assertTrue(user.getId() > 120, () -> "id " + user.getId());
+        assertTrue(jdbc.queryForObject("SELECT nextval(pg_get_serial_sequence('users', 'id'))", Long.class) > 120);
+    }
+}
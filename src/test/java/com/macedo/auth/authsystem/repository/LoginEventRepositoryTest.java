@@ -0,0 +1,130 @@
+package com.macedo.auth.authsystem.repository;
+
+import com.macedo.auth.authsystem.entity.LoginEvent;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers(disabledWithoutDocker = true)
+class LoginEventRepositoryTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final YearMonth JANUARY = YearMonth.of(2025, 1);
+    private static final YearMonth FEBRUARY = YearMonth.of(2025, 2);
+    private static final YearMonth MARCH = YearMonth.of(2025, 3);
+
+    private static JdbcTemplate jdbc;
+    private static LoginEventRepository repository;
+
+    @BeforeAll
+    static void createTable() throws Exception {
+        DataSource dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("db/migration/V4__create_login_events.sql"));
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("db/migration/V12__login_events_default_partition.sql"));
+        }
+        jdbc = new JdbcTemplate(dataSource);
+        repository = new LoginEventRepository(jdbc);
+        repository.createPartition(JANUARY);
+        repository.createPartition(FEBRUARY);
+        repository.createPartition(MARCH);
+    }
+
+    private static Instant at(YearMonth month, int day) {
+        return LoginEventRepository.start(month).plus(day - 1L, ChronoUnit.DAYS);
+    }
+
+    @Test
+    void whenBatchInserted_thenRowsLandInTheirMonthPartitions() {
+        List<LoginEvent> batch = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            batch.add(new LoginEvent(1, at(i % 2 == 0 ? JANUARY : FEBRUARY, 1 + i % 28), true, "10.0.0.1", "JUnit"));
+        }
+
+        assertEquals(300, repository.insertAll(batch));
+        assertEquals(150, jdbc.queryForObject("SELECT count(*) FROM login_events_p202501 WHERE user_id = 1", Long.class));
+        assertEquals(150, jdbc.queryForObject("SELECT count(*) FROM login_events_p202502 WHERE user_id = 1", Long.class));
+    }
+
+    @Test
+    void whenHistoryQueried_thenNewestFirstAndOnlyTheRangePartitionIsScanned() {
+        repository.insertAll(List.of(
+                new LoginEvent(2, at(JANUARY, 10), true, "10.0.0.2", null),
+                new LoginEvent(2, at(MARCH, 3), false, "10.0.0.2", null),
+                new LoginEvent(2, at(MARCH, 5), true, "10.0.0.3", null)));
+
+        List<LoginEvent> march = repository.findByUser(2, LoginEventRepository.start(MARCH),
+                LoginEventRepository.start(MARCH.plusMonths(1)), 10);
+
+        assertEquals(2, march.size());
+        assertEquals(at(MARCH, 5), march.get(0).occurredAt());
+        assertFalse(march.get(1).success());
+        assertEquals(at(JANUARY, 10), repository.findLastSuccess(2, LoginEventRepository.start(JANUARY),
+                LoginEventRepository.start(FEBRUARY)).orElseThrow());
+
+        String plan = String.join("\n", jdbc.queryForList("""
+                EXPLAIN SELECT * FROM login_events
+                WHERE user_id = 2 AND occurred_at >= '2025-03-01T00:00:00Z' AND occurred_at < '2025-04-01T00:00:00Z'""",
+                String.class));
+        assertTrue(plan.contains("login_events_p202503"));
+        assertFalse(plan.contains("login_events_p202501"));
+        assertFalse(plan.contains("login_events_p202502"));
+    }
+
+    @Test
+    void whenPartitionDropped_thenItsRowsAreGone() {
+        YearMonth old = YearMonth.of(2020, 6);
+        repository.createPartition(old);
+        repository.insertAll(List.of(new LoginEvent(3, at(old, 1), true, null, null)));
+        assertTrue(repository.findPartitions().contains(old));
+
+        repository.dropPartition(old);
+
+        assertFalse(repository.findPartitions().contains(old));
+        assertTrue(repository.findLastSuccess(3, LoginEventRepository.start(old),
+                LoginEventRepository.start(old.plusMonths(1))).isEmpty());
+    }
+
+    @Test
+    void whenMonthHasNoPartition_thenRowsWaitInDefaultAndMoveWhenItIsCreated() {
+        YearMonth late = YearMonth.of(2021, 9);
+        repository.insertAll(List.of(
+                new LoginEvent(4, at(late, 2), true, null, null),
+                new LoginEvent(4, at(late.plusMonths(1), 2), true, null, null)));
+        assertEquals(2, jdbc.queryForObject("SELECT count(*) FROM login_events_default WHERE user_id = 4", Long.class));
+
+        repository.createPartition(late);
+
+        assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM login_events_p202109 WHERE user_id = 4", Long.class));
+        assertEquals(1, jdbc.queryForObject("SELECT count(*) FROM login_events_default WHERE user_id = 4", Long.class));
+        assertTrue(repository.findPartitions().contains(late));
+        assertEquals(at(late, 2), repository.findLastSuccess(4, LoginEventRepository.start(late),
+                LoginEventRepository.start(late.plusMonths(1))).orElseThrow());
+    }
+
+    @Test
+    void insertSqlHasOneTuplePerRow() {
+        assertEquals("INSERT INTO login_events (user_id, occurred_at, success, ip, user_agent) VALUES (?,?,?,?,?),(?,?,?,?,?)",
+                LoginEventRepository.insertSql(2));
+    }
+}
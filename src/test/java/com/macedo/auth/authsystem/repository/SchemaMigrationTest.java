@@ -0,0 +1,82 @@
+package com.macedo.auth.authsystem.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Builds an empty database from the Flyway migrations alone and starts JPA on it with
+ * {@code ddl-auto=validate}: the context only loads if every entity mapping matches the migrated
+ * schema, so a mapping change without its migration fails here (and at application startup).
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaMigrationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void allMigrationsApplyAndMatchTheEntities() {
+        assertEquals(0, flyway.info().pending().length);
+        assertTrue(flyway.validateWithResult().validationSuccessful);
+    }
+
+    @Test
+    void repositoryQueriesHaveTheirIndexes() {
+        List<String> indexes = jdbc.queryForList(
+                "SELECT indexname FROM pg_indexes WHERE schemaname = current_schema()", String.class);
+
+        assertTrue(indexes.containsAll(List.of(
+                "idx_refresh_token",
+                "idx_refresh_tokens_user",
+                "idx_refresh_tokens_user_active",
+                "idx_password_reset_token",
+                "idx_password_reset_email_active",
+                "idx_password_reset_expiry",
+                "idx_user_roles_role",
+                "idx_users_email_prefix",
+                "idx_users_created_at_id")), indexes::toString);
+    }
+
+    @Test
+    void activeSessionIndexIsPartial() {
+        String definition = jdbc.queryForObject(
+                "SELECT indexdef FROM pg_indexes WHERE indexname = 'idx_refresh_tokens_user_active'", String.class);
+
+        assertTrue(definition.contains("WHERE (revoked = false)"), definition);
+    }
+
+    @Test
+    void userMayHoldSeveralRefreshTokens() {
+        jdbc.update("INSERT INTO users (name, email, password, enabled, created_at, failed_attempts) "
+                + "VALUES ('A', 'a@example.com', 'hash', true, now(), 0)");
+        Long userId = jdbc.queryForObject("SELECT id FROM users WHERE email = 'a@example.com'", Long.class);
+
+        for (String token : List.of("t1", "t2")) {
+            jdbc.update("INSERT INTO refresh_tokens (user_id, token, expiry_date, revoked, created_at) "
+                    + "VALUES (?, ?, now() + interval '1 day', false, now())", userId, token);
+        }
+
+        assertEquals(2, jdbc.queryForObject("SELECT count(*) FROM refresh_tokens WHERE user_id = ?", Long.class, userId));
+    }
+}
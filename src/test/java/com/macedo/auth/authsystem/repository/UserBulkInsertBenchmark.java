@@ -0,0 +1,92 @@
+package com.macedo.auth.authsystem.repository;
+
+import com.macedo.auth.authsystem.benchmark.BenchmarkSupport;
+import com.macedo.auth.authsystem.entity.Role;
+import com.macedo.auth.authsystem.entity.RoleName;
+import com.macedo.auth.authsystem.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Set;
+
+/**
+ * Persists users (each with a {@code user_roles} row) in chunks of {@value #CHUNK}, once with JDBC
+ * batching switched off for the session and once with the configured {@code hibernate.jdbc.batch_size},
+ * and prints the statements each chunk prepares next to the latency.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class UserBulkInsertBenchmark {
+
+    private static final int CHUNK = 1_000;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 20;
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withUrlParam("reWriteBatchedInserts", "true");
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private int sequence;
+
+    @Test
+    void bulkInsert() throws Exception {
+        Role role = Role.builder().name(RoleName.ROLE_USER).build();
+        entityManager.persist(role);
+        entityManager.flush();
+
+        measure("no batching", role, 1);
+        measure("batch_size=50", role, 50);
+    }
+
+    private void measure(String name, Role role, int batchSize) throws Exception {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(batchSize);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        insertChunk(role);
+        System.out.printf("%s: %d statements per %d users%n", name, statistics.getPrepareStatementCount(), CHUNK);
+
+        BenchmarkSupport.run(name + " (" + CHUNK + " users)", WARMUP, ITERATIONS, () -> insertChunk(role));
+    }
+
+    private void insertChunk(Role role) {
+        for (int i = 0; i < CHUNK; i++) {
+            int n = sequence++;
+            entityManager.persist(User.builder()
+                    .name("User " + n)
+                    .email("bulk" + n + "@example.com")
+                    .password("hash")
+                    .roles(Set.of(role))
+                    .build());
+        }
+        // o papel fica destacado apos o clear; sem cascade, so o id dele e usado em user_roles
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
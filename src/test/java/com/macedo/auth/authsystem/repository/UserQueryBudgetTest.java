@@ -0,0 +1,161 @@
+package com.macedo.auth.authsystem.repository;
+
+import com.macedo.auth.authsystem.entity.Role;
+import com.macedo.auth.authsystem.entity.RoleName;
+import com.macedo.auth.authsystem.entity.User;
+import com.macedo.auth.authsystem.security.UserDetailsServiceImpl;
+import com.macedo.auth.authsystem.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Locks in how many SQL statements each user read path issues, so an N+1 on roles (or an extra
+ * join on the login path) shows up as a failing test instead of a slow endpoint.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserService.class, UserDetailsServiceImpl.class})
+@Testcontainers(disabledWithoutDocker = true)
+class UserQueryBudgetTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final int USERS = 30;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    private Statistics statistics;
+    private Long firstUserId;
+
+    @BeforeEach
+    void seed() {
+        Role user = entityManager.persist(Role.builder().name(RoleName.ROLE_USER).build());
+        Role admin = entityManager.persist(Role.builder().name(RoleName.ROLE_ADMIN).build());
+        for (int i = 0; i < USERS; i++) {
+            User saved = entityManager.persist(User.builder()
+                    .name("User " + i)
+                    .email("user" + i + "@example.com")
+                    .password("hash")
+                    .roles(i % 2 == 0 ? Set.of(user) : Set.of(user, admin))
+                    .build());
+            if (firstUserId == null) {
+                firstUserId = saved.getId();
+            }
+        }
+        // sem o contexto de persistencia do seed, toda leitura abaixo vai ao banco
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private long statements() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void loginLookupDoesNotLoadRoles() {
+        User found = userRepository.findByEmail("user1@example.com").orElseThrow();
+
+        assertEquals(1, statements());
+        assertFalse(Hibernate.isInitialized(found.getRoles()));
+    }
+
+    @Test
+    void credentialLookupIsOneStatementWithoutManagedEntities() {
+        UserCredentials found = userRepository.findCredentialsByEmail("user1@example.com").orElseThrow();
+
+        assertEquals(Set.of(RoleName.ROLE_USER, RoleName.ROLE_ADMIN), found.roles());
+        assertEquals(1, statements());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void credentialLookupOfUserWithoutRolesStillFindsUser() {
+        entityManager.persist(User.builder().name("No Roles").email("noroles@example.com").password("hash").roles(Set.of()).build());
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        assertTrue(userRepository.findCredentialsByEmail("noroles@example.com").orElseThrow().roles().isEmpty());
+        assertTrue(userRepository.findCredentialsByEmail("missing@example.com").isEmpty());
+    }
+
+    @Test
+    void tokenAuthenticationLoadsUserAndRolesInOneStatement() {
+        UserDetails details = userDetailsService.loadUserByUsername("user1@example.com");
+
+        assertEquals(2, details.getAuthorities().size());
+        assertTrue(details.isAccountNonLocked());
+        assertEquals(1, statements());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void userDetailLoadsUserAndRolesInOneStatement() {
+        assertEquals(1, userService.getUserById(firstUserId).getRoles().size());
+        assertEquals(1, statements());
+    }
+
+    @Test
+    void offsetPageIsPageQueryCountAndOneRoleBatch() {
+        var page = userService.searchUsers(null, 0, 20, null);
+
+        assertEquals(20, page.getItems().size());
+        assertTrue(page.getItems().stream().allMatch(item -> !item.getRoles().isEmpty()));
+        assertEquals(3, statements());
+    }
+
+    @Test
+    void searchPageIsPageQueryCountAndOneRoleBatch() {
+        var page = userService.searchUsers("user", 0, 20, new String[]{"name,asc"});
+
+        assertEquals(20, page.getItems().size());
+        assertEquals(3, statements());
+    }
+
+    @Test
+    void cursorPageWithoutTotalIsPageQueryAndOneRoleBatch() {
+        var page = userService.searchUsersByCursor(null, "", 20, null, "none");
+
+        assertEquals(20, page.getItems().size());
+        assertNotNull(page.getNextCursor());
+        assertEquals(2, statements());
+    }
+}
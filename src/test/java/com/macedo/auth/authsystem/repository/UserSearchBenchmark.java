@@ -0,0 +1,99 @@
+package com.macedo.auth.authsystem.repository;
+
+import com.macedo.auth.authsystem.benchmark.BenchmarkSupport;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+/**
+ * Admin user search on a seeded {@code users} table (-Dbenchmark.users, default 3 million rows),
+ * before and after the V5/V6 search indexes. Each case runs the page query and its count query,
+ * as the admin console does, and prints the plan of the page query.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class UserSearchBenchmark {
+
+    private static final int USERS = Integer.getInteger("benchmark.users", 3_000_000);
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 50;
+
+    private static final String PAGE = """
+            SELECT id, name, email FROM users
+            WHERE lower(name) LIKE ? ESCAPE '\\' OR lower(email) LIKE ? ESCAPE '\\'
+            ORDER BY created_at DESC LIMIT 20""";
+    private static final String COUNT = """
+            SELECT count(*) FROM users
+            WHERE lower(name) LIKE ? ESCAPE '\\' OR lower(email) LIKE ? ESCAPE '\\'""";
+    private static final String EMAIL_PAGE = """
+            SELECT id, name, email FROM users WHERE lower(email) LIKE ? ESCAPE '\\'
+            ORDER BY created_at DESC LIMIT 20""";
+    private static final String EMAIL_COUNT = "SELECT count(*) FROM users WHERE lower(email) LIKE ? ESCAPE '\\'";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static DataSource dataSource;
+    private static JdbcTemplate jdbc;
+
+    @BeforeAll
+    static void seed() {
+        dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+                CREATE TABLE users (
+                    id BIGSERIAL PRIMARY KEY,
+                    name VARCHAR(120) NOT NULL,
+                    email VARCHAR(160) NOT NULL UNIQUE,
+                    created_at TIMESTAMP WITH TIME ZONE NOT NULL
+                )""");
+        jdbc.update("""
+                INSERT INTO users (name, email, created_at)
+                SELECT 'User ' || md5(g::text), 'user' || g || '.' || substr(md5(g::text), 1, 6) || '@example.com',
+                       now() - g * interval '1 second'
+                FROM generate_series(1, ?) g""", USERS);
+        jdbc.execute("VACUUM ANALYZE users");
+    }
+
+    private static void indexes() throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V5__enable_pg_trgm.sql"));
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V6__index_user_search.sql"));
+        }
+        jdbc.execute("ANALYZE users");
+    }
+
+    @Test
+    void search() throws Exception {
+        measureAll("seq scan");
+        indexes();
+        measureAll("indexed");
+    }
+
+    private static void measureAll(String label) throws Exception {
+        // substring raro, substring comum e prefixo curto / rare substring, common substring and short prefix
+        measure(label + " substring '%a1b2c%'", PAGE, COUNT, "%a1b2c%");
+        measure(label + " substring '%user12345%'", PAGE, COUNT, "%user12345%");
+        measure(label + " prefix 'us%'", PAGE, COUNT, "us%");
+        measure(label + " email prefix 'user4242.%'", EMAIL_PAGE, EMAIL_COUNT, "user4242.%");
+    }
+
+    private static void measure(String name, String page, String count, String pattern) throws Exception {
+        Object[] args = page.equals(EMAIL_PAGE) ? new Object[]{pattern} : new Object[]{pattern, pattern};
+        jdbc.queryForList("EXPLAIN (ANALYZE, BUFFERS) " + page, String.class, args).forEach(System.out::println);
+        BenchmarkSupport.run(name, WARMUP, ITERATIONS, () -> {
+            jdbc.queryForList(page, args);
+            jdbc.queryForObject(count, Long.class, args);
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package com.macedo.auth.authsystem.security;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput of bursts of requests carrying invalid bearer tokens against the real servlet
+ * container, where the 401 path used to go through the {@code /error} dispatch.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "load-shedding.enabled=false")
+class InvalidTokenBurstBenchmark {
+
+    private static final int BURSTS = 10;
+    private static final int REQUESTS_PER_BURST = 5_000;
+    private static final int CONCURRENCY = 32;
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void invalidTokenBursts() throws Exception {
+        HttpClient client = HttpClient.newBuilder().build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/user/me"))
+                .header("Authorization", "Bearer not.a.valid-token")
+                .GET()
+                .build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        try {
+            // aquecimento / warmup
+            burst(client, request, executor);
+
+            for (int i = 1; i <= BURSTS; i++) {
+                long start = System.nanoTime();
+                burst(client, request, executor);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("invalid token burst %2d: %6d requests in %6.3f s = %10.1f req/s%n",
+                        i, REQUESTS_PER_BURST, seconds, REQUESTS_PER_BURST / seconds);
+            }
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void burst(HttpClient client, HttpRequest request, ExecutorService executor) throws Exception {
+        List<Future<Integer>> statuses = new ArrayList<>(REQUESTS_PER_BURST);
+        for (int i = 0; i < REQUESTS_PER_BURST; i++) {
+            statuses.add(executor.submit(() -> client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode()));
+        }
+        for (Future<Integer> status : statuses) {
+            assertEquals(401, status.get());
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.macedo.auth.authsystem.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtAuthenticationEntryPointTest {
+
+    private final JwtAuthenticationEntryPoint entryPoint = new JwtAuthenticationEntryPoint();
+
+    @Test
+    void whenUnauthenticated_thenWritesJsonBodyWithoutErrorDispatch() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/user/me");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        entryPoint.commence(request, response, new BadCredentialsException("invalid token"));
+
+        assertEquals(401, response.getStatus());
+        assertEquals("application/json", response.getContentType());
+        // sendError marcaria a resposta para o forward de erro do container
+        assertNull(response.getErrorMessage());
+
+        JsonNode body = new ObjectMapper().readTree(response.getContentAsByteArray());
+        assertEquals("UNAUTHORIZED", body.get("code").asText());
+        assertEquals("Unauthorized: Invalid or missing token", body.get("message").asText());
+        assertEquals("/api/user/me", body.get("path").asText());
+        assertTrue(body.hasNonNull("timestamp"));
+    }
+}
@@ -0,0 +1,87 @@
+package com.macedo.auth.authsystem.security;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.macedo.auth.authsystem.config.SecurityLoggingProperties;
+import com.macedo.auth.authsystem.security.SecurityEventLogger.Event;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityEventLoggerTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(SecurityEventLogger.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    private SecurityEventLogger securityEvents;
+
+    @BeforeEach
+    void setUp() {
+        SecurityLoggingProperties properties = new SecurityLoggingProperties();
+        properties.setSampleBurst(3);
+        properties.setSampleRate(0);
+        securityEvents = new SecurityEventLogger(properties);
+
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+    }
+
+    @Test
+    void whenBurstExceeded_thenCountsEverythingButLogsOnlyTheBurst() {
+        for (int i = 0; i < 100; i++) {
+            securityEvents.record(Event.TOKEN_EXPIRED, "Expired token: {}", i);
+        }
+
+        assertEquals(100, securityEvents.count(Event.TOKEN_EXPIRED));
+        assertEquals(3, appender.list.size());
+        assertTrue(appender.list.stream().allMatch(e -> e.getLevel() == Level.WARN));
+    }
+
+    @Test
+    void categoriesHaveIndependentBudgets() {
+        for (int i = 0; i < 10; i++) {
+            securityEvents.record(Event.LOGIN_FAILED, "Login failed for {}", "a@example.com");
+            securityEvents.record(Event.RATE_LIMITED, "Rate limit exceeded for {}", "/api/auth/login");
+        }
+
+        assertEquals(6, appender.list.size());
+    }
+
+    @Test
+    void summaryAggregatesPerCategoryAndResetsSamplingWindow() {
+        for (int i = 0; i < 5; i++) {
+            securityEvents.record(Event.LOGIN_FAILED, "Login failed for {}", "a@example.com");
+        }
+        securityEvents.record(Event.TOKEN_MALFORMED);
+        appender.list.clear();
+
+        securityEvents.logSummary();
+
+        assertEquals(1, appender.list.size());
+        String summary = appender.list.get(0).getFormattedMessage();
+        assertTrue(summary.contains("LOGIN_FAILED=5"));
+        assertTrue(summary.contains("TOKEN_MALFORMED=1"));
+        assertTrue(summary.contains("2 not logged individually"));
+
+        appender.list.clear();
+        securityEvents.record(Event.LOGIN_FAILED, "Login failed for {}", "a@example.com");
+        assertEquals(1, appender.list.size());
+    }
+
+    @Test
+    void whenNothingHappened_thenSummaryIsSilent() {
+        securityEvents.logSummary();
+
+        assertTrue(appender.list.isEmpty());
+    }
+}
@@ -0,0 +1,40 @@
+package com.macedo.auth.authsystem.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimedPasswordEncoderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TimedPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        encoder = new TimedPasswordEncoder(new BCryptPasswordEncoder(4), meterRegistry);
+    }
+
+    @Test
+    void whenEncodingAndMatching_thenDelegatesAndRecordsByOutcome() {
+        String hash = encoder.encode("Password@123");
+
+        assertTrue(encoder.matches("Password@123", hash));
+        assertFalse(encoder.matches("wrong", hash));
+        assertFalse(encoder.matches("wrong-again", hash));
+
+        assertEquals(1, count("encode", "none"));
+        assertEquals(1, count("matches", "match"));
+        assertEquals(2, count("matches", "mismatch"));
+    }
+
+    private long count(String operation, String outcome) {
+        return meterRegistry.get("auth.password.hash")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .timer().count();
+    }
+}
@@ -1,12 +1,17 @@
 package com.macedo.auth.authsystem.service;
 
+import com.macedo.auth.authsystem.audit.AuditEventType;
+import com.macedo.auth.authsystem.audit.AuditLog;
 import com.macedo.auth.authsystem.config.JwtProperties;
+import com.macedo.auth.authsystem.dto.AuthResponse;
 import com.macedo.auth.authsystem.dto.ChangePasswordRequest;
+import com.macedo.auth.authsystem.dto.LoginRequest;
 import com.macedo.auth.authsystem.entity.Role;
 import com.macedo.auth.authsystem.entity.RoleName;
 import com.macedo.auth.authsystem.entity.User;
 import com.macedo.auth.authsystem.exception.InvalidCredentialsException;
 import com.macedo.auth.authsystem.repository.RoleRepository;
+import com.macedo.auth.authsystem.repository.UserCredentials;
 import com.macedo.auth.authsystem.repository.UserRepository;
 import com.macedo.auth.authsystem.security.JwtTokenProvider;
 import org.junit.jupiter.api.BeforeEach;
@@ -51,6 +56,12 @@ class AuthServiceTest {
     @Mock
     private LoginAttemptService loginAttemptService;
 
+    @Mock
+    private AuditLog auditLog;
+
+    @Mock
+    private LoginHistoryService loginHistory;
+
     private AuthService authService;
 
     @BeforeEach
@@ -58,7 +69,7 @@ class AuthServiceTest {
         when(props.getAccessTokenExpirationMs()).thenReturn(900000L);
         when(props.getRefreshTokenExpirationMs()).thenReturn(86400000L);
         when(loginAttemptService.isLocked(anyString())).thenReturn(false);
-        authService = new AuthService(users, roles, encoder, jwt, props, refreshTokenService, loginAttemptService);
+        authService = new AuthService(users, roles, encoder, jwt, props, refreshTokenService, loginAttemptService, auditLog, loginHistory);
     }
 
     @Test
@@ -89,6 +100,7 @@ class AuthServiceTest {
         assertEquals("hashed-new-password", user.getPassword());
         verify(refreshTokenService).revokeAll(user);
         verify(users).save(user);
+        verify(auditLog).recordAfterCommit(AuditEventType.PASSWORD_CHANGED, email, "sessions_revoked");
     }
 
     @Test
@@ -192,4 +204,59 @@ class AuthServiceTest {
         assertEquals("hashed-new-password", user.getPassword());
         verify(refreshTokenService).revokeAll(user);
     }
+
+    private static LoginRequest loginRequest(String email, String password) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail(email);
+        request.setPassword(password);
+        return request;
+    }
+
+    @Test
+    void whenLogin_withValidCredentials_thenIssuesTokensFromProjection() {
+        String email = "user@example.com";
+        UserCredentials credentials = new UserCredentials(1L, email, "hashed", true, false, null, Set.of(RoleName.ROLE_USER));
+        User reference = User.builder().id(1L).build();
+
+        when(users.findCredentialsByEmail(email)).thenReturn(Optional.of(credentials));
+        when(encoder.matches("Secret123", "hashed")).thenReturn(true);
+        when(jwt.generateAccessToken(email)).thenReturn("access");
+        when(users.getReferenceById(1L)).thenReturn(reference);
+        when(refreshTokenService.issue(reference)).thenReturn("refresh");
+
+        AuthResponse response = authService.login(loginRequest(email, "Secret123"));
+
+        assertEquals("access", response.getAccessToken());
+        assertEquals("refresh", response.getRefreshToken());
+        verify(loginHistory).record(1L, true);
+        verify(users, never()).findByEmail(anyString());
+    }
+
+    @Test
+    void whenLogin_withPersistedLockAndCorrectPassword_thenRejectsWithGenericResponse() {
+        String email = "locked@example.com";
+        UserCredentials credentials = new UserCredentials(2L, email, "hashed", true, true, null, Set.of(RoleName.ROLE_USER));
+        when(users.findCredentialsByEmail(email)).thenReturn(Optional.of(credentials));
+        when(encoder.matches("Secret123", "hashed")).thenReturn(true);
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.login(loginRequest(email, "Secret123")));
+
+        verify(refreshTokenService, never()).issue(any());
+        verify(loginAttemptService, never()).loginSucceeded(email);
+        verify(auditLog).record(AuditEventType.LOGIN_FAILURE, email, "account_locked");
+    }
+
+    @Test
+    void whenLogin_withPersistedLockAndWrongPassword_thenLooksLikeAnyBadPassword() {
+        String email = "locked@example.com";
+        UserCredentials credentials = new UserCredentials(2L, email, "hashed", true, true, null, Set.of(RoleName.ROLE_USER));
+        when(users.findCredentialsByEmail(email)).thenReturn(Optional.of(credentials));
+        when(encoder.matches("Wrong123", "hashed")).thenReturn(false);
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.login(loginRequest(email, "Wrong123")));
+
+        verify(loginAttemptService).loginFailed(email);
+        verify(auditLog).record(AuditEventType.LOGIN_FAILURE, email, "bad_password");
+        verify(auditLog, never()).record(AuditEventType.LOGIN_FAILURE, email, "account_locked");
+    }
 }
@@ -1,17 +1,24 @@
 package com.macedo.auth.authsystem.service;
 
+import com.macedo.auth.authsystem.audit.AuditEventType;
+import com.macedo.auth.authsystem.audit.AuditLog;
+import com.macedo.auth.authsystem.config.SecurityLoggingProperties;
+import com.macedo.auth.authsystem.security.SecurityEventLogger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 class LoginAttemptServiceTest {
 
     private LoginAttemptService loginAttemptService;
+    private AuditLog auditLog;
 
     @BeforeEach
     void setUp() {
-        loginAttemptService = new LoginAttemptService();
+        auditLog = mock(AuditLog.class);
+        loginAttemptService = new LoginAttemptService(new SecurityEventLogger(new SecurityLoggingProperties()), auditLog);
     }
 
     @Test
@@ -40,6 +47,7 @@ class LoginAttemptServiceTest {
         }
         assertTrue(loginAttemptService.isLocked("test@example.com"));
         assertEquals(0, loginAttemptService.getRemainingAttempts("test@example.com"));
+        verify(auditLog).record(AuditEventType.ACCOUNT_LOCKED, "test@example.com", "failed_attempts=5");
     }
 
     @Test
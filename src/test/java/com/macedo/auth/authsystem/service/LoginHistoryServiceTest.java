@@ -0,0 +1,107 @@
+package com.macedo.auth.authsystem.service;
+
+import com.macedo.auth.authsystem.config.LoginHistoryProperties;
+import com.macedo.auth.authsystem.entity.LoginEvent;
+import com.macedo.auth.authsystem.repository.LoginEventRepository;
+import com.macedo.auth.authsystem.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LoginHistoryServiceTest {
+
+    private LoginEventRepository loginEvents;
+    private LoginHistoryProperties props;
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private static final long USER_ID = 7L;
+
+    @BeforeEach
+    void setUp() {
+        loginEvents = mock(LoginEventRepository.class);
+        props = new LoginHistoryProperties();
+        props.setBufferSize(10);
+        props.setBatchSize(4);
+    }
+
+    private LoginHistoryService service() {
+        LoginHistoryService service = new LoginHistoryService(loginEvents, mock(UserRepository.class), props);
+        service.bindTo(registry);
+        return service;
+    }
+
+    private double events(String result) {
+        return registry.get("auth.login_history.events").tag("result", result).functionCounter().count();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenFlushed_thenWritesPendingEventsInBatches() {
+        LoginHistoryService service = service();
+        List<List<LoginEvent>> batches = new ArrayList<>();
+        when(loginEvents.insertAll(any())).thenAnswer(invocation -> {
+            batches.add(List.copyOf((List<LoginEvent>) invocation.getArgument(0)));
+            return 0;
+        });
+
+        for (int i = 0; i < 10; i++) {
+            service.record(USER_ID, i % 2 == 0);
+        }
+        service.flush();
+
+        assertEquals(List.of(4, 4, 2), batches.stream().map(List::size).toList());
+        assertEquals(7L, batches.get(0).get(0).userId());
+        assertEquals(10, events("written"));
+    }
+
+    @Test
+    void whenQueueFull_thenDropsAndCounts() {
+        LoginHistoryService service = service();
+
+        for (int i = 0; i < 13; i++) {
+            service.record(USER_ID, true);
+        }
+
+        assertEquals(3, events("dropped"));
+    }
+
+    @Test
+    void whenInsertFails_thenBatchIsCountedAsFailed() {
+        LoginHistoryService service = service();
+        when(loginEvents.insertAll(any())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        service.record(USER_ID, true);
+        service.flush();
+        service.flush();
+
+        verify(loginEvents, times(1)).insertAll(any());
+        assertEquals(1, events("failed"));
+    }
+
+    @Test
+    void whenMaintained_thenCreatesAheadAndDropsExpiredPartitions() {
+        props.setRetentionMonths(3);
+        props.setPremakeMonths(1);
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        when(loginEvents.findPartitions()).thenReturn(List.of(
+                current.minusMonths(4), current.minusMonths(3), current.minusMonths(2), current));
+
+        service().maintainPartitions();
+
+        verify(loginEvents).createPartition(current);
+        verify(loginEvents).createPartition(current.plusMonths(1));
+        ArgumentCaptor<YearMonth> dropped = ArgumentCaptor.forClass(YearMonth.class);
+        verify(loginEvents, times(2)).dropPartition(dropped.capture());
+        assertEquals(List.of(current.minusMonths(4), current.minusMonths(3)), dropped.getAllValues());
+    }
+}
@@ -1,5 +1,6 @@
 package com.macedo.auth.authsystem.service;
 
+import com.macedo.auth.authsystem.audit.AuditLog;
 import com.macedo.auth.authsystem.dto.ResetPasswordRequest;
 import com.macedo.auth.authsystem.entity.PasswordResetToken;
 import com.macedo.auth.authsystem.entity.Role;
@@ -43,6 +44,9 @@ class PasswordResetServiceTest {
     @Mock
     private RefreshTokenService refreshTokenService;
 
+    @Mock
+    private AuditLog auditLog;
+
     private PasswordResetService passwordResetService;
 
     @BeforeEach
@@ -52,7 +56,8 @@ class PasswordResetServiceTest {
                 userRepository,
                 passwordEncoder,
                 emailService,
-                refreshTokenService
+                refreshTokenService,
+                auditLog
         );
     }
 
@@ -1,5 +1,6 @@
 package com.macedo.auth.authsystem.service;
 
+import com.macedo.auth.authsystem.audit.AuditLog;
 import com.macedo.auth.authsystem.config.JwtProperties;
 import com.macedo.auth.authsystem.entity.RefreshToken;
 import com.macedo.auth.authsystem.entity.User;
@@ -35,12 +36,15 @@ class RefreshTokenServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private AuditLog auditLog;
+
     private RefreshTokenService refreshTokenService;
 
     @BeforeEach
     void setUp() {
         when(props.getRefreshTokenExpirationMs()).thenReturn(86400000L);
-        refreshTokenService = new RefreshTokenService(repo, props, passwordEncoder);
+        refreshTokenService = new RefreshTokenService(repo, props, passwordEncoder, auditLog);
     }
 
     @Test
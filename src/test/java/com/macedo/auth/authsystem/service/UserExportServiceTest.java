@@ -0,0 +1,107 @@
+package com.macedo.auth.authsystem.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.macedo.auth.authsystem.exception.InvalidRequestParameterException;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers(disabledWithoutDocker = true)
+class UserExportServiceTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static UserExportService exportService;
+
+    @BeforeAll
+    static void seed() {
+        DataSource dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("""
+                CREATE TABLE users (id BIGSERIAL PRIMARY KEY, name VARCHAR(120) NOT NULL, email VARCHAR(160) NOT NULL,
+                                    enabled BOOLEAN NOT NULL, created_at TIMESTAMP WITH TIME ZONE NOT NULL);
+                CREATE TABLE roles (id BIGSERIAL PRIMARY KEY, name VARCHAR(30) NOT NULL);
+                CREATE TABLE user_roles (user_id BIGINT NOT NULL, role_id BIGINT NOT NULL);
+                INSERT INTO roles (name) VALUES ('ROLE_USER'), ('ROLE_ADMIN');
+                INSERT INTO users (name, email, enabled, created_at) VALUES
+                    ('Ana', 'ana@example.com', true, '2024-01-15T10:30:00Z'),
+                    ('Silva, "Bob"', 'bob@example.com', false, '2024-01-16T08:00:00Z');
+                INSERT INTO users (name, email, enabled, created_at)
+                    SELECT 'User ' || g, 'user' || g || '@example.com', true, now() FROM generate_series(3, 5000) g;
+                INSERT INTO user_roles VALUES (1, 1), (1, 2), (2, 1);
+                UPDATE users SET name = '=HYPERLINK("http://evil.example","x")' WHERE id = 3;
+                UPDATE users SET name = '@SUM(1+1)', email = '-2+3@example.com' WHERE id = 4;
+                """);
+        exportService = new UserExportService(dataSource, new DataSourceTransactionManager(dataSource), MAPPER);
+    }
+
+    private static String[] export(UserExportService.Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long count = exportService.export(format, out);
+        assertEquals(5000, count);
+        return out.toString(StandardCharsets.UTF_8).split("\n");
+    }
+
+    @Test
+    void whenNdjson_thenOneObjectPerLineInIdOrder() throws Exception {
+        String[] lines = export(UserExportService.Format.NDJSON);
+
+        assertEquals(5000, lines.length);
+        JsonNode first = MAPPER.readTree(lines[0]);
+        assertEquals(1, first.get("id").asLong());
+        assertEquals("ROLE_ADMIN", first.get("roles").get(0).asText());
+        assertEquals("ROLE_USER", first.get("roles").get(1).asText());
+        assertEquals("2024-01-15T10:30:00Z", first.get("createdAt").asText());
+        assertEquals("Silva, \"Bob\"", MAPPER.readTree(lines[1]).get("name").asText());
+        assertFalse(MAPPER.readTree(lines[1]).get("enabled").asBoolean());
+        assertEquals(0, MAPPER.readTree(lines[4999]).get("roles").size());
+    }
+
+    @Test
+    void whenCsv_thenHeaderAndQuotedFields() throws Exception {
+        String[] lines = export(UserExportService.Format.CSV);
+
+        assertEquals(5001, lines.length);
+        assertEquals("id,name,email,roles,enabled,createdAt\r", lines[0]);
+        assertEquals("1,Ana,ana@example.com,\"ROLE_ADMIN,ROLE_USER\",true,2024-01-15T10:30:00Z\r", lines[1]);
+        assertEquals("2,\"Silva, \"\"Bob\"\"\",bob@example.com,ROLE_USER,false,2024-01-16T08:00:00Z\r", lines[2]);
+    }
+
+    @Test
+    void whenCsvCellLooksLikeAFormula_thenItIsPrefixedWithAnApostrophe() throws Exception {
+        String[] lines = export(UserExportService.Format.CSV);
+
+        assertTrue(lines[3].startsWith("3,\"'=HYPERLINK(\"\"http://evil.example\"\",\"\"x\"\")\",user3@example.com,,true,"),
+                lines[3]);
+        assertTrue(lines[4].startsWith("4,'@SUM(1+1),'-2+3@example.com,,true,"), lines[4]);
+    }
+
+    @Test
+    void whenNdjson_thenValuesAreNotEscapedForSpreadsheets() throws Exception {
+        String[] lines = export(UserExportService.Format.NDJSON);
+
+        assertEquals("@SUM(1+1)", MAPPER.readTree(lines[3]).get("name").asText());
+    }
+
+    @Test
+    void whenFormatUnknown_thenRejected() {
+        assertEquals(UserExportService.Format.CSV, UserExportService.Format.parse("CSV"));
+        assertEquals(UserExportService.Format.NDJSON, UserExportService.Format.parse(null));
+        assertThrows(InvalidRequestParameterException.class, () -> UserExportService.Format.parse("xml"));
+    }
+}
@@ -0,0 +1,231 @@
+package com.macedo.auth.authsystem.service;
+
+import com.macedo.auth.authsystem.dto.PagedResponse;
+import com.macedo.auth.authsystem.dto.UserResponse;
+import com.macedo.auth.authsystem.entity.User;
+import com.macedo.auth.authsystem.exception.InvalidRequestParameterException;
+import com.macedo.auth.authsystem.repository.UserRepository;
+import com.macedo.auth.authsystem.repository.UserSortField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class UserServiceTest {
+
+    private UserRepository userRepository;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.searchByNameOrEmail(anyString(), any(Pageable.class))).thenReturn(Page.<User>empty());
+        when(userRepository.searchByEmail(anyString(), any(Pageable.class))).thenReturn(Page.<User>empty());
+        when(userRepository.findAll(any(Pageable.class))).thenReturn(Page.<User>empty());
+        userService = new UserService(userRepository);
+    }
+
+    @Test
+    void whenSearchTermIsLongEnough_thenUsesLowerCasedSubstringPattern() {
+        userService.searchUsers("  Silva ", null, null, null);
+
+        verify(userRepository).searchByNameOrEmail(eq("%silva%"), any(Pageable.class));
+    }
+
+    @Test
+    void whenSearchTermLooksLikeEmail_thenUsesEmailPrefixOnly() {
+        userService.searchUsers("Joao@Exa", null, null, null);
+
+        verify(userRepository).searchByEmail(eq("joao@exa%"), any(Pageable.class));
+        verify(userRepository, never()).searchByNameOrEmail(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void whenSearchTermIsEmailDomain_thenUsesSubstringPattern() {
+        userService.searchUsers("@example.com", null, null, null);
+
+        verify(userRepository).searchByNameOrEmail(eq("%@example.com%"), any(Pageable.class));
+    }
+
+    @Test
+    void whenSearchTermIsShorterThanATrigram_thenUsesPrefixPattern() {
+        userService.searchUsers("jo", null, null, null);
+
+        verify(userRepository).searchByNameOrEmail(eq("jo%"), any(Pageable.class));
+    }
+
+    @Test
+    void whenSearchTermHasExactlyThreeCharacters_thenUsesSubstringPattern() {
+        userService.searchUsers("Ana", null, null, null);
+
+        verify(userRepository).searchByNameOrEmail(eq("%ana%"), any(Pageable.class));
+    }
+
+    @Test
+    void whenShortTermIsPaddedWithSpaces_thenLengthIsCountedAfterTrimming() {
+        userService.searchUsers("  li  ", null, null, null);
+
+        // "li" nao encontra mais "Oliveira", so nomes/emails que comecam com "li"
+        verify(userRepository).searchByNameOrEmail(eq("li%"), any(Pageable.class));
+    }
+
+    @Test
+    void whenSearchTermHasAtSignAfterShortLocalPart_thenStillEmailPrefixOnly() {
+        userService.searchUsers("a@", null, null, null);
+
+        verify(userRepository).searchByEmail(eq("a@%"), any(Pageable.class));
+        verify(userRepository, never()).searchByNameOrEmail(anyString(), any(Pageable.class));
+    }
+
+    @Test
+    void whenSearchTermHasLikeWildcards_thenTheyAreEscaped() {
+        userService.searchUsers("100%_a\\b", null, null, null);
+
+        verify(userRepository).searchByNameOrEmail(eq("%100\\%\\_a\\\\b%"), any(Pageable.class));
+    }
+
+    private static List<User> users(int count) {
+        return IntStream.rangeClosed(1, count)
+                .mapToObj(i -> User.builder()
+                        .id((long) i)
+                        .name("User " + i)
+                        .email("user" + i + "@example.com")
+                        .roles(Set.of())
+                        .createdAt(Instant.parse("2024-01-01T00:00:00Z").minusSeconds(i))
+                        .build())
+                .toList();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenCursorPageIsFull_thenReturnsNextCursorForItsLastRow() {
+        when(userRepository.findBy(any(Specification.class), any())).thenReturn(users(3));
+        when(userRepository.estimateCount()).thenReturn(1_000L);
+
+        PagedResponse<UserResponse> response = userService.searchUsersByCursor(null, "", 2, null, null);
+
+        assertEquals(2, response.getItems().size());
+        assertNull(response.getPage().getNumber());
+        assertEquals(1_000L, response.getPage().getTotalItems());
+        assertTrue(response.getPage().getTotalEstimated());
+        UserCursor next = UserCursor.decode(response.getNextCursor());
+        assertEquals(UserSortField.CREATED_AT, next.field());
+        assertTrue(next.descending());
+        assertEquals(2L, next.id());
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z").minusSeconds(2), next.key());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenLastCursorPage_thenNoNextCursorAndNoCountQuery() {
+        when(userRepository.findBy(any(Specification.class), any())).thenReturn(users(1));
+
+        PagedResponse<UserResponse> response = userService.searchUsersByCursor("silva", "", 2, null, "none");
+
+        assertNull(response.getNextCursor());
+        assertNull(response.getPage().getTotalItems());
+        verify(userRepository, never()).estimateCount();
+        verify(userRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenEstimateRequestedForFilteredSearch_thenNoTotalAndNotFlaggedAsEstimate() {
+        when(userRepository.findBy(any(Specification.class), any())).thenReturn(users(1));
+
+        PagedResponse<UserResponse> response = userService.searchUsersByCursor("silva", "", 2, null, "estimate");
+
+        assertNull(response.getPage().getTotalItems());
+        assertNull(response.getPage().getTotalEstimated());
+        verify(userRepository, never()).estimateCount();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenTableNeverAnalyzed_thenNoTotalAndNotFlaggedAsEstimate() {
+        when(userRepository.findBy(any(Specification.class), any())).thenReturn(users(1));
+        when(userRepository.estimateCount()).thenReturn(-1L);
+
+        PagedResponse<UserResponse> response = userService.searchUsersByCursor(null, "", 2, null, "estimate");
+
+        assertNull(response.getPage().getTotalItems());
+        assertNull(response.getPage().getTotalEstimated());
+    }
+
+    @Test
+    void whenCursorUsedWithDifferentSort_thenRejected() {
+        String cursor = new UserCursor(UserSortField.NAME, false, 10, "Maria").encode();
+
+        assertThrows(InvalidRequestParameterException.class,
+                () -> userService.searchUsersByCursor(null, cursor, 20, new String[]{"createdAt,desc"}, null));
+    }
+
+    @Test
+    void whenCursorSortFieldUnsupported_thenRejected() {
+        assertThrows(InvalidRequestParameterException.class,
+                () -> userService.searchUsersByCursor(null, "", 20, new String[]{"phoneNumber,asc"}, null));
+    }
+
+    @Test
+    void whenCursorMalformed_thenRejected() {
+        assertThrows(InvalidRequestParameterException.class, () -> UserCursor.decode("not a cursor"));
+        assertThrows(InvalidRequestParameterException.class, () -> UserCursor.decode(
+                new UserCursor(UserSortField.CREATED_AT, true, 1, "yesterday").encode()));
+    }
+
+    @Test
+    void whenCursorValueContainsSeparator_thenRoundTrips() {
+        UserCursor cursor = new UserCursor(UserSortField.NAME, false, 42, "Ana | Maria");
+
+        assertEquals(cursor, UserCursor.decode(cursor.encode()));
+    }
+
+    private Sort listedSort(String... sort) {
+        userService.searchUsers(null, 0, 20, sort);
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(userRepository).findAll(pageable.capture());
+        return pageable.getValue().getSort();
+    }
+
+    @Test
+    void whenNoSort_thenNewestFirstWithIdTiebreaker() {
+        assertEquals(Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")), listedSort());
+    }
+
+    @Test
+    void whenSeveralSortParameters_thenAllAreKeptInOrder() {
+        assertEquals(Sort.by(Sort.Order.asc("name"), Sort.Order.desc("createdAt"), Sort.Order.desc("id")),
+                listedSort("name,asc", "createdAt,desc"));
+    }
+
+    @Test
+    void whenSingleCommaSeparatedSortIsSplitBySpring_thenStillParsed() {
+        assertEquals(Sort.by(Sort.Order.desc("name"), Sort.Order.desc("id")), listedSort("name", "desc"));
+    }
+
+    @Test
+    void whenSortedByUniqueField_thenNoIdTiebreaker() {
+        assertEquals(Sort.by(Sort.Order.asc("email")), listedSort("email"));
+    }
+
+    @Test
+    void whenSortFieldNotWhitelisted_thenRejected() {
+        assertThrows(InvalidRequestParameterException.class, () -> listedSort("phoneNumber,asc"));
+        assertThrows(InvalidRequestParameterException.class, () -> listedSort("password"));
+        assertThrows(InvalidRequestParameterException.class, () -> listedSort("name,asc", "name,desc"));
+        assertThrows(InvalidRequestParameterException.class, () -> listedSort("desc"));
+    }
+}
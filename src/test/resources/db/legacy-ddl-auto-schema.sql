@@ -0,0 +1,67 @@
+-- Banco como o ddl-auto=update deixava antes do Flyway: sem flyway_schema_history, sem account_locked
+-- (o update nao conseguia adicionar a coluna NOT NULL em tabela com linhas), failed_attempts com NULLs
+-- e o UNIQUE (user_id) com nome gerado pelo antigo @OneToOne de RefreshToken
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(120) NOT NULL,
+    email VARCHAR(160) NOT NULL,
+    password VARCHAR(120) NOT NULL,
+    enabled BOOLEAN NOT NULL,
+    avatar_url VARCHAR(500),
+    phone_number VARCHAR(20),
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP(6) WITH TIME ZONE,
+    failed_attempts INTEGER,
+    lock_time TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE roles (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(30) NOT NULL CHECK (name IN ('ROLE_ADMIN', 'ROLE_USER')),
+    CONSTRAINT uk_roles_name UNIQUE (name)
+);
+
+CREATE TABLE user_roles (
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    role_id BIGINT NOT NULL REFERENCES roles (id),
+    PRIMARY KEY (user_id, role_id)
+);
+
+CREATE TABLE refresh_tokens (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users (id),
+    token VARCHAR(200) NOT NULL,
+    expiry_date TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    revoked BOOLEAN NOT NULL,
+    device_name VARCHAR(255),
+    ip VARCHAR(45),
+    user_agent VARCHAR(500),
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    last_used_at TIMESTAMP(6) WITH TIME ZONE,
+    CONSTRAINT ukk7ylhdkx2v4w0fxm4qjbs3tg9 UNIQUE (user_id)
+);
+
+CREATE UNIQUE INDEX idx_refresh_token ON refresh_tokens (token);
+
+CREATE TABLE password_reset_tokens (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email VARCHAR(160) NOT NULL,
+    token VARCHAR(255) NOT NULL,
+    expiry_date TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    used BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    used_at TIMESTAMP(6) WITH TIME ZONE,
+    ip_address VARCHAR(45)
+);
+
+CREATE UNIQUE INDEX idx_password_reset_token ON password_reset_tokens (token);
+CREATE INDEX idx_password_reset_email ON password_reset_tokens (email);
+
+INSERT INTO roles (name) VALUES ('ROLE_USER'), ('ROLE_ADMIN');
+INSERT INTO users (id, name, email, password, enabled, created_at, failed_attempts) VALUES
+    (1, 'Ana', 'ana@example.com', 'hash', true, now(), NULL),
+    (120, 'Bob', 'bob@example.com', 'hash', true, now(), 2);
+INSERT INTO user_roles (user_id, role_id) VALUES (1, 1), (120, 1);
+INSERT INTO refresh_tokens (user_id, token, expiry_date, revoked, created_at)
+    VALUES (120, 'legacy-token', now() + interval '1 day', false, now());